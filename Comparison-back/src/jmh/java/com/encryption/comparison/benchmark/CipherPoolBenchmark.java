@@ -0,0 +1,110 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.CipherPool;
+import com.encryption.comparison.service.EccCryptoService;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-operation cost of {@code Cipher.getInstance} on every call versus a {@link CipherPool} instance,
+ * for small payloads where the provider lookup is a visible share of the total.
+ * Run with {@code -t 8} (or more) to see the effect of lookup contention.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CipherPoolBenchmark {
+
+    private static final String RSA_TRANSFORMATION = "RSA/ECB/PKCS1Padding";
+    private static final String AES_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+
+    @Param({ "16", "256" })
+    int payloadSize;
+
+    KeyPair rsaKeyPair;
+    SecretKey aesKey;
+    Object[] eccKeyPair;
+    byte[] payload;
+    byte[] rsaPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        KeyPairGenerator rsaGen = KeyPairGenerator.getInstance("RSA");
+        rsaGen.initialize(2048);
+        rsaKeyPair = rsaGen.generateKeyPair();
+
+        KeyGenerator aesGen = KeyGenerator.getInstance("AES");
+        aesGen.init(256);
+        aesKey = aesGen.generateKey();
+
+        eccKeyPair = new EccCryptoService().generateKeyPair(256);
+
+        payload = new byte[payloadSize];
+        new SecureRandom().nextBytes(payload);
+        rsaPayload = new byte[Math.min(payloadSize, 245)];
+    }
+
+    @Benchmark
+    public byte[] rsaEncryptGetInstance() throws Exception {
+        Cipher cipher = Cipher.getInstance(RSA_TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, rsaKeyPair.getPublic());
+        return cipher.doFinal(rsaPayload);
+    }
+
+    @Benchmark
+    public byte[] rsaEncryptPooled() throws Exception {
+        Cipher cipher = CipherPool.cipher(RSA_TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, rsaKeyPair.getPublic());
+        return cipher.doFinal(rsaPayload);
+    }
+
+    @Benchmark
+    public byte[] aesEncryptGetInstance() throws Exception {
+        Cipher cipher = Cipher.getInstance(AES_TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, aesKey);
+        return cipher.doFinal(payload);
+    }
+
+    @Benchmark
+    public byte[] aesEncryptPooled() throws Exception {
+        Cipher cipher = CipherPool.cipher(AES_TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, aesKey);
+        return cipher.doFinal(payload);
+    }
+
+    @Benchmark
+    public SecretKey aesKeyGenerationGetInstance() throws Exception {
+        KeyGenerator generator = KeyGenerator.getInstance("AES");
+        generator.init(256);
+        return generator.generateKey();
+    }
+
+    @Benchmark
+    public SecretKey aesKeyGenerationPooled() throws Exception {
+        return CipherPool.keyGenerator("AES", 256).generateKey();
+    }
+
+    @Benchmark
+    public byte[] eciesEncryptGetInstance() throws Exception {
+        Cipher cipher = Cipher.getInstance("ECIES", "BC");
+        cipher.init(Cipher.ENCRYPT_MODE, (java.security.PublicKey) eccKeyPair[0]);
+        return cipher.doFinal(payload);
+    }
+
+    @Benchmark
+    public byte[] eciesEncryptPooled() throws Exception {
+        Cipher cipher = CipherPool.cipher("ECIES", "BC");
+        cipher.init(Cipher.ENCRYPT_MODE, (java.security.PublicKey) eccKeyPair[0]);
+        return cipher.doFinal(payload);
+    }
+}
@@ -0,0 +1,39 @@
+package com.encryption.comparison.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the crypto benchmarks and writes the results as JSON.
+ * <p>
+ * Usage: {@code CryptoBenchmarkRunner [includeRegex] [resultFile]}, defaulting to every benchmark in this
+ * package and {@code build/reports/jmh/crypto-benchmarks.json}.
+ */
+public class CryptoBenchmarkRunner {
+
+    private static final String DEFAULT_INCLUDE = CryptoBenchmarkRunner.class.getPackageName() + ".*Benchmark";
+    private static final String DEFAULT_RESULT_FILE = "build/reports/jmh/crypto-benchmarks.json";
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+        String resultFile = args.length > 1 ? args[1] : DEFAULT_RESULT_FILE;
+
+        File parent = new File(resultFile).getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IllegalStateException("Could not create result directory: " + parent);
+        }
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+
+        new Runner(options).run();
+        System.out.println("JMH results written to " + resultFile);
+    }
+}
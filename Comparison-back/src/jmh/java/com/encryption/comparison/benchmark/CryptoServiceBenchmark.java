@@ -0,0 +1,57 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.CryptoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key generation, encrypt and decrypt benchmarks against one {@link CryptoService}, bypassing Spring and the REST
+ * layer. Subclasses pass the service and declare the {@code keySize} and {@code payloadSize} parameters; key
+ * generation does not use the payload, so filter it with {@code -p payloadSize=...} to measure each key size once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class CryptoServiceBenchmark {
+
+    private final CryptoService service;
+    private Object[] keyPair;
+    private byte[] payload;
+    private byte[] ciphertext;
+
+    protected CryptoServiceBenchmark(CryptoService service) {
+        this.service = service;
+    }
+
+    protected abstract int keySize();
+
+    protected abstract int payloadSize();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keyPair = service.generateKeyPair(keySize());
+        payload = new byte[payloadSize()];
+        new SecureRandom().nextBytes(payload);
+        ciphertext = service.encrypt(payload, keyPair[0]);
+    }
+
+    @Benchmark
+    public Object[] generateKeyPair() throws Exception {
+        return service.generateKeyPair(keySize());
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws Exception {
+        return service.encrypt(payload, keyPair[0]);
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws Exception {
+        return service.decrypt(ciphertext, keyPair[1]);
+    }
+}
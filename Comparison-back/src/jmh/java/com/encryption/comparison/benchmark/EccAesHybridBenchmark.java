@@ -0,0 +1,31 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.EccAesHybridService;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * ECDH + HKDF + AES-GCM hybrid benchmarks against {@link EccAesHybridService} (JDK providers),
+ * the ECC counterpart of {@link RsaAesHybridBenchmark}. Key sizes map to secp256r1/384r1/521r1.
+ */
+public class EccAesHybridBenchmark extends CryptoServiceBenchmark {
+
+    @Param({ "256", "384", "521" })
+    int keySize;
+
+    @Param({ "16", "1024", "102400", "1048576" })
+    int payloadSize;
+
+    public EccAesHybridBenchmark() {
+        super(new EccAesHybridService());
+    }
+
+    @Override
+    protected int keySize() {
+        return keySize;
+    }
+
+    @Override
+    protected int payloadSize() {
+        return payloadSize;
+    }
+}
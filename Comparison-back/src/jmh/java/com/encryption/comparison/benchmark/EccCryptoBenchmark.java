@@ -0,0 +1,31 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.EccCryptoService;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * ECIES (BouncyCastle) benchmarks against {@link EccCryptoService}, bypassing Spring and the REST layer.
+ * Key sizes map to the secp256r1, secp384r1 and secp521r1 curves.
+ */
+public class EccCryptoBenchmark extends CryptoServiceBenchmark {
+
+    @Param({ "256", "384", "521" })
+    int keySize;
+
+    @Param({ "16", "1024", "102400" })
+    int payloadSize;
+
+    public EccCryptoBenchmark() {
+        super(new EccCryptoService());
+    }
+
+    @Override
+    protected int keySize() {
+        return keySize;
+    }
+
+    @Override
+    protected int payloadSize() {
+        return payloadSize;
+    }
+}
@@ -0,0 +1,61 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.EcCurveCache;
+import com.encryption.comparison.service.EccCryptoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ECIES encryption to one recipient with the BC {@code ECIES} cipher ({@code precompute=false}) versus
+ * {@link EcCurveCache}'s shared curve and per-recipient comb table ({@code precompute=true}), and EC key
+ * generation with a fresh {@code KeyPairGenerator} per key versus the pre-initialised per-curve generator.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EccPrecomputationBenchmark {
+
+    @Param({ "256", "384", "521" })
+    int keySize;
+
+    @Param({ "false", "true" })
+    boolean precompute;
+
+    @Param({ "1024" })
+    int payloadSize;
+
+    EccCryptoService service;
+    Object[] keyPair;
+    byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        service = new EccCryptoService("BC", precompute);
+        keyPair = service.generateKeyPair(keySize);
+        payload = new byte[payloadSize];
+        new SecureRandom().nextBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] encryptSameRecipient() throws Exception {
+        return service.encrypt(payload, keyPair[0]);
+    }
+
+    @Benchmark
+    public Object generateKeyPair() throws Exception {
+        if (precompute) {
+            return service.generateKeyPair(keySize);
+        }
+        // What EccCryptoService did per call before the generators were pooled
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", "BC");
+        generator.initialize(new ECGenParameterSpec(EcCurveCache.curveName(keySize)), new SecureRandom());
+        return generator.generateKeyPair();
+    }
+}
@@ -0,0 +1,118 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.model.DecryptionRequest;
+import com.encryption.comparison.model.EncryptionRequest;
+import com.encryption.comparison.service.CryptoService;
+import com.encryption.comparison.service.EccAesHybridService;
+import com.encryption.comparison.service.RsaAesHybridService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request/response handling of the JSON encrypt/decrypt endpoints (Jackson, Base64, String conversion) versus
+ * the {@code /binary} endpoints (body bytes straight into the cipher), replaying what each controller method
+ * does without the HTTP stack so that only the format overhead differs. For {@code rsa-aes} the binary path is
+ * the streaming envelope, as in the controller.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndpointFormatBenchmark {
+
+    private static final String SESSION_ID = "8a4f1c9e-2b7d-4e61-9f3a-0c5d7e2b1a48";
+
+    @Param({ "rsa-aes", "ecc-aes" })
+    String algorithm;
+
+    @Param({ "1024", "65536", "1048576" })
+    int payloadSize;
+
+    final ObjectMapper objectMapper = new ObjectMapper();
+    CryptoService service;
+    Object[] keyPair;
+    byte[] plaintext; // Printable ASCII, so the JSON and binary bodies carry the same text
+    byte[] ciphertext;
+    byte[] jsonEncryptRequest;
+    byte[] jsonDecryptRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        service = algorithm.equals("rsa-aes") ? new RsaAesHybridService() : new EccAesHybridService();
+        keyPair = service.generateKeyPair(algorithm.equals("rsa-aes") ? 2048 : 256);
+
+        plaintext = new byte[payloadSize];
+        Random random = new Random(42);
+        for (int i = 0; i < plaintext.length; i++) {
+            plaintext[i] = (byte) ('a' + random.nextInt(26));
+        }
+        ciphertext = service.encrypt(plaintext, keyPair[0]);
+
+        EncryptionRequest encryptionRequest = new EncryptionRequest();
+        encryptionRequest.setSessionId(SESSION_ID);
+        encryptionRequest.setData(new String(plaintext, StandardCharsets.UTF_8));
+        jsonEncryptRequest = objectMapper.writeValueAsBytes(encryptionRequest);
+
+        DecryptionRequest decryptionRequest = new DecryptionRequest();
+        decryptionRequest.setSessionId(SESSION_ID);
+        decryptionRequest.setEncryptedData(Base64.getEncoder().encodeToString(ciphertext));
+        jsonDecryptRequest = objectMapper.writeValueAsBytes(decryptionRequest);
+    }
+
+    @Benchmark
+    public byte[] jsonEncrypt() throws Exception {
+        EncryptionRequest request = objectMapper.readValue(jsonEncryptRequest, EncryptionRequest.class);
+        byte[] encrypted = service.encrypt(request.getData().getBytes(StandardCharsets.UTF_8), keyPair[0]);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("encryptedData", Base64.getEncoder().encodeToString(encrypted));
+        response.put("algorithm", service.getAlgorithmName());
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] binaryEncrypt() throws Exception {
+        ByteArrayInputStream in = new ByteArrayInputStream(plaintext);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payloadSize + 1024);
+        if (service instanceof RsaAesHybridService hybrid) {
+            hybrid.encrypt(in, out, keyPair[0]);
+        } else {
+            out.write(service.encrypt(in.readNBytes(payloadSize), keyPair[0]));
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] jsonDecrypt() throws Exception {
+        DecryptionRequest request = objectMapper.readValue(jsonDecryptRequest, DecryptionRequest.class);
+        byte[] decrypted = service.decrypt(Base64.getDecoder().decode(request.getEncryptedData()), keyPair[1]);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("decryptedData", new String(decrypted, StandardCharsets.UTF_8));
+        response.put("algorithm", service.getAlgorithmName());
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] binaryDecrypt() throws Exception {
+        ByteArrayInputStream in = new ByteArrayInputStream(ciphertext);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payloadSize + 1024);
+        if (service instanceof RsaAesHybridService hybrid) {
+            hybrid.decrypt(in, out, keyPair[1]);
+        } else {
+            out.write(service.decrypt(in.readNBytes(ciphertext.length), keyPair[1]));
+        }
+        return out.toByteArray();
+    }
+}
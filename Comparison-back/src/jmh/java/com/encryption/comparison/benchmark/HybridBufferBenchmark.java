@@ -0,0 +1,71 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.RsaAesHybridService;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RSA+AES hybrid envelope through the {@code byte[]} API ({@code buffer=array}) versus the
+ * {@code ByteBuffer} overloads writing into preallocated heap or direct buffers. Run with {@code -prof gc}:
+ * {@code gc.alloc.rate.norm} is the allocation per call, which only the array API scales with the payload.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HybridBufferBenchmark {
+
+    @Param({ "65536", "1048576", "16777216" })
+    int payloadSize;
+
+    @Param({ "array", "heap", "direct" })
+    String buffer;
+
+    final RsaAesHybridService service = new RsaAesHybridService();
+    Object[] keyPair;
+    byte[] payload;
+    byte[] ciphertext;
+    ByteBuffer payloadBuffer;
+    ByteBuffer ciphertextBuffer;
+    ByteBuffer encryptOut;
+    ByteBuffer decryptOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keyPair = service.generateKeyPair(2048);
+        payload = new byte[payloadSize];
+        new SecureRandom().nextBytes(payload);
+        ciphertext = service.encrypt(payload, keyPair[0]);
+
+        int encryptedSize = RsaAesHybridService.encryptedSize(payloadSize, keyPair[0]);
+        payloadBuffer = allocate(payloadSize).put(payload).flip();
+        ciphertextBuffer = allocate(ciphertext.length).put(ciphertext).flip();
+        encryptOut = allocate(encryptedSize);
+        decryptOut = allocate(encryptedSize);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return "direct".equals(buffer) ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    @Benchmark
+    public Object encrypt() throws Exception {
+        if ("array".equals(buffer)) {
+            return service.encrypt(payload, keyPair[0]);
+        }
+        return service.encrypt(payloadBuffer.rewind(), encryptOut.clear(), keyPair[0]);
+    }
+
+    @Benchmark
+    public Object decrypt() throws Exception {
+        if ("array".equals(buffer)) {
+            return service.decrypt(ciphertext, keyPair[1]);
+        }
+        return service.decrypt(ciphertextBuffer.rewind(), decryptOut.clear(), keyPair[1]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.RsaAesHybridService;
+import com.encryption.comparison.service.RsaAesSessionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages to one recipient through the per-message RSA+AES hybrid (a fresh AES key and an RSA wrap each time)
+ * versus {@link RsaAesSessionService}, which wraps one data key per session and reuses it with AES-GCM.
+ * Decryption of session messages measures the cached-key path (type 2 envelopes).
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HybridSessionBenchmark {
+
+    @Param({ "2048", "4096" })
+    int keySize;
+
+    @Param({ "64", "1024", "65536" })
+    int payloadSize;
+
+    final RsaAesHybridService perMessage = new RsaAesHybridService();
+    // Rotation far beyond the run, so the measurement never includes a re-wrap
+    final RsaAesSessionService session = new RsaAesSessionService(3600, Long.MAX_VALUE, 16);
+    Object[] keyPair;
+    byte[] payload;
+    byte[] perMessageCiphertext;
+    byte[] sessionCiphertext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keyPair = perMessage.generateKeyPair(keySize);
+        payload = new byte[payloadSize];
+        new SecureRandom().nextBytes(payload);
+        perMessageCiphertext = perMessage.encrypt(payload, keyPair[0]);
+        session.decrypt(session.encrypt("bench", payload, keyPair[0]), keyPair[1]); // Caches the data key
+        sessionCiphertext = session.encrypt("bench", payload, keyPair[0]);
+    }
+
+    @Benchmark
+    public byte[] encryptPerMessage() throws Exception {
+        return perMessage.encrypt(payload, keyPair[0]);
+    }
+
+    @Benchmark
+    public byte[] encryptSession() throws Exception {
+        return session.encrypt("bench", payload, keyPair[0]);
+    }
+
+    @Benchmark
+    public byte[] decryptPerMessage() throws Exception {
+        return perMessage.decrypt(perMessageCiphertext, keyPair[1]);
+    }
+
+    @Benchmark
+    public byte[] decryptSession() throws Exception {
+        return session.decrypt(sessionCiphertext, keyPair[1]);
+    }
+}
@@ -0,0 +1,31 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.RsaAesGcmHybridService;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Segmented RSA+AES-GCM benchmarks against {@link RsaAesGcmHybridService}. Compare the large payload sizes
+ * with {@link RsaAesHybridBenchmark}: segments are processed in parallel on the common ForkJoinPool.
+ */
+public class RsaAesGcmHybridBenchmark extends CryptoServiceBenchmark {
+
+    @Param({ "2048", "3072", "4096" })
+    int keySize;
+
+    @Param({ "1024", "1048576", "16777216" })
+    int payloadSize;
+
+    public RsaAesGcmHybridBenchmark() {
+        super(new RsaAesGcmHybridService());
+    }
+
+    @Override
+    protected int keySize() {
+        return keySize;
+    }
+
+    @Override
+    protected int payloadSize() {
+        return payloadSize;
+    }
+}
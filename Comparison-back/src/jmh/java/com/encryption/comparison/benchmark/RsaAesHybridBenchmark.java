@@ -0,0 +1,31 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.RsaAesHybridService;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * RSA+AES hybrid envelope benchmarks against {@link RsaAesHybridService}, bypassing Spring and the REST layer.
+ * Unlike raw RSA the payload is unbounded, so larger sizes show the AES share of the cost.
+ */
+public class RsaAesHybridBenchmark extends CryptoServiceBenchmark {
+
+    @Param({ "2048", "3072", "4096" })
+    int keySize;
+
+    @Param({ "16", "1024", "102400", "1048576", "16777216" })
+    int payloadSize;
+
+    public RsaAesHybridBenchmark() {
+        super(new RsaAesHybridService());
+    }
+
+    @Override
+    protected int keySize() {
+        return keySize;
+    }
+
+    @Override
+    protected int payloadSize() {
+        return payloadSize;
+    }
+}
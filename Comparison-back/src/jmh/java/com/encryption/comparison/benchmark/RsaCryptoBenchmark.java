@@ -0,0 +1,31 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.RsaCryptoService;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Raw RSA (PKCS#1 v1.5) benchmarks against {@link RsaCryptoService}, bypassing Spring and the REST layer.
+ * Payload sizes are kept below the smallest modulus capacity (2048 bits -> 245 bytes).
+ */
+public class RsaCryptoBenchmark extends CryptoServiceBenchmark {
+
+    @Param({ "2048", "3072", "4096" })
+    int keySize;
+
+    @Param({ "16", "64", "128" })
+    int payloadSize;
+
+    public RsaCryptoBenchmark() {
+        super(new RsaCryptoService());
+    }
+
+    @Override
+    protected int keySize() {
+        return keySize;
+    }
+
+    @Override
+    protected int payloadSize() {
+        return payloadSize;
+    }
+}
@@ -0,0 +1,88 @@
+package com.encryption.comparison.benchmark;
+
+import com.encryption.comparison.service.RsaAesHybridService;
+import com.encryption.comparison.service.WorkerThreads;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-per-request on a fixed platform pool (Tomcat's default of 200 threads) against one virtual thread per
+ * request, at increasing numbers of concurrent requests. Each request blocks for {@code blockingMillis} (standing
+ * in for downstream I/O) and then runs an RSA+AES hybrid encryption, so the score is requests per millisecond.
+ * <p>
+ * Cipher instances come from {@code CipherPool} on both sides: the pool's platform threads keep a cached set each,
+ * and every virtual thread borrows a set from the shared pool for the duration of its encryption, so the rows
+ * compare the thread models rather than cache hits against {@code Cipher.getInstance} calls.
+ * <p>
+ * The {@code virtual} rows need Java 21 ({@code -PjavaVersion=21}) and fail in setup on older runtimes. Run with
+ * {@code -prof gc} for allocation and GC figures per request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 200;
+
+    @Param({ "platform", "virtual" })
+    String threadModel;
+
+    @Param({ "100", "1000", "10000" })
+    int concurrency;
+
+    @Param({ "0", "10" })
+    int blockingMillis;
+
+    final RsaAesHybridService service = new RsaAesHybridService();
+    Object[] keyPair;
+    byte[] payload;
+    ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keyPair = service.generateKeyPair(2048);
+        payload = new byte[1024];
+        new SecureRandom().nextBytes(payload);
+        executor = "virtual".equals(threadModel)
+                ? WorkerThreads.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_POOL_SIZE, WorkerThreads.factory("request-", false));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10000)
+    public long requests() throws Exception {
+        // Scale to a fixed 10000 requests per invocation so scores are comparable across concurrency levels
+        int rounds = 10000 / concurrency;
+        long bytes = 0;
+        for (int round = 0; round < rounds; round++) {
+            List<Future<byte[]>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    if (blockingMillis > 0) {
+                        Thread.sleep(blockingMillis);
+                    }
+                    return service.encrypt(payload, keyPair[0]);
+                }));
+            }
+            for (Future<byte[]> future : futures) {
+                bytes += future.get().length;
+            }
+        }
+        return bytes;
+    }
+}
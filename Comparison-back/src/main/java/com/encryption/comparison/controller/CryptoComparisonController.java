@@ -1,18 +1,47 @@
 package com.encryption.comparison.controller;
 
 import com.encryption.comparison.model.*;
+import com.encryption.comparison.service.BatchCryptoService;
+import com.encryption.comparison.service.ComparisonJobService;
 import com.encryption.comparison.service.CryptoComparisonService;
+import com.encryption.comparison.service.CryptoService;
+import com.encryption.comparison.service.EccAesHybridService;
+import com.encryption.comparison.service.EcdsaSignatureService;
+import com.encryption.comparison.service.Ed25519SignatureService;
 import com.encryption.comparison.service.EccCryptoService;
+import com.encryption.comparison.service.KeyPairPool;
+import com.encryption.comparison.service.ParameterSweepService;
+import com.encryption.comparison.service.RegressionDetectionService;
+import com.encryption.comparison.service.ResultHistoryService;
 import com.encryption.comparison.service.RsaCryptoService;
+import com.encryption.comparison.service.RsaAesGcmHybridService;
 import com.encryption.comparison.service.RsaAesHybridService;
+import com.encryption.comparison.service.RsaAesSessionService;
+import com.encryption.comparison.service.RsaPssSignatureService;
+import com.encryption.comparison.service.SessionKeyStore;
+import com.encryption.comparison.service.SignatureService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/crypto")
@@ -24,9 +53,24 @@ public class CryptoComparisonController {
     private final RsaCryptoService rsaService;
     private final EccCryptoService eccService;
     private final RsaAesHybridService rsaAesHybridService;
+    private final RsaAesSessionService rsaAesSessionService;
+    private final RsaAesGcmHybridService rsaAesGcmHybridService;
+    private final EccAesHybridService eccAesHybridService;
+    private final RsaPssSignatureService rsaPssSignatureService;
+    private final EcdsaSignatureService ecdsaSignatureService;
+    private final Ed25519SignatureService ed25519SignatureService;
+    private final KeyPairPool keyPairPool;
+    private final BatchCryptoService batchCryptoService;
+    private final ComparisonJobService comparisonJobService;
+    private final ResultHistoryService resultHistory;
+    private final ParameterSweepService parameterSweepService;
+    private final RegressionDetectionService regressionDetection;
 
     // Store keys for demonstration (in production, use proper key management)
-    private final Map<String, Object[]> sessionKeys = new HashMap<>();
+    private final SessionKeyStore sessionKeys;
+
+    @Value("${crypto.binary.max-payload-bytes:16777216}")
+    private int maxBinaryPayloadBytes;
 
     @PostMapping("/generate/text")
     public Map<String, Object> generateRandomText(@RequestBody Map<String, Integer> request) {
@@ -51,7 +95,7 @@ public class CryptoComparisonController {
         long startTime = System.nanoTime();
 
         try {
-            Object[] keyPair = rsaService.generateKeyPair(keySize);
+            Object[] keyPair = keyPairPool.take(rsaService, keySize);
             sessionKeys.put("rsa-" + sessionId, keyPair);
 
             long endTime = System.nanoTime();
@@ -79,7 +123,7 @@ public class CryptoComparisonController {
         long startTime = System.nanoTime();
 
         try {
-            Object[] keyPair = eccService.generateKeyPair(keySize);
+            Object[] keyPair = keyPairPool.take(eccService, keySize);
             sessionKeys.put("ecc-" + sessionId, keyPair);
 
             long endTime = System.nanoTime();
@@ -112,7 +156,7 @@ public class CryptoComparisonController {
 
         long startTime = System.nanoTime();
         try {
-            byte[] data = request.getData().getBytes();
+            byte[] data = request.getData().getBytes(StandardCharsets.UTF_8);
             byte[] encrypted = rsaService.encrypt(data, keyPair[0]);
             String encodedData = Base64.getEncoder().encodeToString(encrypted);
 
@@ -145,7 +189,7 @@ public class CryptoComparisonController {
 
         long startTime = System.nanoTime();
         try {
-            byte[] data = request.getData().getBytes();
+            byte[] data = request.getData().getBytes(StandardCharsets.UTF_8);
             byte[] encrypted = eccService.encrypt(data, keyPair[0]);
             String encodedData = Base64.getEncoder().encodeToString(encrypted);
 
@@ -180,7 +224,7 @@ public class CryptoComparisonController {
         try {
             byte[] encryptedData = Base64.getDecoder().decode(request.getEncryptedData());
             byte[] decrypted = rsaService.decrypt(encryptedData, keyPair[1]);
-            String decryptedText = new String(decrypted);
+            String decryptedText = new String(decrypted, StandardCharsets.UTF_8);
 
             long endTime = System.nanoTime();
             double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
@@ -197,6 +241,45 @@ public class CryptoComparisonController {
         return response;
     }
 
+    // Same as /rsa/decrypt on the instrumented BigInteger path, with the time of each phase
+    @PostMapping("/rsa/decrypt/profile")
+    public Map<String, Object> decryptWithRsaProfiled(@RequestBody DecryptionRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        Object[] keyPair = sessionKeys.get("rsa-" + request.getSessionId());
+
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", "No RSA key pair found for session ID");
+            return response;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] encryptedData = Base64.getDecoder().decode(request.getEncryptedData());
+            long[] phaseNanos = new long[RsaCryptoService.DECRYPT_PHASES.length];
+            byte[] decrypted = rsaService.decryptProfiled(encryptedData, keyPair[1], phaseNanos);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            Map<String, Double> phases = new LinkedHashMap<>();
+            for (int i = 0; i < phaseNanos.length; i++) {
+                phases.put(RsaCryptoService.DECRYPT_PHASES[i], phaseNanos[i] / 1_000_000.0); // ms
+            }
+            response.put("success", true);
+            response.put("decryptedData", new String(decrypted, StandardCharsets.UTF_8));
+            response.put("algorithm", "RSA");
+            response.put("crtKey", RsaCryptoService.isCrtKey(keyPair[1]));
+            response.put("phases", phases);
+            response.put("decryptionTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
     @PostMapping("/ecc/decrypt")
     public Map<String, Object> decryptWithEcc(@RequestBody DecryptionRequest request) {
         Map<String, Object> response = new HashMap<>();
@@ -213,7 +296,7 @@ public class CryptoComparisonController {
         try {
             byte[] encryptedData = Base64.getDecoder().decode(request.getEncryptedData());
             byte[] decrypted = eccService.decrypt(encryptedData, keyPair[1]);
-            String decryptedText = new String(decrypted);
+            String decryptedText = new String(decrypted, StandardCharsets.UTF_8);
 
             long endTime = System.nanoTime();
             double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
@@ -240,7 +323,7 @@ public class CryptoComparisonController {
         long startTime = System.nanoTime();
 
         try {
-            Object[] keyPair = rsaAesHybridService.generateKeyPair(keySize);
+            Object[] keyPair = keyPairPool.take(rsaAesHybridService, keySize);
             sessionKeys.put("rsa-aes-" + sessionId, keyPair);
 
             long endTime = System.nanoTime();
@@ -273,7 +356,7 @@ public class CryptoComparisonController {
 
         long startTime = System.nanoTime();
         try {
-            byte[] data = request.getData().getBytes();
+            byte[] data = request.getData().getBytes(StandardCharsets.UTF_8);
             byte[] encrypted = rsaAesHybridService.encrypt(data, keyPair[0]);
             String encodedData = Base64.getEncoder().encodeToString(encrypted);
 
@@ -308,7 +391,7 @@ public class CryptoComparisonController {
         try {
             byte[] encryptedData = Base64.getDecoder().decode(request.getEncryptedData());
             byte[] decrypted = rsaAesHybridService.decrypt(encryptedData, keyPair[1]);
-            String decryptedText = new String(decrypted);
+            String decryptedText = new String(decrypted, StandardCharsets.UTF_8);
 
             long endTime = System.nanoTime();
             double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
@@ -325,14 +408,918 @@ public class CryptoComparisonController {
         return response;
     }
 
+    /**
+     * Session mode of the RSA+AES hybrid for an {@code /rsa-aes} session: the AES data key is RSA-wrapped once
+     * and reused (with AES-GCM) until it rotates, and the envelope names it by {@code keyId}. Only the first
+     * message under a key ({@code carriesWrappedKey}) holds the wrapped key; decrypt it before the others.
+     */
+    @PostMapping("/rsa-aes/session/encrypt")
+    public Map<String, Object> encryptWithRsaAesSession(@RequestBody EncryptionRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        String sessionId = request.getSessionId();
+        Object[] keyPair = sessionKeys.get("rsa-aes-" + sessionId);
+
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", "No RSA+AES key pair found for session ID");
+            return response;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] data = request.getData().getBytes(StandardCharsets.UTF_8);
+            byte[] encrypted = rsaAesSessionService.encrypt(sessionId, data, keyPair[0]);
+            String encodedData = Base64.getEncoder().encodeToString(encrypted);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("encryptedData", encodedData);
+            response.put("keyId", RsaAesSessionService.keyId(encrypted));
+            response.put("carriesWrappedKey", RsaAesSessionService.carriesKey(encrypted));
+            response.put("algorithm", RsaAesSessionService.ALGORITHM_NAME);
+            response.put("encryptionTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/rsa-aes/session/decrypt")
+    public Map<String, Object> decryptWithRsaAesSession(@RequestBody DecryptionRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        String sessionId = request.getSessionId();
+        Object[] keyPair = sessionKeys.get("rsa-aes-" + sessionId);
+
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", "No RSA+AES key pair found for session ID");
+            return response;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] encryptedData = Base64.getDecoder().decode(request.getEncryptedData());
+            byte[] decrypted = rsaAesSessionService.decrypt(encryptedData, keyPair[1]);
+            String decryptedText = new String(decrypted, StandardCharsets.UTF_8);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("decryptedData", decryptedText);
+            response.put("keyId", RsaAesSessionService.keyId(encryptedData));
+            response.put("algorithm", RsaAesSessionService.ALGORITHM_NAME);
+            response.put("decryptionTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @GetMapping("/rsa-aes/session/stats")
+    public HybridSessionStats getRsaAesSessionStats() {
+        return rsaAesSessionService.getStats();
+    }
+
+    // ECC+AES (ECDH + HKDF + AES-GCM) hybrid endpoints
+    @PostMapping("/ecc-aes/generateKeys")
+    public Map<String, Object> generateEccAesKeys(@RequestBody Map<String, Integer> request) {
+        int keySize = request.getOrDefault("keySize", 256);
+        String sessionId = java.util.UUID.randomUUID().toString();
+
+        Map<String, Object> response = new HashMap<>();
+        long startTime = System.nanoTime();
+
+        try {
+            Object[] keyPair = keyPairPool.take(eccAesHybridService, keySize);
+            sessionKeys.put("ecc-aes-" + sessionId, keyPair);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("sessionId", sessionId);
+            response.put("algorithm", "ECC+AES Hybrid");
+            response.put("keySize", keySize);
+            response.put("generationTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/ecc-aes/encrypt")
+    public Map<String, Object> encryptWithEccAes(@RequestBody EncryptionRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        String sessionId = request.getSessionId();
+        Object[] keyPair = sessionKeys.get("ecc-aes-" + sessionId);
+
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", "No ECC+AES key pair found for session ID");
+            return response;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] data = request.getData().getBytes(StandardCharsets.UTF_8);
+            byte[] encrypted = eccAesHybridService.encrypt(data, keyPair[0]);
+            String encodedData = Base64.getEncoder().encodeToString(encrypted);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("encryptedData", encodedData);
+            response.put("algorithm", "ECC+AES Hybrid");
+            response.put("encryptionTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/ecc-aes/decrypt")
+    public Map<String, Object> decryptWithEccAes(@RequestBody DecryptionRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        String sessionId = request.getSessionId();
+        Object[] keyPair = sessionKeys.get("ecc-aes-" + sessionId);
+
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", "No ECC+AES key pair found for session ID");
+            return response;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] encryptedData = Base64.getDecoder().decode(request.getEncryptedData());
+            byte[] decrypted = eccAesHybridService.decrypt(encryptedData, keyPair[1]);
+            String decryptedText = new String(decrypted, StandardCharsets.UTF_8);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("decryptedData", decryptedText);
+            response.put("algorithm", "ECC+AES Hybrid");
+            response.put("decryptionTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    // RSA+AES-GCM segmented hybrid endpoints
+    @PostMapping("/rsa-aes-gcm/generateKeys")
+    public Map<String, Object> generateRsaAesGcmKeys(@RequestBody Map<String, Integer> request) {
+        int keySize = request.getOrDefault("keySize", 2048);
+        String sessionId = java.util.UUID.randomUUID().toString();
+
+        Map<String, Object> response = new HashMap<>();
+        long startTime = System.nanoTime();
+
+        try {
+            Object[] keyPair = keyPairPool.take(rsaAesGcmHybridService, keySize);
+            sessionKeys.put("rsa-aes-gcm-" + sessionId, keyPair);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("sessionId", sessionId);
+            response.put("algorithm", "RSA+AES-GCM Hybrid");
+            response.put("keySize", keySize);
+            response.put("generationTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/rsa-aes-gcm/encrypt")
+    public Map<String, Object> encryptWithRsaAesGcm(@RequestBody EncryptionRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        String sessionId = request.getSessionId();
+        Object[] keyPair = sessionKeys.get("rsa-aes-gcm-" + sessionId);
+
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", "No RSA+AES-GCM key pair found for session ID");
+            return response;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] data = request.getData().getBytes(StandardCharsets.UTF_8);
+            byte[] encrypted = rsaAesGcmHybridService.encrypt(data, keyPair[0]);
+            String encodedData = Base64.getEncoder().encodeToString(encrypted);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("encryptedData", encodedData);
+            response.put("algorithm", "RSA+AES-GCM Hybrid");
+            response.put("encryptionTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/rsa-aes-gcm/decrypt")
+    public Map<String, Object> decryptWithRsaAesGcm(@RequestBody DecryptionRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        String sessionId = request.getSessionId();
+        Object[] keyPair = sessionKeys.get("rsa-aes-gcm-" + sessionId);
+
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", "No RSA+AES-GCM key pair found for session ID");
+            return response;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] encryptedData = Base64.getDecoder().decode(request.getEncryptedData());
+            byte[] decrypted = rsaAesGcmHybridService.decrypt(encryptedData, keyPair[1]);
+            String decryptedText = new String(decrypted, StandardCharsets.UTF_8);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("decryptedData", decryptedText);
+            response.put("algorithm", "RSA+AES-GCM Hybrid");
+            response.put("decryptionTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    // Signature endpoints, {algorithm} is rsa-pss, ecdsa or ed25519
+    @PostMapping("/signature/{algorithm}/generateKeys")
+    public Map<String, Object> generateSignatureKeys(@PathVariable String algorithm,
+                                                     @RequestBody Map<String, Integer> request) {
+        Map<String, Object> response = new HashMap<>();
+        SignatureService service = signatureService(algorithm);
+        if (service == null) {
+            response.put("success", false);
+            response.put("error", "Unknown signature algorithm: " + algorithm);
+            return response;
+        }
+        // Defaults: RSA-PSS 2048, ECDSA P-256, Ed25519 255
+        int keySize = request.getOrDefault("keySize",
+                algorithm.equals("rsa-pss") ? 2048 : service.getSupportedKeySizes()[0]);
+        String sessionId = java.util.UUID.randomUUID().toString();
+
+        long startTime = System.nanoTime();
+        try {
+            Object[] keyPair = service.generateKeyPair(keySize);
+            sessionKeys.put("sig-" + algorithm + "-" + sessionId, keyPair);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("sessionId", sessionId);
+            response.put("algorithm", service.getAlgorithmName());
+            response.put("keySize", keySize);
+            response.put("generationTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/signature/{algorithm}/sign")
+    public Map<String, Object> sign(@PathVariable String algorithm, @RequestBody SignatureRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        SignatureService service = signatureService(algorithm);
+        Object[] keyPair = service != null ? sessionKeys.get("sig-" + algorithm + "-" + request.getSessionId()) : null;
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", service == null
+                    ? "Unknown signature algorithm: " + algorithm
+                    : "No " + service.getAlgorithmName() + " key pair found for session ID");
+            return response;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] signature = service.sign(request.getData().getBytes(StandardCharsets.UTF_8), keyPair[1]);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("signature", Base64.getEncoder().encodeToString(signature));
+            response.put("signatureSize", signature.length);
+            response.put("algorithm", service.getAlgorithmName());
+            response.put("signingTime", elapsedTime);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/signature/{algorithm}/verify")
+    public Map<String, Object> verify(@PathVariable String algorithm, @RequestBody SignatureRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        SignatureService service = signatureService(algorithm);
+        Object[] keyPair = service != null ? sessionKeys.get("sig-" + algorithm + "-" + request.getSessionId()) : null;
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", service == null
+                    ? "Unknown signature algorithm: " + algorithm
+                    : "No " + service.getAlgorithmName() + " key pair found for session ID");
+            return response;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] signature = Base64.getDecoder().decode(request.getSignature());
+            boolean valid = service.verify(request.getData().getBytes(StandardCharsets.UTF_8), signature, keyPair[0]);
+
+            long endTime = System.nanoTime();
+            double elapsedTime = (endTime - startTime) / 1_000_000.0; // ms
+
+            response.put("success", true);
+            response.put("valid", valid);
+            response.put("algorithm", service.getAlgorithmName());
+            response.put("verificationTime", elapsedTime);
+        } catch (Exception e) {
+            // Malformed signatures (bad Base64, broken DER) are reported as errors, not as "valid": false
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
+
+    private SignatureService signatureService(String algorithm) {
+        switch (algorithm) {
+            case "rsa-pss": return rsaPssSignatureService;
+            case "ecdsa": return ecdsaSignatureService;
+            case "ed25519": return ed25519SignatureService;
+            default: return null;
+        }
+    }
+
+    // Streaming RSA+AES endpoints: raw octet-stream in and out, heap use independent of payload size
+    @PostMapping(value = "/rsa-aes/encrypt/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void encryptStreamWithRsaAes(@RequestHeader("X-Session-Id") String sessionId,
+                                        HttpServletRequest request, HttpServletResponse response) throws Exception {
+        Object[] keyPair = sessionKeys.get("rsa-aes-" + sessionId);
+        if (keyPair == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "No RSA+AES key pair found for session ID");
+            return;
+        }
+
+        streamRsaAes(true, keyPair[0], request, response);
+    }
+
+    @PostMapping(value = "/rsa-aes/decrypt/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void decryptStreamWithRsaAes(@RequestHeader("X-Session-Id") String sessionId,
+                                        HttpServletRequest request, HttpServletResponse response) throws Exception {
+        Object[] keyPair = sessionKeys.get("rsa-aes-" + sessionId);
+        if (keyPair == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "No RSA+AES key pair found for session ID");
+            return;
+        }
+
+        streamRsaAes(false, keyPair[1], request, response);
+    }
+
+    /**
+     * A failure before anything was sent (bad key, corrupt header) becomes a 400. Once the response is committed
+     * the exception is rethrown, so the container closes the connection instead of ending the body normally and a
+     * truncated output cannot pass for a complete one.
+     */
+    private void streamRsaAes(boolean encrypt, Object key, HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        try {
+            if (encrypt) {
+                rsaAesHybridService.encrypt(request.getInputStream(), response.getOutputStream(), key);
+            } else {
+                rsaAesHybridService.decrypt(request.getInputStream(), response.getOutputStream(), key);
+            }
+        } catch (Exception e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Binary variant of the encrypt endpoints: the request body is the plaintext and the response body the
+     * ciphertext, with no Base64 or JSON in between. The session comes from {@code X-Session-Id} and the algorithm
+     * from {@code X-Algorithm} ({@code rsa}, {@code ecc}, {@code rsa-aes}, {@code ecc-aes}, {@code rsa-aes-gcm}).
+     */
+    @PostMapping(value = "/binary/encrypt", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void encryptBinary(@RequestHeader("X-Session-Id") String sessionId,
+                              @RequestHeader("X-Algorithm") String algorithm,
+                              HttpServletRequest request, HttpServletResponse response) throws Exception {
+        transformBinary(sessionId, algorithm, true, request, response);
+    }
+
+    @PostMapping(value = "/binary/decrypt", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void decryptBinary(@RequestHeader("X-Session-Id") String sessionId,
+                              @RequestHeader("X-Algorithm") String algorithm,
+                              HttpServletRequest request, HttpServletResponse response) throws Exception {
+        transformBinary(sessionId, algorithm, false, request, response);
+    }
+
+    private void transformBinary(String sessionId, String algorithm, boolean encrypt,
+                                 HttpServletRequest request, HttpServletResponse response) throws Exception {
+        CryptoService service = batchService(algorithm);
+        if (service == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown algorithm: " + algorithm);
+            return;
+        }
+        Object[] keyPair = sessionKeys.get(algorithm + "-" + sessionId);
+        if (keyPair == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND,
+                    "No " + service.getAlgorithmName() + " key pair found for session ID");
+            return;
+        }
+
+        if (service == rsaAesHybridService) {
+            // The streaming envelope is byte-for-byte the array one, so the body is never buffered
+            streamRsaAes(encrypt, encrypt ? keyPair[0] : keyPair[1], request, response);
+            return;
+        }
+
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > maxBinaryPayloadBytes) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Payload exceeds " + maxBinaryPayloadBytes + " bytes");
+            return;
+        }
+        byte[] output;
+        try {
+            byte[] body = readBody(request.getInputStream(), contentLength);
+            if (body == null) {
+                response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                        "Payload exceeds " + maxBinaryPayloadBytes + " bytes");
+                return;
+            }
+            output = encrypt ? service.encrypt(body, keyPair[0]) : service.decrypt(body, keyPair[1]);
+        } catch (Exception e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLength(output.length);
+        response.getOutputStream().write(output);
+    }
+
+    /**
+     * Reads the whole body into one exactly sized array when the length is known (no growing buffer copies).
+     * Returns null when a body of unknown length (chunked) runs past {@code maxBinaryPayloadBytes}.
+     */
+    private byte[] readBody(InputStream in, long contentLength) throws IOException {
+        if (contentLength >= 0) {
+            return in.readNBytes((int) contentLength);
+        }
+        byte[] body = in.readNBytes(maxBinaryPayloadBytes + 1);
+        return body.length > maxBinaryPayloadBytes ? null : body;
+    }
+
+    // Batch endpoints: one session lookup and one cipher init per chunk instead of per message
+    @PostMapping("/{algorithm}/encrypt/batch")
+    public Map<String, Object> encryptBatch(@PathVariable String algorithm,
+                                            @RequestBody BatchEncryptionRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        CryptoService service = batchService(algorithm);
+        if (service == null) {
+            response.put("success", false);
+            response.put("error", "Unknown algorithm: " + algorithm);
+            return response;
+        }
+        Object[] keyPair = sessionKeys.get(algorithm + "-" + request.getSessionId());
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", "No " + service.getAlgorithmName() + " key pair found for session ID");
+            return response;
+        }
+
+        List<String> data = request.getData() != null ? request.getData() : List.of();
+        long startTime = System.nanoTime();
+        byte[][] items = new byte[data.size()][];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = data.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        Exception[] errors = new Exception[items.length];
+        byte[][] encrypted = batchCryptoService.encrypt(service, items, keyPair[0], errors);
+
+        List<Map<String, Object>> results = new ArrayList<>(items.length);
+        for (int i = 0; i < items.length; i++) {
+            results.add(batchItem(i, "encryptedData",
+                    encrypted[i] != null ? Base64.getEncoder().encodeToString(encrypted[i]) : null, errors[i]));
+        }
+        putBatchSummary(response, service, results, startTime);
+        return response;
+    }
+
+    @PostMapping("/{algorithm}/decrypt/batch")
+    public Map<String, Object> decryptBatch(@PathVariable String algorithm,
+                                            @RequestBody BatchDecryptionRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        CryptoService service = batchService(algorithm);
+        if (service == null) {
+            response.put("success", false);
+            response.put("error", "Unknown algorithm: " + algorithm);
+            return response;
+        }
+        Object[] keyPair = sessionKeys.get(algorithm + "-" + request.getSessionId());
+        if (keyPair == null) {
+            response.put("success", false);
+            response.put("error", "No " + service.getAlgorithmName() + " key pair found for session ID");
+            return response;
+        }
+
+        List<String> encryptedData = request.getEncryptedData() != null ? request.getEncryptedData() : List.of();
+        long startTime = System.nanoTime();
+        byte[][] items = new byte[encryptedData.size()][];
+        Exception[] errors = new Exception[items.length];
+        for (int i = 0; i < items.length; i++) {
+            try {
+                items[i] = Base64.getDecoder().decode(encryptedData.get(i));
+            } catch (IllegalArgumentException e) {
+                errors[i] = e;
+                items[i] = new byte[0];
+            }
+        }
+        byte[][] decrypted = batchCryptoService.decrypt(service, items, keyPair[1], errors);
+
+        List<Map<String, Object>> results = new ArrayList<>(items.length);
+        for (int i = 0; i < items.length; i++) {
+            String text = errors[i] == null && decrypted[i] != null
+                    ? new String(decrypted[i], StandardCharsets.UTF_8)
+                    : null;
+            results.add(batchItem(i, "decryptedData", text, errors[i]));
+        }
+        putBatchSummary(response, service, results, startTime);
+        return response;
+    }
+
+    private CryptoService batchService(String algorithm) {
+        switch (algorithm) {
+            case "rsa": return rsaService;
+            case "ecc": return eccService;
+            case "rsa-aes": return rsaAesHybridService;
+            case "ecc-aes": return eccAesHybridService;
+            case "rsa-aes-gcm": return rsaAesGcmHybridService;
+            default: return null;
+        }
+    }
+
+    private static Map<String, Object> batchItem(int index, String dataKey, String value, Exception error) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("index", index);
+        if (error == null && value != null) {
+            item.put("success", true);
+            item.put(dataKey, value);
+        } else {
+            item.put("success", false);
+            item.put("error", error != null ? error.getMessage() : "No result");
+        }
+        return item;
+    }
+
+    private static void putBatchSummary(Map<String, Object> response, CryptoService service,
+                                        List<Map<String, Object>> results, long startTime) {
+        double elapsedTime = (System.nanoTime() - startTime) / 1_000_000.0; // ms
+        int successCount = 0;
+        for (Map<String, Object> item : results) {
+            if (Boolean.TRUE.equals(item.get("success"))) {
+                successCount++;
+            }
+        }
+
+        response.put("success", successCount == results.size());
+        response.put("algorithm", service.getAlgorithmName());
+        response.put("results", results);
+        response.put("itemCount", results.size());
+        response.put("successCount", successCount);
+        response.put("batchTime", elapsedTime);
+        response.put("averageItemTime", results.isEmpty() ? 0.0 : elapsedTime / results.size());
+        response.put("itemsPerSecond", elapsedTime > 0 ? results.size() / (elapsedTime / 1000.0) : 0.0);
+    }
+
     // Keep the original comparison endpoints
+    /**
+     * {@code record=false} keeps the run out of the result history, for ad-hoc runs (such as the UI's allocation
+     * profiles) that should not become regression baselines.
+     */
     @PostMapping("/compare")
-    public List<CryptoTestResult> compareAlgorithms(@RequestBody CryptoTestConfig config) {
-        return comparisonService.runComparison(config);
+    public List<CryptoTestResult> compareAlgorithms(@RequestBody CryptoTestConfig config,
+                                                    @RequestParam(defaultValue = "true") boolean record) {
+        List<CryptoTestResult> results = runWithoutRefills(config);
+        if (record) {
+            resultHistory.record("compare", config, results);
+        }
+        return results;
     }
 
     @GetMapping("/compare/default")
     public List<CryptoTestResult> compareWithDefaults() {
-        return comparisonService.runComparison(new CryptoTestConfig());
+        CryptoTestConfig config = new CryptoTestConfig();
+        List<CryptoTestResult> results = runWithoutRefills(config);
+        resultHistory.record("compare", config, results);
+        return results;
+    }
+
+    private List<CryptoTestResult> runWithoutRefills(CryptoTestConfig config) {
+        // Background key pool refills would compete with the timed cases
+        try (KeyPairPool.Pause pause = keyPairPool.pauseRefills()) {
+            return comparisonService.runComparison(config);
+        }
+    }
+
+    /**
+     * Server-Sent Events variant of {@code /compare}: one {@code result} event per case as soon as it finishes,
+     * framed by {@code started} and {@code complete} events carrying the job status. Runs as a comparison job
+     * (id in the {@code X-Job-Id} header), which is cancelled if the client disconnects.
+     */
+    @PostMapping(value = "/compare/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamComparison(@RequestBody CryptoTestConfig config) {
+        SseEmitter emitter = new SseEmitter(0L); // Sweeps can run for minutes, never time out
+        ComparisonJobStatus job;
+        try {
+            // started/result run on the job thread: interrupting it stops the job at the next case
+            job = comparisonJobService.stream(config,
+                    status -> {
+                        if (!sendEvent(emitter, "started", status)) {
+                            Thread.currentThread().interrupt();
+                        }
+                    },
+                    result -> {
+                        if (!sendEvent(emitter, "result", result)) {
+                            Thread.currentThread().interrupt();
+                        }
+                    },
+                    status -> {
+                        sendEvent(emitter, "complete", status);
+                        emitter.complete();
+                    });
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+
+        String jobId = job.getJobId();
+        emitter.onError(e -> comparisonJobService.cancel(jobId));
+        emitter.onTimeout(() -> comparisonJobService.cancel(jobId));
+        return ResponseEntity.ok().header("X-Job-Id", jobId).body(emitter);
+    }
+
+    private static boolean sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    // Asynchronous comparison jobs: submit, poll status/partial results, cancel
+    @PostMapping("/compare/jobs")
+    public Map<String, Object> submitComparisonJob(@RequestBody CryptoTestConfig config) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ComparisonJobStatus job = comparisonJobService.submit(config);
+            response.put("success", true);
+            response.put("jobId", job.getJobId());
+            response.put("status", job.getStatus());
+            response.put("totalCases", job.getTotalCases());
+        } catch (RejectedExecutionException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+
+    @GetMapping("/compare/jobs")
+    public List<ComparisonJobStatus> listComparisonJobs() {
+        return comparisonJobService.listJobs();
+    }
+
+    @GetMapping("/compare/jobs/{jobId}")
+    public ComparisonJobStatus getComparisonJob(@PathVariable String jobId) {
+        ComparisonJobStatus job = comparisonJobService.getStatus(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job: " + jobId);
+        }
+        return job;
+    }
+
+    @GetMapping("/compare/jobs/{jobId}/results")
+    public List<CryptoTestResult> getComparisonJobResults(@PathVariable String jobId) {
+        List<CryptoTestResult> results = comparisonJobService.getResults(jobId);
+        if (results == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job: " + jobId);
+        }
+        return results;
+    }
+
+    /**
+     * Regression report of a completed rerun job ({@code /history/{runId}/rerun}) against its baseline run.
+     */
+    @GetMapping("/compare/jobs/{jobId}/regressions")
+    public RegressionReport getRerunRegressions(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "" + RegressionDetectionService.DEFAULT_ALPHA) double alpha,
+            @RequestParam(defaultValue = "" + RegressionDetectionService.DEFAULT_MIN_RELATIVE_CHANGE)
+            double minRelativeChange) {
+        ComparisonJobStatus job = comparisonJobService.getStatus(jobId);
+        if (job == null || job.getBaselineRunId() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown rerun job: " + jobId);
+        }
+        if (job.getRunId() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Rerun " + jobId + " is " + job.getStatus());
+        }
+        return regressionDetection.compare(requireRun(job.getBaselineRunId()), requireRun(job.getRunId()), alpha,
+                minRelativeChange);
+    }
+
+    @DeleteMapping("/compare/jobs/{jobId}")
+    public ComparisonJobStatus cancelComparisonJob(@PathVariable String jobId) {
+        ComparisonJobStatus job = comparisonJobService.cancel(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Full cross-product of algorithms, key sizes, payload sizes and thread counts, one row per cell. Sweeps are
+     * queued as background jobs; status, progress and cancellation go through {@code /compare/jobs/{jobId}}.
+     */
+    @PostMapping("/sweep")
+    public Map<String, Object> submitSweep(@RequestBody SweepConfig config) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ComparisonJobStatus job = comparisonJobService.submitSweep(config);
+            response.put("success", true);
+            response.put("jobId", job.getJobId());
+            response.put("status", job.getStatus());
+            response.put("totalCases", job.getTotalCases());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+
+    @GetMapping("/sweep/{jobId}")
+    public SweepResult getSweepResult(@PathVariable String jobId) {
+        ComparisonJobStatus job = comparisonJobService.getStatus(jobId);
+        if (job == null || !ComparisonJobService.TYPE_SWEEP.equals(job.getType())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown sweep: " + jobId);
+        }
+        SweepResult result = comparisonJobService.getSweepResult(jobId);
+        if (result == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Sweep " + jobId + " is " + job.getStatus());
+        }
+        return result;
+    }
+
+    @GetMapping(value = "/sweep/{jobId}/csv", produces = "text/csv")
+    public String getSweepResultAsCsv(@PathVariable String jobId) {
+        return parameterSweepService.toCsv(getSweepResult(jobId));
+    }
+
+    // Result history and regression detection across runs
+    @GetMapping("/history")
+    public List<BenchmarkRun> listHistory() {
+        return resultHistory.list();
+    }
+
+    @GetMapping("/history/environment")
+    public EnvironmentInfo getEnvironment() {
+        return resultHistory.getEnvironment();
+    }
+
+    @GetMapping("/history/regressions")
+    public RegressionReport detectRegressions(
+            @RequestParam String baseline,
+            @RequestParam(required = false) String candidate,
+            @RequestParam(defaultValue = "" + RegressionDetectionService.DEFAULT_ALPHA) double alpha,
+            @RequestParam(defaultValue = "" + RegressionDetectionService.DEFAULT_MIN_RELATIVE_CHANGE)
+            double minRelativeChange) {
+        BenchmarkRun baselineRun = requireRun(baseline);
+        BenchmarkRun candidateRun = candidate != null ? requireRun(candidate) : resultHistory.latest();
+        if (candidateRun == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No runs in history");
+        }
+        return regressionDetection.compare(baselineRun, candidateRun, alpha, minRelativeChange);
+    }
+
+    /**
+     * Queues the configuration of a stored run as a comparison job; once it has completed,
+     * {@code /compare/jobs/{jobId}/regressions} compares the new run against the stored one.
+     */
+    @PostMapping("/history/{runId}/rerun")
+    public Map<String, Object> rerun(@PathVariable String runId) {
+        BenchmarkRun baselineRun = requireRun(runId);
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ComparisonJobStatus job = comparisonJobService.submitRerun(runId, baselineRun.getConfig());
+            response.put("success", true);
+            response.put("jobId", job.getJobId());
+            response.put("status", job.getStatus());
+            response.put("totalCases", job.getTotalCases());
+            response.put("baselineRunId", runId);
+        } catch (RejectedExecutionException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+
+    @GetMapping("/history/{runId}")
+    public BenchmarkRun getHistoryRun(@PathVariable String runId) {
+        return requireRun(runId);
+    }
+
+    private BenchmarkRun requireRun(String runId) {
+        BenchmarkRun run = resultHistory.get(runId);
+        if (run == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown run: " + runId);
+        }
+        return run;
+    }
+
+    @GetMapping("/sessions/stats")
+    public SessionKeyStoreStats getSessionStats() {
+        return sessionKeys.getStats();
+    }
+
+    @GetMapping("/keypool/stats")
+    public List<KeyPoolStats> getKeyPoolStats() {
+        return keyPairPool.getStats();
+    }
+
+    /**
+     * Queues a load test as a background job; status, progress and cancellation go through
+     * {@code /compare/jobs/{jobId}}.
+     */
+    @PostMapping("/load")
+    public Map<String, Object> submitLoadTest(@RequestBody CryptoTestConfig config) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ComparisonJobStatus job = comparisonJobService.submitLoadTest(config);
+            response.put("success", true);
+            response.put("jobId", job.getJobId());
+            response.put("status", job.getStatus());
+            response.put("totalCases", job.getTotalCases());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+
+    @GetMapping("/load/{jobId}")
+    public List<LoadTestResult> getLoadTestResults(@PathVariable String jobId) {
+        List<LoadTestResult> results = comparisonJobService.getLoadResults(jobId);
+        if (results == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown load test: " + jobId);
+        }
+        return results;
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+/**
+ * Heap allocation and garbage collection for one comparison case. Allocated bytes are per operation, the mean
+ * over the measured iterations, read from the allocation counters of the measuring thread and of the common
+ * {@code ForkJoinPool} workers that parallel services (RSA+AES-GCM segments) run on. GC and heap figures are
+ * JVM-wide and span the whole case (key generation to the last decryption), so anything else running in the JVM
+ * at the same time is included in them; {@code overlapped} says whether another comparison case was among it.
+ */
+@Data
+public class AllocationProfile {
+    private long keyGenerationBytes; // bytes allocated per operation, mean of measured iterations
+    private long encryptionBytes;
+    private long decryptionBytes;
+    // Signature algorithms fill these instead of encryptionBytes/decryptionBytes
+    private long signingBytes;
+    private long verificationBytes;
+    private long gcCount; // collections during the case, all collectors
+    private double gcTime; // ms, collection time during the case, all collectors
+    private long peakHeapDelta; // bytes, peak heap use during the case above the heap use at its start
+    // Another case was measured at the same time: its allocation on the common pool, its GC and its heap use
+    // are mixed into these figures, and the heap peak was not reset at the start of this case
+    private boolean overlapped;
+}
@@ -0,0 +1,11 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchDecryptionRequest {
+    private String sessionId;
+    private List<String> encryptedData;
+}
@@ -0,0 +1,16 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BenchmarkRun {
+    private String runId;
+    private long timestamp; // epoch ms
+    private String source; // "compare", "job" or "rerun"
+    private EnvironmentInfo environment;
+    private CryptoTestConfig config;
+    private int resultCount;
+    private List<CryptoTestResult> results; // null in history listings
+}
@@ -0,0 +1,19 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+@Data
+public class ComparisonJobStatus {
+    private String jobId;
+    private String type; // "comparison", "sweep" or "load"
+    private JobStatus status;
+    private int completedCases;
+    private int totalCases;
+    private double progress; // completedCases / totalCases
+    private long submittedAt; // epoch ms
+    private Long startedAt;
+    private Long finishedAt;
+    private String errorMessage;
+    private String runId; // History entry of a completed, non-streaming job
+    private String baselineRunId; // Stored run a rerun job is compared against
+}
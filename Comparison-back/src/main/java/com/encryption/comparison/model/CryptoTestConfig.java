@@ -7,4 +7,37 @@ public class CryptoTestConfig {
     private int[] dataSizes = {1024, 10240, 102400}; // Data sizes in bytes
     private int rsaKeySize = 2048;
     private int eccKeySize = 256;
-}
\ No newline at end of file
+    // RSA encryption path: "auto" picks raw RSA if the payload fits one block, else the RSA+AES hybrid;
+    // "raw", "multi-block" or "hybrid" force one (raw fails above modulus/8 - 11 bytes)
+    private String rsaPath = "auto";
+    // RSA private key forms, RSA runs once per form: "crt" (as generated), "non-crt" (n and d only, no CRT
+    // speedup) or "pkcs8" (encoded and re-read, as a key loaded from storage)
+    private String[] rsaKeyForms = {"crt"};
+    // Also profile each RSA case's private-key operation phase by phase (rsaDecryptBreakdown in the result)
+    private boolean rsaDecryptBreakdown = false;
+    // Signature algorithms to add to the comparison: "RSA-PSS" (rsaKeySize), "ECDSA" (eccKeySize), "Ed25519".
+    // Empty = encryption only
+    private String[] signatureAlgorithms = {};
+
+    // Benchmark settings: warmup runs are discarded, measurement runs feed the statistics
+    private int warmupIterations = 10;
+    private int measurementIterations = 50;
+    private int keyGenerationWarmupIterations = 1;
+    private int keyGenerationIterations = 3; // Key generation is slow (RSA-4096 takes seconds)
+
+    // JCA providers to sweep (e.g. "SunJCE", "SunEC", "BC"); each algorithm runs once per provider it supports.
+    // Empty = each algorithm's default provider only
+    private String[] providers = {};
+
+    // Load generation settings (POST /api/crypto/load): one run per thread count
+    private String loadAlgorithm = "RSA"; // RSA, ECC or RSA+AES Hybrid
+    private String loadOperation = "decrypt"; // encrypt or decrypt
+    private String loadProvider; // null = the algorithm's default provider
+    private int loadKeySize = 2048;
+    private int loadDataSize = 100; // Fits raw RSA-1024 PKCS1 capacity
+    private int[] threadCounts = {1, 2, 4, 8};
+    private int loadDurationSeconds = 5;
+    private double targetOpsPerSecond = 0; // Aggregate rate across workers, 0 = unthrottled
+    private boolean virtualThreads = false; // Run workers on virtual threads (Java 21+)
+    private int loadBlockingMillis = 0; // Simulated blocking I/O per operation, e.g. a downstream call
+}
@@ -5,12 +5,29 @@ import lombok.Data;
 @Data
 public class CryptoTestResult {
     private String algorithm;
+    private String provider;
     private int dataSize;
     private int keySize;
-    private double keyGenerationTime; // ms
-    private double encryptionTime; // ms
-    private double decryptionTime; // ms
+    private double keyGenerationTime; // ms, mean of measured iterations
+    private double encryptionTime; // ms, mean of measured iterations
+    private double decryptionTime; // ms, mean of measured iterations
+    private LatencyStats keyGenerationStats;
+    private LatencyStats encryptionStats;
+    private LatencyStats decryptionStats;
+    // Signature algorithms (RSA-PSS, ECDSA, Ed25519) fill these instead of the encryption/decryption fields
+    private double signingTime; // ms, mean of measured iterations
+    private double verificationTime; // ms, mean of measured iterations
+    private LatencyStats signingStats;
+    private LatencyStats verificationStats;
+    private int signatureSize; // bytes, largest signature seen (ECDSA DER encoding varies by a few bytes)
+    private int warmupIterations;
+    private int measurementIterations;
     private SecurityEstimation securityEstimate;
+    private String rsaPath; // RSA only: "raw", "multi-block" or "hybrid", the path the payload was encrypted on
+    private String rsaKeyForm; // RSA only: "crt", "non-crt" or "pkcs8", the private key form requested
+    private Boolean rsaCrtKey; // RSA only: whether the private key used actually carried CRT parameters
+    private RsaDecryptBreakdown rsaDecryptBreakdown; // RSA only, when requested: one private-key operation by phase
+    private AllocationProfile allocation; // null if the JVM cannot count allocation on the measuring thread
     private boolean success;
     private String errorMessage;
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class EnvironmentInfo {
+    private String javaVersion;
+    private String javaVendor;
+    private String vmName;
+    private String osName;
+    private String osArch;
+    private int availableProcessors;
+    private long maxHeapBytes;
+    private Map<String, String> providers; // JCA provider name -> version
+    private String commit; // Source revision, "unknown" if it cannot be determined
+}
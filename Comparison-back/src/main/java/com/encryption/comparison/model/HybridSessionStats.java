@@ -0,0 +1,16 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+@Data
+public class HybridSessionStats {
+    private int sessions; // sessions holding a data key, encrypting side
+    private int receivedKeys; // unwrapped data keys cached, decrypting side
+    private int maxKeys;
+    private long rotationSeconds;
+    private long maxMessages; // messages per data key before it rotates
+    private long keysWrapped; // RSA public-key operations
+    private long keysUnwrapped; // RSA private-key operations
+    private long messagesEncrypted;
+    private long messagesDecrypted;
+}
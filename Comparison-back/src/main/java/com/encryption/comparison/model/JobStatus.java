@@ -0,0 +1,9 @@
+package com.encryption.comparison.model;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
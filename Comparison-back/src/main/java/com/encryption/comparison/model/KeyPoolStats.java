@@ -0,0 +1,15 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+@Data
+public class KeyPoolStats {
+    private String algorithm;
+    private String provider;
+    private int keySize;
+    private int targetDepth;
+    private int available;
+    private long hits;
+    private long misses;
+    private double hitRate; // hits / (hits + misses)
+}
@@ -0,0 +1,64 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+import java.util.Arrays;
+
+@Data
+public class LatencyStats {
+    private int samples;
+    private double min; // ms
+    private double mean; // ms
+    private double median; // ms
+    private double p90; // ms
+    private double p99; // ms
+    private double max; // ms
+    private double stdDev; // ms
+    private double opsPerSecond;
+
+    /**
+     * Builds latency statistics from raw per-operation timings in nanoseconds.
+     * Percentiles use the nearest-rank method on the sorted samples.
+     */
+    public static LatencyStats fromNanos(long[] nanos) {
+        LatencyStats stats = new LatencyStats();
+        if (nanos == null || nanos.length == 0) {
+            return stats;
+        }
+
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+
+        double sum = 0;
+        for (long sample : sorted) {
+            sum += sample;
+        }
+        double meanNanos = sum / sorted.length;
+
+        double squaredDiffs = 0;
+        for (long sample : sorted) {
+            double diff = sample - meanNanos;
+            squaredDiffs += diff * diff;
+        }
+
+        stats.setSamples(sorted.length);
+        stats.setMin(toMillis(sorted[0]));
+        stats.setMean(toMillis(meanNanos));
+        stats.setMedian(toMillis(percentile(sorted, 50)));
+        stats.setP90(toMillis(percentile(sorted, 90)));
+        stats.setP99(toMillis(percentile(sorted, 99)));
+        stats.setMax(toMillis(sorted[sorted.length - 1]));
+        stats.setStdDev(toMillis(Math.sqrt(squaredDiffs / sorted.length)));
+        stats.setOpsPerSecond(meanNanos > 0 ? 1_000_000_000.0 / meanNanos : 0);
+        return stats;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
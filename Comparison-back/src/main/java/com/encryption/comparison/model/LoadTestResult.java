@@ -0,0 +1,24 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+@Data
+public class LoadTestResult {
+    private String algorithm;
+    private String provider;
+    private String operation;
+    private int keySize;
+    private int dataSize;
+    private int threads;
+    private boolean virtualThreads;
+    private int blockingMillis;
+    private double targetOpsPerSecond; // 0 = unthrottled
+    private double durationMs;
+    private long totalOperations;
+    private long errors;
+    private double throughput; // aggregate ops/sec across all workers
+    private LatencyStats latency;
+    private int peakPlatformThreads; // JVM-wide live platform threads, highest sample (10 ms) during the run
+    private boolean success;
+    private String errorMessage;
+}
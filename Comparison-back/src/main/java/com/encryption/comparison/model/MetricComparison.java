@@ -0,0 +1,18 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+@Data
+public class MetricComparison {
+    private String algorithm;
+    private String provider;
+    private int dataSize;
+    private int keySize;
+    private String metric; // keyGeneration, encryption, decryption, signing or verification
+    private double baselineMean; // ms
+    private double candidateMean; // ms
+    private double relativeChange; // (candidate - baseline) / baseline, positive = slower
+    private double testStatistic; // Welch t
+    private double pValue; // Two-sided Welch's t-test
+    private String verdict; // REGRESSION, IMPROVEMENT or NO_CHANGE
+}
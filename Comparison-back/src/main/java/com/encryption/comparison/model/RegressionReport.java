@@ -0,0 +1,19 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RegressionReport {
+    private String baselineRunId;
+    private String candidateRunId;
+    private EnvironmentInfo baselineEnvironment;
+    private EnvironmentInfo candidateEnvironment;
+    private double alpha; // Significance level
+    private double minRelativeChange; // Smallest change reported, e.g. 0.05 = 5%
+    private int regressions;
+    private int improvements;
+    private List<MetricComparison> comparisons;
+    private List<String> unmatched; // Cases present in only one of the runs
+}
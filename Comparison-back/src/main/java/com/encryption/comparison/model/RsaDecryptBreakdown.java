@@ -0,0 +1,47 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+/**
+ * Where an RSA private-key operation spends its time, as mean milliseconds per phase over the profiled samples.
+ */
+@Data
+public class RsaDecryptBreakdown {
+    private boolean crt; // Exponentiation used CRT (p, q, dP, dQ, qInv) rather than one exponentiation mod n
+    private int samples;
+    private double parseTime; // ms, ciphertext to integer and range check
+    private double blindingTime; // ms, blinding pair update and c·u mod n
+    private double exponentiationTime; // ms, the private exponentiation
+    private double unblindingTime; // ms, m·v mod n
+    private double paddingTime; // ms, integer to block and PKCS#1 v1.5 padding check
+    private double totalTime; // ms, sum of the phases
+
+    /**
+     * Builds the breakdown from raw timings in nanoseconds, {@code phaseNanos[phase][sample]} with the phases in
+     * the order parse, blinding, exponentiation, unblinding, padding.
+     */
+    public static RsaDecryptBreakdown fromNanos(boolean crt, long[][] phaseNanos) {
+        RsaDecryptBreakdown breakdown = new RsaDecryptBreakdown();
+        breakdown.setCrt(crt);
+        breakdown.setSamples(phaseNanos[0].length);
+        breakdown.setParseTime(meanMillis(phaseNanos[0]));
+        breakdown.setBlindingTime(meanMillis(phaseNanos[1]));
+        breakdown.setExponentiationTime(meanMillis(phaseNanos[2]));
+        breakdown.setUnblindingTime(meanMillis(phaseNanos[3]));
+        breakdown.setPaddingTime(meanMillis(phaseNanos[4]));
+        breakdown.setTotalTime(breakdown.getParseTime() + breakdown.getBlindingTime()
+                + breakdown.getExponentiationTime() + breakdown.getUnblindingTime() + breakdown.getPaddingTime());
+        return breakdown;
+    }
+
+    private static double meanMillis(long[] nanos) {
+        if (nanos.length == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (long sample : nanos) {
+            sum += sample;
+        }
+        return sum / nanos.length / 1_000_000.0;
+    }
+}
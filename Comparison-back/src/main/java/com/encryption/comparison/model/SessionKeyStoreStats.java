@@ -0,0 +1,16 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+@Data
+public class SessionKeyStoreStats {
+    private int size;
+    private int maxSize;
+    private long ttlSeconds;
+    private long idleSeconds;
+    private long hits;
+    private long misses;
+    private double hitRate; // hits / (hits + misses)
+    private long evictions; // removed to stay under maxSize
+    private long expirations; // removed because of TTL or idle time
+}
@@ -0,0 +1,10 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+@Data
+public class SignatureRequest {
+    private String sessionId;
+    private String data; // Text to sign or verify, UTF-8
+    private String signature; // Base64, verify only
+}
@@ -0,0 +1,21 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+@Data
+public class SweepConfig {
+    // Every dimension is a list and the sweep runs their full cross-product
+    private String[] algorithms = {}; // Algorithm names, e.g. "RSA", "RSA+AES Hybrid"; empty = all
+    private int[] keySizes = {}; // Applied to each algorithm that supports them; empty = each algorithm's supported sizes
+    private int[] dataSizes = {64, 1024, 16384}; // Payload sizes in bytes
+    private int[] threadCounts = {1}; // Concurrent workers per cell
+    private String[] providers = {}; // JCA providers; empty = each algorithm's default provider
+
+    // Per-cell measurement settings; iterations are per worker thread
+    private int warmupIterations = 5;
+    private int measurementIterations = 20;
+    private int keyGenerationIterations = 1; // Keys are generated once per algorithm/provider/key size
+
+    // Cells measured at the same time; 1 keeps cells from competing for CPU and skewing each other
+    private int parallelism = 1;
+}
@@ -0,0 +1,14 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SweepResult {
+    private SweepConfig config;
+    private int cellCount;
+    private int successCount;
+    private double wallTime; // ms for the whole sweep
+    private List<SweepRow> rows; // One row per cell in algorithm, provider, key size, data size, threads order
+}
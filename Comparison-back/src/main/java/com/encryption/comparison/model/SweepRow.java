@@ -0,0 +1,25 @@
+package com.encryption.comparison.model;
+
+import lombok.Data;
+
+@Data
+public class SweepRow {
+    private String algorithm;
+    private String provider;
+    private int keySize;
+    private int dataSize;
+    private int threads;
+    private double keyGenerationTime; // ms, mean, shared by all rows of the same algorithm/provider/key size
+    private double encryptionTime; // ms, mean per operation
+    private double encryptionP50; // ms
+    private double encryptionP99; // ms
+    private double encryptionThroughput; // ops/s across all threads
+    private double encryptionMegabytesPerSecond;
+    private double decryptionTime; // ms, mean per operation
+    private double decryptionP50; // ms
+    private double decryptionP99; // ms
+    private double decryptionThroughput; // ops/s across all threads
+    private double decryptionMegabytesPerSecond;
+    private boolean success;
+    private String errorMessage;
+}
@@ -0,0 +1,174 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.AllocationProfile;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocation and GC counters for one comparison case, read from the platform MXBeans.
+ * <p>
+ * {@link #allocatedBytes()} adds up the per-thread allocation counters
+ * ({@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes}) of the calling thread and of the common
+ * {@code ForkJoinPool}'s workers, because {@link RsaAesGcmHybridService} and {@link BatchCryptoService} hand their
+ * work to that pool and leave the calling thread waiting. Anything else running on the common pool at the same time
+ * is counted too, and a worker that exits mid-measurement takes its count with it (idle workers are kept for a
+ * minute, far longer than a case). GC count and time are summed over all collectors. The peak heap delta is the
+ * sum of the heap pools' peak usage minus the heap used at the start; pools peak at different moments, so it is
+ * an upper bound on the real peak.
+ * <p>
+ * Peak usage can only be reset JVM-wide, so it is reset only when no other probe is open; a case that overlaps
+ * another is reported as {@link AllocationProfile#isOverlapped() overlapped} instead of wiping its peak.
+ */
+final class AllocationProbe implements AutoCloseable {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    private static final AtomicInteger OPEN = new AtomicInteger();
+    private static final AtomicLong STARTED = new AtomicLong();
+
+    private final boolean counting;
+    private final long gcCountAtStart;
+    private final long gcMillisAtStart;
+    private final long heapUsedAtStart;
+    private final long startSequence;
+    private final boolean alone;
+    private boolean closed;
+
+    private AllocationProbe(boolean counting) {
+        this.counting = counting;
+        if (!counting) {
+            startSequence = 0;
+            alone = false;
+            gcCountAtStart = 0;
+            gcMillisAtStart = 0;
+            heapUsedAtStart = 0;
+            return;
+        }
+        startSequence = STARTED.incrementAndGet();
+        alone = OPEN.incrementAndGet() == 1;
+        long[] gc = gcTotals();
+        long heapUsed = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            if (alone) {
+                pool.resetPeakUsage();
+            }
+            heapUsed += pool.getUsage().getUsed();
+        }
+        gcCountAtStart = gc[0];
+        gcMillisAtStart = gc[1];
+        heapUsedAtStart = heapUsed;
+    }
+
+    /**
+     * Starts a case. If the JVM cannot count allocation on the calling thread (no {@code com.sun.management}
+     * extension, counting disabled, or a virtual thread) the probe records nothing. The probe must be closed.
+     */
+    static AllocationProbe start() {
+        return new AllocationProbe(allocatedBytes() >= 0);
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread and the common pool's workers, or -1 if the JVM cannot tell.
+     */
+    static long allocatedBytes() {
+        if (THREADS == null || !THREADS.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long own = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        return own < 0 ? -1 : own + commonPoolAllocatedBytes();
+    }
+
+    /**
+     * Mean bytes per operation between {@code allocatedBefore} and now, over {@code operations} operations.
+     */
+    static long perOperation(long allocatedBefore, int operations) {
+        return Math.max(0, allocatedBytes() - allocatedBefore) / Math.max(1, operations);
+    }
+
+    /**
+     * Fills the case-wide GC and heap figures of {@code profile} and returns it, or returns {@code null} if this
+     * probe could not count allocation.
+     */
+    AllocationProfile finish(AllocationProfile profile) {
+        if (!counting) {
+            return null;
+        }
+        long[] gc = gcTotals();
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        profile.setGcCount(gc[0] - gcCountAtStart);
+        profile.setGcTime(gc[1] - gcMillisAtStart); // ms
+        profile.setPeakHeapDelta(Math.max(0, peak - heapUsedAtStart));
+        // Another probe was open when this one started, started since, or is still open
+        profile.setOverlapped(!alone || STARTED.get() != startSequence || OPEN.get() > 1);
+        return profile;
+    }
+
+    @Override
+    public void close() {
+        if (counting && !closed) {
+            closed = true;
+            OPEN.decrementAndGet();
+        }
+    }
+
+    private static long commonPoolAllocatedBytes() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] threads = new Thread[root.activeCount() + 8];
+        int count = root.enumerate(threads, true);
+        long[] ids = new long[count];
+        int workers = 0;
+        for (int i = 0; i < count; i++) {
+            if (threads[i] instanceof ForkJoinWorkerThread worker && worker.getPool() == ForkJoinPool.commonPool()
+                    && worker != Thread.currentThread()) {
+                ids[workers++] = worker.getId();
+            }
+        }
+        if (workers == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (long bytes : THREADS.getThreadAllocatedBytes(Arrays.copyOf(ids, workers))) {
+            total += Math.max(0, bytes); // -1 for a worker that has exited since
+        }
+        return total;
+    }
+
+    // {collections, collection time in ms} over all collectors
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount()); // -1 if a collector does not report it
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return new long[] { count, millis };
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .toList();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return threads;
+        }
+        return null;
+    }
+}
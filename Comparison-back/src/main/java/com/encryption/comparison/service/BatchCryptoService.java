@@ -0,0 +1,66 @@
+package com.encryption.comparison.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a batch of payloads through one {@link CryptoService} key. Each chunk of the batch goes through
+ * {@link CryptoService#encryptBatch}/{@link CryptoService#decryptBatch}, so a cipher is initialised once per chunk
+ * rather than once per item; large batches are split into chunks processed in parallel. This is safe because
+ * every service draws its cipher instances from the thread-local {@link CipherPool}.
+ */
+@Service
+public class BatchCryptoService {
+
+    private static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    public BatchCryptoService() {
+        this(DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public BatchCryptoService(int chunkSize, ForkJoinPool pool) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+    }
+
+    public byte[][] encrypt(CryptoService service, byte[][] items, Object publicKey, Exception[] errors) {
+        return run(items, errors, (chunk, chunkErrors) -> service.encryptBatch(chunk, publicKey, chunkErrors));
+    }
+
+    public byte[][] decrypt(CryptoService service, byte[][] items, Object privateKey, Exception[] errors) {
+        return run(items, errors, (chunk, chunkErrors) -> service.decryptBatch(chunk, privateKey, chunkErrors));
+    }
+
+    private byte[][] run(byte[][] items, Exception[] errors, ChunkTask task) {
+        int chunks = (items.length + chunkSize - 1) / chunkSize;
+        if (chunks <= 1 || pool.getParallelism() <= 1) {
+            return task.run(items, errors);
+        }
+
+        byte[][] results = new byte[items.length][];
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * chunkSize;
+            int to = Math.min(items.length, from + chunkSize);
+            Exception[] chunkErrors = Arrays.copyOfRange(errors, from, to);
+            byte[][] chunkResults = task.run(Arrays.copyOfRange(items, from, to), chunkErrors);
+            // Chunks write disjoint ranges, and join() below publishes the writes to the caller
+            System.arraycopy(chunkResults, 0, results, from, chunkResults.length);
+            System.arraycopy(chunkErrors, 0, errors, from, chunkErrors.length);
+        })).join();
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        byte[][] run(byte[][] chunk, Exception[] errors);
+    }
+}
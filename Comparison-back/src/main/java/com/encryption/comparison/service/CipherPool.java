@@ -0,0 +1,259 @@
+package com.encryption.comparison.service;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Thread-local cache of {@link Cipher}, {@link KeyGenerator}, {@link KeyAgreement}, {@link Mac},
+ * {@link KeyFactory}, {@link KeyPairGenerator} and {@link Signature} instances.
+ * <p>
+ * {@code Cipher.getInstance} walks the provider list under a lock on every call, which is a measurable share
+ * of a small-payload operation. Instances here are created once per thread, algorithm and provider; callers must
+ * always {@code init} the returned cipher before use, which resets any state left by a previous operation.
+ * Instances must not escape the calling thread.
+ * <p>
+ * A virtual thread usually lives for one request, so a cache of its own would always start empty. Inside a
+ * {@link #lease()} (every {@link CryptoMetrics}-timed operation takes one) a virtual thread instead borrows a whole
+ * instance set from a bounded shared pool and hands it back at the end, so it reuses instances like a pooled
+ * platform thread does. Platform threads keep their own set for their lifetime.
+ * <p>
+ * Every lookup takes an optional provider name; {@code null} means the JDK's provider preference order.
+ */
+public final class CipherPool {
+
+    static {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    private static final ThreadLocal<Map<String, Object>> INSTANCES = new ThreadLocal<>();
+    // Instance sets not lent out at the moment, most recently returned first; a lease finding none starts a new
+    // set, and sets returned to a full pool are dropped
+    private static final BlockingDeque<Map<String, Object>> SHARED =
+            new LinkedBlockingDeque<>(Math.max(16, 4 * Runtime.getRuntime().availableProcessors()));
+    private static final Lease NO_LEASE = () -> { };
+
+    private CipherPool() {
+    }
+
+    public static Cipher cipher(String transformation) throws GeneralSecurityException {
+        return cipher(transformation, null);
+    }
+
+    public static Cipher cipher(String transformation, String provider) throws GeneralSecurityException {
+        return cached("Cipher", transformation, provider, () -> provider == null
+                ? Cipher.getInstance(transformation)
+                : Cipher.getInstance(transformation, provider));
+    }
+
+    /**
+     * Returns a key generator already initialised for {@code keySize}; {@code generateKey} can be called directly.
+     */
+    public static KeyGenerator keyGenerator(String algorithm, int keySize) throws GeneralSecurityException {
+        return keyGenerator(algorithm, keySize, null);
+    }
+
+    public static KeyGenerator keyGenerator(String algorithm, int keySize, String provider)
+            throws GeneralSecurityException {
+        return cached("KeyGenerator", algorithm + "/" + keySize, provider, () -> {
+            KeyGenerator generator = provider == null
+                    ? KeyGenerator.getInstance(algorithm)
+                    : KeyGenerator.getInstance(algorithm, provider);
+            generator.init(keySize);
+            return generator;
+        });
+    }
+
+    /**
+     * Returns a key agreement instance; callers must {@code init} it before use.
+     */
+    public static KeyAgreement keyAgreement(String algorithm) throws GeneralSecurityException {
+        return keyAgreement(algorithm, null);
+    }
+
+    public static KeyAgreement keyAgreement(String algorithm, String provider) throws GeneralSecurityException {
+        return cached("KeyAgreement", algorithm, provider, () -> provider == null
+                ? KeyAgreement.getInstance(algorithm)
+                : KeyAgreement.getInstance(algorithm, provider));
+    }
+
+    /**
+     * Returns a MAC instance; callers must {@code init} it before use.
+     */
+    public static Mac mac(String algorithm) throws GeneralSecurityException {
+        return mac(algorithm, null);
+    }
+
+    public static Mac mac(String algorithm, String provider) throws GeneralSecurityException {
+        return cached("Mac", algorithm, provider, () -> provider == null
+                ? Mac.getInstance(algorithm)
+                : Mac.getInstance(algorithm, provider));
+    }
+
+    /**
+     * Returns a signature instance; callers must {@code initSign} or {@code initVerify} it before use.
+     */
+    public static Signature signature(String algorithm, String provider) throws GeneralSecurityException {
+        return cached("Signature", algorithm, provider, () -> provider == null
+                ? Signature.getInstance(algorithm)
+                : Signature.getInstance(algorithm, provider));
+    }
+
+    public static KeyFactory keyFactory(String algorithm) throws GeneralSecurityException {
+        return keyFactory(algorithm, null);
+    }
+
+    public static KeyFactory keyFactory(String algorithm, String provider) throws GeneralSecurityException {
+        return cached("KeyFactory", algorithm, provider, () -> provider == null
+                ? KeyFactory.getInstance(algorithm)
+                : KeyFactory.getInstance(algorithm, provider));
+    }
+
+    /**
+     * Returns an EC key pair generator already initialised for {@code curve}.
+     */
+    public static KeyPairGenerator ecKeyPairGenerator(String curve) throws GeneralSecurityException {
+        return ecKeyPairGenerator(curve, null);
+    }
+
+    public static KeyPairGenerator ecKeyPairGenerator(String curve, String provider) throws GeneralSecurityException {
+        return cached("KeyPairGenerator", "EC/" + curve, provider, () -> {
+            KeyPairGenerator generator = provider == null
+                    ? KeyPairGenerator.getInstance("EC")
+                    : KeyPairGenerator.getInstance("EC", provider);
+            generator.initialize(new ECGenParameterSpec(curve));
+            return generator;
+        });
+    }
+
+    /**
+     * Gives the calling thread an instance set until the lease is closed. On a virtual thread without a set the
+     * set is borrowed from the shared pool; otherwise (platform threads, nested leases) this does nothing.
+     */
+    public static Lease lease() {
+        if (INSTANCES.get() != null || !WorkerThreads.isVirtual(Thread.currentThread())) {
+            return NO_LEASE;
+        }
+        Map<String, Object> instances = SHARED.pollFirst();
+        Map<String, Object> borrowed = instances != null ? instances : new HashMap<>();
+        INSTANCES.set(borrowed);
+        return () -> {
+            INSTANCES.remove();
+            SHARED.offerFirst(borrowed);
+        };
+    }
+
+    /**
+     * Runs {@code doFinal} on every item with a cipher initialised once. A successful {@code doFinal} leaves the
+     * cipher in its initialised state; after a failure it is re-initialised before the next item. Items that
+     * already have an entry in {@code errors} (e.g. rejected by a caller-side check) are skipped.
+     */
+    public static byte[][] doFinalEach(Cipher cipher, int mode, Key key, byte[][] items, Exception[] errors) {
+        byte[][] results = new byte[items.length][];
+        try {
+            cipher.init(mode, key);
+            for (int i = 0; i < items.length; i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                try {
+                    results[i] = cipher.doFinal(items[i]);
+                } catch (Exception e) {
+                    errors[i] = e;
+                    cipher.init(mode, key);
+                }
+            }
+        } catch (Exception e) {
+            failRemaining(errors, e);
+        }
+        return results;
+    }
+
+    /**
+     * Records {@code failure} for every item that has neither a result nor an error yet, used when a batch
+     * cannot continue (e.g. the cipher cannot be initialised with the key).
+     */
+    public static void failRemaining(Exception[] errors, Exception failure) {
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] == null) {
+                errors[i] = failure;
+            }
+        }
+    }
+
+    /**
+     * Returns {@code provider} if it implements {@code type}/{@code algorithm}, otherwise {@code null} so that the
+     * default provider order is used. Lets a service be configured with e.g. "SunJCE" for RSA even though RSA
+     * key pair generation lives in SunRsaSign.
+     */
+    public static String providerFor(String type, String algorithm, String provider) {
+        if (provider == null) {
+            return null;
+        }
+        Provider installed = Security.getProvider(provider);
+        if (installed == null) {
+            throw new IllegalArgumentException("Unknown JCA provider: " + provider);
+        }
+        return installed.getService(type, algorithm) != null ? provider : null;
+    }
+
+    /**
+     * Name of the provider the JDK would pick for {@code type}/{@code algorithm} when none is requested.
+     */
+    public static String defaultProvider(String type, String algorithm) {
+        for (Provider provider : Security.getProviders()) {
+            if (provider.getService(type, algorithm) != null) {
+                return provider.getName();
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cached(String type, String algorithm, String provider, Factory<T> factory)
+            throws GeneralSecurityException {
+        Map<String, Object> instances = INSTANCES.get();
+        if (instances == null) {
+            instances = new HashMap<>();
+            INSTANCES.set(instances);
+        }
+        String cacheKey = type + ":" + algorithm + (provider == null ? "" : "@" + provider);
+        T instance = (T) instances.get(cacheKey);
+        if (instance == null) {
+            instance = factory.create();
+            instances.put(cacheKey, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * An instance set held by the calling thread; closing it does not throw.
+     */
+    @FunctionalInterface
+    public interface Lease extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    @FunctionalInterface
+    private interface Factory<T> {
+        T create() throws GeneralSecurityException;
+    }
+}
@@ -0,0 +1,396 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.ComparisonJobStatus;
+import com.encryption.comparison.model.CryptoTestConfig;
+import com.encryption.comparison.model.CryptoTestResult;
+import com.encryption.comparison.model.JobStatus;
+import com.encryption.comparison.model.LoadTestResult;
+import com.encryption.comparison.model.SweepConfig;
+import com.encryption.comparison.model.SweepResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link CryptoComparisonService#runComparison} as background jobs so that long sweeps do not hold a
+ * request thread. Jobs run on a small fixed pool with a bounded queue; a full queue rejects the submission.
+ * Results are collected as each case finishes, so a running job can be polled for partial results, and a
+ * cancelled job stops at the next case boundary. Streaming jobs hand each result to a callback instead of
+ * keeping it. Completed non-streaming jobs are recorded in the {@link ResultHistoryService}.
+ * <p>
+ * {@link ParameterSweepService} sweeps and {@link LoadGenerationService} load tests run on the same executor, so
+ * neither runs alongside a comparison it would skew; a sweep job counts cells as its cases and keeps its
+ * {@link SweepResult} once completed, a load test job counts thread counts and keeps each run's result.
+ * Key pool refills are paused while a job runs.
+ * <p>
+ * Finished jobs are kept for polling until more than {@code maxRetained} have accumulated, oldest first.
+ */
+@Service
+@Slf4j
+public class ComparisonJobService {
+
+    public static final String TYPE_COMPARISON = "comparison";
+    public static final String TYPE_SWEEP = "sweep";
+    public static final String TYPE_LOAD = "load";
+
+    private final CryptoComparisonService comparisonService;
+    private final ParameterSweepService sweepService;
+    private final LoadGenerationService loadService;
+    private final ResultHistoryService history;
+    private final KeyPairPool keyPairPool;
+    private final ThreadPoolExecutor executor;
+    private final int maxRetained;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> finishedOrder = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public ComparisonJobService(CryptoComparisonService comparisonService, ParameterSweepService sweepService,
+                                LoadGenerationService loadService, ResultHistoryService history,
+                                KeyPairPool keyPairPool,
+                                @Value("${crypto.jobs.threads:1}") int threads,
+                                @Value("${crypto.jobs.queue-capacity:16}") int queueCapacity,
+                                @Value("${crypto.jobs.max-retained:100}") int maxRetained,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.comparisonService = comparisonService;
+        this.sweepService = sweepService;
+        this.loadService = loadService;
+        this.history = history;
+        this.keyPairPool = keyPairPool;
+        this.maxRetained = Math.max(1, maxRetained);
+
+        // With virtual threads the pool still bounds how many jobs run at once, it only stops holding
+        // platform threads while a job is queued or blocked
+        if (virtualThreads && !WorkerThreads.virtualThreadsSupported()) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads, using platform threads",
+                    System.getProperty("java.version"));
+            virtualThreads = false;
+        }
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                WorkerThreads.factory("comparison-job-", virtualThreads));
+    }
+
+    /**
+     * Queues a comparison run and returns its status.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ComparisonJobStatus submit(CryptoTestConfig config) {
+        return enqueue(config, null);
+    }
+
+    /**
+     * Queues a comparison run of a stored run's config. Once it completes it is recorded in the history as a
+     * {@code rerun}; its status carries the new {@code runId} and the {@code baselineRunId} to compare it against.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ComparisonJobStatus submitRerun(String baselineRunId, CryptoTestConfig config) {
+        Job job = new Job(UUID.randomUUID().toString(), TYPE_COMPARISON, config, comparisonService.countCases(config),
+                null);
+        job.baselineRunId = baselineRunId;
+        return enqueue(job);
+    }
+
+    /**
+     * Queues a comparison run whose results go to {@code onResult} as each case finishes instead of being kept
+     * on the job, so memory does not grow with the sweep. {@code onStart} and {@code onFinish} receive the status
+     * when the job starts running and when it ends (including a cancellation while queued). Polling and
+     * cancellation work as for {@link #submit(CryptoTestConfig)}; {@link #getResults} stays empty.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ComparisonJobStatus stream(CryptoTestConfig config, Consumer<ComparisonJobStatus> onStart,
+                                      Consumer<CryptoTestResult> onResult, Consumer<ComparisonJobStatus> onFinish) {
+        return enqueue(config, new Callbacks(onStart, onResult, onFinish));
+    }
+
+    /**
+     * Queues a parameter sweep and returns its status; {@link #getSweepResult} has the rows once it completes.
+     *
+     * @throws IllegalArgumentException   if the sweep is invalid or over its limits, see
+     *                                    {@link ParameterSweepService#countCells}
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ComparisonJobStatus submitSweep(SweepConfig config) {
+        Job job = new Job(UUID.randomUUID().toString(), TYPE_SWEEP, null, sweepService.countCells(config), null);
+        job.sweepConfig = config;
+        return enqueue(job);
+    }
+
+    /**
+     * Queues a load test and returns its status; {@link #getLoadResults} has each thread count's result as soon
+     * as it finishes.
+     *
+     * @throws IllegalArgumentException   if the load settings are invalid or over their limits, see
+     *                                    {@link LoadGenerationService#countRuns}
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ComparisonJobStatus submitLoadTest(CryptoTestConfig config) {
+        return enqueue(new Job(UUID.randomUUID().toString(), TYPE_LOAD, config, loadService.countRuns(config), null));
+    }
+
+    private ComparisonJobStatus enqueue(CryptoTestConfig config, Callbacks callbacks) {
+        return enqueue(new Job(UUID.randomUUID().toString(), TYPE_COMPARISON, config,
+                comparisonService.countCases(config), callbacks));
+    }
+
+    private ComparisonJobStatus enqueue(Job job) {
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new RejectedExecutionException("Comparison job queue is full ("
+                    + executor.getQueue().size() + " queued)", e);
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * Status of the job, or {@code null} if it is unknown or no longer retained.
+     */
+    public ComparisonJobStatus getStatus(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.toStatus() : null;
+    }
+
+    public List<ComparisonJobStatus> listJobs() {
+        List<ComparisonJobStatus> statuses = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            statuses.add(job.toStatus());
+        }
+        statuses.sort((a, b) -> Long.compare(a.getSubmittedAt(), b.getSubmittedAt()));
+        return statuses;
+    }
+
+    /**
+     * Results completed so far (all results once the job has finished), or {@code null} for an unknown job.
+     */
+    public List<CryptoTestResult> getResults(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        synchronized (job.results) {
+            return new ArrayList<>(job.results);
+        }
+    }
+
+    /**
+     * Result of a completed sweep job, or {@code null} if the job is unknown, not a sweep or not completed.
+     */
+    public SweepResult getSweepResult(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.sweepResult : null;
+    }
+
+    /**
+     * Load test results finished so far, or {@code null} if the job is unknown or not a load test.
+     */
+    public List<LoadTestResult> getLoadResults(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !TYPE_LOAD.equals(job.type)) {
+            return null;
+        }
+        synchronized (job.loadResults) {
+            return new ArrayList<>(job.loadResults);
+        }
+    }
+
+    /**
+     * Cancels a queued or running job; a running job stops after its current case (a sweep stops at once).
+     * Returns the resulting status, or {@code null} for an unknown job.
+     */
+    public ComparisonJobStatus cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        boolean cancelledWhileQueued = false;
+        synchronized (job) {
+            if (job.status == JobStatus.QUEUED) {
+                job.finish(JobStatus.CANCELLED, null);
+                cancelledWhileQueued = true;
+            } else if (job.status == JobStatus.RUNNING) {
+                job.cancelRequested = true;
+            }
+        }
+        if (job.future != null) {
+            job.future.cancel(true);
+        }
+        executor.purge(); // Drop cancelled tasks so they stop taking queue capacity
+        if (cancelledWhileQueued) {
+            retain(job);
+            notifyFinished(job);
+        }
+        return job.toStatus();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        synchronized (job) {
+            if (job.status != JobStatus.QUEUED) {
+                return;
+            }
+            job.status = JobStatus.RUNNING;
+            job.startedAt = System.currentTimeMillis();
+        }
+        if (job.callbacks != null && job.callbacks.onStart != null) {
+            job.callbacks.onStart.accept(job.toStatus());
+        }
+
+        JobStatus outcome;
+        String errorMessage = null;
+        SweepResult sweepResult = null;
+        try (KeyPairPool.Pause pause = keyPairPool.pauseRefills()) {
+            switch (job.type) {
+                case TYPE_SWEEP -> sweepResult = sweepService.runSweep(job.sweepConfig,
+                        job.completedCases::incrementAndGet);
+                case TYPE_LOAD -> loadService.runLoadTest(job.config, result -> {
+                    job.loadResults.add(result);
+                    job.completedCases.incrementAndGet();
+                });
+                default -> runComparison(job);
+            }
+            outcome = job.cancelRequested || Thread.currentThread().isInterrupted()
+                    ? JobStatus.CANCELLED
+                    : JobStatus.COMPLETED;
+        } catch (Exception e) {
+            if (job.cancelRequested) {
+                outcome = JobStatus.CANCELLED;
+            } else {
+                log.error("Comparison job {} failed: {}", job.id, e.getMessage());
+                outcome = JobStatus.FAILED;
+                errorMessage = e.getMessage();
+            }
+        }
+
+        if (outcome == JobStatus.COMPLETED && TYPE_COMPARISON.equals(job.type) && job.callbacks == null) {
+            String source = job.baselineRunId != null ? "rerun" : "job";
+            job.runId = history.record(source, job.config, getResults(job.id)).getRunId();
+        }
+        synchronized (job) {
+            if (outcome == JobStatus.COMPLETED) {
+                job.sweepResult = sweepResult;
+            }
+            job.finish(outcome, errorMessage);
+        }
+        retain(job);
+        notifyFinished(job);
+        log.debug("Comparison job {} finished as {} with {}/{} cases", job.id, outcome,
+                job.completedCases.get(), job.totalCases);
+    }
+
+    private void runComparison(Job job) {
+        comparisonService.runComparison(job.config, result -> {
+            if (job.callbacks != null) {
+                job.callbacks.onResult.accept(result);
+            } else {
+                job.results.add(result);
+            }
+            job.completedCases.incrementAndGet();
+        });
+    }
+
+    private static void notifyFinished(Job job) {
+        if (job.callbacks != null && job.callbacks.onFinish != null) {
+            try {
+                job.callbacks.onFinish.accept(job.toStatus());
+            } catch (RuntimeException e) {
+                log.debug("Finish callback for comparison job {} failed: {}", job.id, e.getMessage());
+            }
+        }
+    }
+
+    private void retain(Job job) {
+        finishedOrder.add(job.id);
+        while (finishedOrder.size() > maxRetained) {
+            String oldest = finishedOrder.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String type;
+        private final CryptoTestConfig config; // null for a sweep
+        private final int totalCases;
+        private final long submittedAt = System.currentTimeMillis();
+        private final List<CryptoTestResult> results = Collections.synchronizedList(new ArrayList<>());
+        private final List<LoadTestResult> loadResults = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger completedCases = new AtomicInteger();
+        private final Callbacks callbacks; // null = keep results on the job
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Long startedAt;
+        private volatile Long finishedAt;
+        private volatile String errorMessage;
+        private volatile String runId;
+        private volatile boolean cancelRequested;
+        private volatile Future<?> future;
+        private volatile SweepConfig sweepConfig;
+        private volatile String baselineRunId;
+        private volatile SweepResult sweepResult;
+
+        Job(String id, String type, CryptoTestConfig config, int totalCases, Callbacks callbacks) {
+            this.id = id;
+            this.type = type;
+            this.config = config;
+            this.totalCases = totalCases;
+            this.callbacks = callbacks;
+        }
+
+        void finish(JobStatus outcome, String error) {
+            status = outcome;
+            errorMessage = error;
+            finishedAt = System.currentTimeMillis();
+        }
+
+        ComparisonJobStatus toStatus() {
+            ComparisonJobStatus snapshot = new ComparisonJobStatus();
+            snapshot.setJobId(id);
+            snapshot.setType(type);
+            snapshot.setStatus(status);
+            int completed = completedCases.get();
+            snapshot.setCompletedCases(completed);
+            snapshot.setTotalCases(totalCases);
+            snapshot.setProgress(totalCases == 0 ? 1.0 : (double) completed / totalCases);
+            snapshot.setSubmittedAt(submittedAt);
+            snapshot.setStartedAt(startedAt);
+            snapshot.setFinishedAt(finishedAt);
+            snapshot.setErrorMessage(errorMessage);
+            snapshot.setRunId(runId);
+            snapshot.setBaselineRunId(baselineRunId);
+            return snapshot;
+        }
+    }
+
+    private record Callbacks(Consumer<ComparisonJobStatus> onStart, Consumer<CryptoTestResult> onResult,
+                             Consumer<ComparisonJobStatus> onFinish) {
+    }
+}
@@ -1,14 +1,19 @@
 package com.encryption.comparison.service;
 
+import com.encryption.comparison.model.AllocationProfile;
 import com.encryption.comparison.model.CryptoTestConfig;
 import com.encryption.comparison.model.CryptoTestResult;
+import com.encryption.comparison.model.LatencyStats;
+import com.encryption.comparison.model.RsaDecryptBreakdown;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -16,28 +21,161 @@ import java.util.List;
 public class CryptoComparisonService {
     private final RsaCryptoService rsaService;
     private final EccCryptoService eccService;
+    private final RsaAesHybridService rsaAesHybridService;
+    private final EccAesHybridService eccAesHybridService;
     private final SecurityEstimatorService securityEstimator;
+    private final List<SignatureService> signatureServices;
     private final SecureRandom secureRandom = new SecureRandom();
 
     public List<CryptoTestResult> runComparison(CryptoTestConfig config) {
         List<CryptoTestResult> results = new ArrayList<>();
+        runComparison(config, results::add);
+        return results;
+    }
+
+    /**
+     * Runs the comparison and hands each result to {@code listener} as soon as its case finishes.
+     * Stops between cases if the calling thread is interrupted.
+     */
+    public void runComparison(CryptoTestConfig config, Consumer<CryptoTestResult> listener) {
+        List<TestCase> cases = testCases(config);
 
         for (int dataSize : config.getDataSizes()) {
             byte[] testData = generateRandomData(dataSize);
 
-            results.add(testAlgorithm(rsaService, testData, config.getRsaKeySize()));
-            results.add(testAlgorithm(eccService, testData, config.getEccKeySize()));
+            for (TestCase testCase : cases) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                listener.accept(testCase.signer() != null
+                        ? testSignature(testCase.signer(), testData, testCase.keySize(), config)
+                        : testAlgorithm(testCase.service(), testData, testCase.keySize(), testCase.rsaKeyForm(),
+                                config));
+            }
         }
+    }
 
-        return results;
+    /**
+     * Number of results {@link #runComparison} produces for {@code config}.
+     */
+    public int countCases(CryptoTestConfig config) {
+        return config.getDataSizes().length * testCases(config).size();
+    }
+
+    private List<TestCase> testCases(CryptoTestConfig config) {
+        List<TestCase> cases = new ArrayList<>();
+        // RSA goes through the payload dispatcher so payloads above one PKCS#1 block still produce a result
+        RsaPayloadDispatcher rsa = new RsaPayloadDispatcher(rsaService, rsaAesHybridService,
+                RsaPayloadDispatcher.parsePath(config.getRsaPath()));
+        for (String keyForm : rsaKeyForms(config)) {
+            for (CryptoService service : withProviders(rsa, config)) {
+                cases.add(new TestCase(service, null, config.getRsaKeySize(), keyForm));
+            }
+        }
+        for (CryptoService service : withProviders(eccService, config)) {
+            cases.add(new TestCase(service, config.getEccKeySize()));
+        }
+        for (CryptoService service : withProviders(rsaAesHybridService, config)) {
+            cases.add(new TestCase(service, config.getRsaKeySize()));
+        }
+        for (CryptoService service : withProviders(eccAesHybridService, config)) {
+            cases.add(new TestCase(service, config.getEccKeySize()));
+        }
+        for (SignatureService signer : signers(config)) {
+            cases.add(new TestCase(signer, signatureKeySize(signer, config)));
+        }
+        return cases;
     }
 
-    private CryptoTestResult testAlgorithm(CryptoService service, byte[] data, int keySize) {
+    /**
+     * The requested RSA private key forms, {@code crt} if none.
+     *
+     * @throws IllegalArgumentException for an unknown form
+     */
+    private static List<String> rsaKeyForms(CryptoTestConfig config) {
+        String[] forms = config.getRsaKeyForms();
+        if (forms == null || forms.length == 0) {
+            return List.of(RsaCryptoService.KEY_FORM_CRT);
+        }
+        for (String form : forms) {
+            if (!Arrays.asList(RsaCryptoService.KEY_FORMS).contains(form)) {
+                throw new IllegalArgumentException("Unknown RSA key form: " + form + ", expected crt, non-crt or pkcs8");
+            }
+        }
+        return Arrays.asList(forms);
+    }
+
+    /**
+     * The requested signature services, each once per requested provider it supports.
+     */
+    private List<SignatureService> signers(CryptoTestConfig config) {
+        List<SignatureService> signers = new ArrayList<>();
+        String[] names = config.getSignatureAlgorithms();
+        if (names == null) {
+            return signers;
+        }
+        String[] providers = config.getProviders();
+        for (String name : names) {
+            SignatureService signer = signatureServices.stream()
+                    .filter(service -> service.getAlgorithmName().equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown signature algorithm: " + name));
+            if (providers == null || providers.length == 0) {
+                signers.add(signer);
+                continue;
+            }
+            for (String provider : providers) {
+                if (Arrays.asList(signer.getSupportedProviders()).contains(provider)) {
+                    signers.add(signer.withProvider(provider));
+                }
+            }
+        }
+        return signers;
+    }
+
+    /**
+     * RSA-based signatures use {@code rsaKeySize}, curve-based ones {@code eccKeySize}; algorithms with a
+     * single fixed size (Ed25519) use that.
+     */
+    private static int signatureKeySize(SignatureService signer, CryptoTestConfig config) {
+        int[] supported = signer.getSupportedKeySizes();
+        for (int keySize : new int[] { config.getRsaKeySize(), config.getEccKeySize() }) {
+            if (Arrays.stream(supported).anyMatch(s -> s == keySize)) {
+                return keySize;
+            }
+        }
+        return supported[0];
+    }
+
+    /**
+     * The service configured for each requested provider it supports, or just the service itself
+     * when no providers are requested.
+     */
+    private List<CryptoService> withProviders(CryptoService service, CryptoTestConfig config) {
+        String[] providers = config.getProviders();
+        if (providers == null || providers.length == 0) {
+            return List.of(service);
+        }
+        List<CryptoService> variants = new ArrayList<>();
+        for (String provider : providers) {
+            if (Arrays.asList(service.getSupportedProviders()).contains(provider)) {
+                variants.add(service.withProvider(provider));
+            }
+        }
+        return variants;
+    }
+
+    private CryptoTestResult testAlgorithm(CryptoService service, byte[] data, int keySize, String rsaKeyForm,
+                                           CryptoTestConfig config) {
         CryptoTestResult result = new CryptoTestResult();
         result.setAlgorithm(service.getAlgorithmName());
+        result.setProvider(service.getProvider());
         result.setDataSize(data.length);
         result.setKeySize(keySize);
+        result.setWarmupIterations(Math.max(0, config.getWarmupIterations()));
+        result.setMeasurementIterations(Math.max(1, config.getMeasurementIterations()));
 
+        AllocationProbe probe = null;
         try {
             // Validate key size is supported
             boolean supportedKeySize = false;
@@ -50,28 +188,78 @@ public class CryptoComparisonService {
             if (!supportedKeySize) {
                 throw new IllegalArgumentException("Unsupported key size: " + keySize);
             }
+            probe = AllocationProbe.start();
+            AllocationProfile allocation = new AllocationProfile();
+
+            // Generate keys: warmup runs are discarded, the last measured pair is used below
+            for (int i = 0; i < config.getKeyGenerationWarmupIterations(); i++) {
+                service.generateKeyPair(keySize);
+            }
+            int keyGenIterations = Math.max(1, config.getKeyGenerationIterations());
+            long[] keyGenSamples = new long[keyGenIterations];
+            Object[] keyPair = null;
+            long allocated = AllocationProbe.allocatedBytes();
+            for (int i = 0; i < keyGenIterations; i++) {
+                long keyGenStart = System.nanoTime();
+                keyPair = service.generateKeyPair(keySize);
+                keyGenSamples[i] = System.nanoTime() - keyGenStart;
+            }
+            allocation.setKeyGenerationBytes(AllocationProbe.perOperation(allocated, keyGenIterations));
+            LatencyStats keyGenStats = LatencyStats.fromNanos(keyGenSamples);
+            result.setKeyGenerationStats(keyGenStats);
+            result.setKeyGenerationTime(keyGenStats.getMean()); // ms
 
-            // Generate keys
-            long keyGenStart = System.nanoTime();
-            Object[] keyPair = service.generateKeyPair(keySize);
-            long keyGenTime = System.nanoTime() - keyGenStart;
-            result.setKeyGenerationTime(keyGenTime / 1_000_000.0); // ms
+            if (service instanceof RsaPayloadDispatcher dispatcher) {
+                result.setRsaPath(dispatcher.pathFor(data.length, keyPair[0]).label());
+            }
+            if (rsaKeyForm != null) {
+                keyPair = new Object[] { keyPair[0], RsaCryptoService.toKeyForm(keyPair[1], rsaKeyForm) };
+                result.setRsaKeyForm(rsaKeyForm);
+                result.setRsaCrtKey(RsaCryptoService.isCrtKey(keyPair[1]));
+            }
+
+            // Warm up encrypt/decrypt so JIT compilation and provider lookup are out of the measurement
+            for (int i = 0; i < result.getWarmupIterations(); i++) {
+                byte[] encrypted = service.encrypt(data, keyPair[0]);
+                service.decrypt(encrypted, keyPair[1]);
+            }
 
             // Encrypt
-            long encryptStart = System.nanoTime();
-            byte[] encrypted = service.encrypt(data, keyPair[0]);
-            long encryptTime = System.nanoTime() - encryptStart;
-            result.setEncryptionTime(encryptTime / 1_000_000.0); // ms
+            int iterations = result.getMeasurementIterations();
+            long[] encryptSamples = new long[iterations];
+            byte[][] ciphertexts = new byte[iterations][];
+            allocated = AllocationProbe.allocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                long encryptStart = System.nanoTime();
+                ciphertexts[i] = service.encrypt(data, keyPair[0]);
+                encryptSamples[i] = System.nanoTime() - encryptStart;
+            }
+            allocation.setEncryptionBytes(AllocationProbe.perOperation(allocated, iterations));
+            LatencyStats encryptStats = LatencyStats.fromNanos(encryptSamples);
+            result.setEncryptionStats(encryptStats);
+            result.setEncryptionTime(encryptStats.getMean()); // ms
 
             // Decrypt
-            long decryptStart = System.nanoTime();
-            byte[] decrypted = service.decrypt(encrypted, keyPair[1]);
-            long decryptTime = System.nanoTime() - decryptStart;
-            result.setDecryptionTime(decryptTime / 1_000_000.0); // ms
+            long[] decryptSamples = new long[iterations];
+            allocated = AllocationProbe.allocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                long decryptStart = System.nanoTime();
+                byte[] decrypted = service.decrypt(ciphertexts[i], keyPair[1]);
+                decryptSamples[i] = System.nanoTime() - decryptStart;
+
+                // Verify decryption worked correctly
+                if (!java.util.Arrays.equals(data, decrypted)) {
+                    throw new RuntimeException("Decryption failed - data mismatch");
+                }
+            }
+            allocation.setDecryptionBytes(AllocationProbe.perOperation(allocated, iterations));
+            LatencyStats decryptStats = LatencyStats.fromNanos(decryptSamples);
+            result.setDecryptionStats(decryptStats);
+            result.setDecryptionTime(decryptStats.getMean()); // ms
+            result.setAllocation(probe.finish(allocation));
 
-            // Verify decryption worked correctly
-            if (!java.util.Arrays.equals(data, decrypted)) {
-                throw new RuntimeException("Decryption failed - data mismatch");
+            if (rsaKeyForm != null && config.isRsaDecryptBreakdown()) {
+                result.setRsaDecryptBreakdown(profileRsaDecrypt(data, keyPair, result));
             }
 
             // Calculate theoretical break time
@@ -81,10 +269,127 @@ public class CryptoComparisonService {
             log.debug("Successfully tested {} with key size {} and data size {}",
                     service.getAlgorithmName(), keySize, data.length);
         } catch (Exception e) {
-            log.error("Error testing {} with key size {}: {}",
-                    service.getAlgorithmName(), keySize, e.getMessage());
+            log.error("Error testing {} ({}) with key size {}: {}",
+                    service.getAlgorithmName(), service.getProvider(), keySize, e.getMessage());
             result.setSuccess(false);
             result.setErrorMessage(e.getMessage());
+        } finally {
+            if (probe != null) {
+                probe.close();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Phase breakdown of one RSA private-key operation with the case's key, from
+     * {@link RsaCryptoService#decryptProfiled} on a single raw block holding the first bytes of the payload,
+     * whatever path the case itself encrypted on.
+     */
+    private RsaDecryptBreakdown profileRsaDecrypt(byte[] data, Object[] keyPair, CryptoTestResult result)
+            throws Exception {
+        byte[] block = Arrays.copyOf(data, Math.min(data.length, RsaCryptoService.maxDataSize(keyPair[0])));
+        byte[] ciphertext = rsaService.encrypt(block, keyPair[0]);
+        long[] phaseNanos = new long[RsaCryptoService.DECRYPT_PHASES.length];
+        for (int i = 0; i < result.getWarmupIterations(); i++) {
+            rsaService.decryptProfiled(ciphertext, keyPair[1], phaseNanos);
+        }
+
+        int iterations = result.getMeasurementIterations();
+        long[][] samples = new long[phaseNanos.length][iterations];
+        for (int i = 0; i < iterations; i++) {
+            if (!Arrays.equals(block, rsaService.decryptProfiled(ciphertext, keyPair[1], phaseNanos))) {
+                throw new RuntimeException("Profiled RSA decryption failed - data mismatch");
+            }
+            for (int phase = 0; phase < phaseNanos.length; phase++) {
+                samples[phase][i] = phaseNanos[phase];
+            }
+        }
+        return RsaDecryptBreakdown.fromNanos(RsaCryptoService.isCrtKey(keyPair[1]), samples);
+    }
+
+    private CryptoTestResult testSignature(SignatureService signer, byte[] data, int keySize, CryptoTestConfig config) {
+        CryptoTestResult result = new CryptoTestResult();
+        result.setAlgorithm(signer.getAlgorithmName());
+        result.setProvider(signer.getProvider());
+        result.setDataSize(data.length);
+        result.setKeySize(keySize);
+        result.setWarmupIterations(Math.max(0, config.getWarmupIterations()));
+        result.setMeasurementIterations(Math.max(1, config.getMeasurementIterations()));
+
+        AllocationProbe probe = null;
+        try {
+            probe = AllocationProbe.start();
+            AllocationProfile allocation = new AllocationProfile();
+            for (int i = 0; i < config.getKeyGenerationWarmupIterations(); i++) {
+                signer.generateKeyPair(keySize);
+            }
+            int keyGenIterations = Math.max(1, config.getKeyGenerationIterations());
+            long[] keyGenSamples = new long[keyGenIterations];
+            Object[] keyPair = null;
+            long allocated = AllocationProbe.allocatedBytes();
+            for (int i = 0; i < keyGenIterations; i++) {
+                long keyGenStart = System.nanoTime();
+                keyPair = signer.generateKeyPair(keySize);
+                keyGenSamples[i] = System.nanoTime() - keyGenStart;
+            }
+            allocation.setKeyGenerationBytes(AllocationProbe.perOperation(allocated, keyGenIterations));
+            LatencyStats keyGenStats = LatencyStats.fromNanos(keyGenSamples);
+            result.setKeyGenerationStats(keyGenStats);
+            result.setKeyGenerationTime(keyGenStats.getMean()); // ms
+
+            for (int i = 0; i < result.getWarmupIterations(); i++) {
+                signer.verify(data, signer.sign(data, keyPair[1]), keyPair[0]);
+            }
+
+            // Sign
+            int iterations = result.getMeasurementIterations();
+            long[] signSamples = new long[iterations];
+            byte[][] signatures = new byte[iterations][];
+            allocated = AllocationProbe.allocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                long signStart = System.nanoTime();
+                signatures[i] = signer.sign(data, keyPair[1]);
+                signSamples[i] = System.nanoTime() - signStart;
+            }
+            allocation.setSigningBytes(AllocationProbe.perOperation(allocated, iterations));
+            LatencyStats signStats = LatencyStats.fromNanos(signSamples);
+            result.setSigningStats(signStats);
+            result.setSigningTime(signStats.getMean()); // ms
+
+            // Verify
+            long[] verifySamples = new long[iterations];
+            int signatureSize = 0;
+            allocated = AllocationProbe.allocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                long verifyStart = System.nanoTime();
+                boolean valid = signer.verify(data, signatures[i], keyPair[0]);
+                verifySamples[i] = System.nanoTime() - verifyStart;
+
+                if (!valid) {
+                    throw new RuntimeException("Verification failed - signature rejected");
+                }
+                signatureSize = Math.max(signatureSize, signatures[i].length);
+            }
+            allocation.setVerificationBytes(AllocationProbe.perOperation(allocated, iterations));
+            result.setAllocation(probe.finish(allocation));
+            LatencyStats verifyStats = LatencyStats.fromNanos(verifySamples);
+            result.setVerificationStats(verifyStats);
+            result.setVerificationTime(verifyStats.getMean()); // ms
+            result.setSignatureSize(signatureSize);
+
+            result.setSecurityEstimate(securityEstimator.estimateBreakTime(signer.getAlgorithmName(), keySize));
+            result.setSuccess(true);
+        } catch (Exception e) {
+            log.error("Error testing {} ({}) with key size {}: {}",
+                    signer.getAlgorithmName(), signer.getProvider(), keySize, e.getMessage());
+            result.setSuccess(false);
+            result.setErrorMessage(e.getMessage());
+        } finally {
+            if (probe != null) {
+                probe.close();
+            }
         }
 
         return result;
@@ -95,4 +400,15 @@ public class CryptoComparisonService {
         secureRandom.nextBytes(data);
         return data;
     }
+
+    // rsaKeyForm is only set for RSA cases
+    private record TestCase(CryptoService service, SignatureService signer, int keySize, String rsaKeyForm) {
+        TestCase(CryptoService service, int keySize) {
+            this(service, null, keySize, null);
+        }
+
+        TestCase(SignatureService signer, int keySize) {
+            this(null, signer, keySize, null);
+        }
+    }
 }
\ No newline at end of file
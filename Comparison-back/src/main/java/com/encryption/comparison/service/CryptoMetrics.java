@@ -0,0 +1,214 @@
+package com.encryption.comparison.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.security.Key;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.EdECKey;
+import java.security.interfaces.RSAKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer timers for one {@link CryptoService}, {@link SignatureService} or {@link RsaAesSessionService}
+ * instance, recorded from inside the service so that every caller (REST endpoints, comparison runs, load tests)
+ * feeds the same {@code crypto.operation} metric.
+ * <p>
+ * Timers are tagged with {@code algorithm}, {@code provider}, {@code operation}, {@code keySize},
+ * {@code payload} (a size bucket, so tag cardinality stays bounded) and {@code outcome}, and publish a
+ * percentile histogram for Prometheus. Key generation takes its key size from the caller, so sizes the service
+ * does not support are tagged {@code invalid} rather than creating a timer per requested value. Timers register
+ * with {@link Metrics#globalRegistry}, which Spring Boot backs with its own registry; services created outside
+ * Spring (tests, JMH) record into a no-op composite.
+ * <p>
+ * Each timed operation runs inside a {@link CipherPool#lease()}, so virtual threads reuse pooled instances.
+ */
+public final class CryptoMetrics {
+
+    public static final String METRIC_NAME = "crypto.operation";
+
+    public static final String GENERATE_KEY_PAIR = "generateKeyPair";
+    public static final String ENCRYPT = "encrypt";
+    public static final String DECRYPT = "decrypt";
+    public static final String ENCRYPT_BATCH = "encrypt_batch";
+    public static final String DECRYPT_BATCH = "decrypt_batch";
+    public static final String ENCRYPT_BLOCKS = "encrypt_blocks";
+    public static final String DECRYPT_BLOCKS = "decrypt_blocks";
+    public static final String DECRYPT_PROFILED = "decrypt_profiled";
+    public static final String ENCRYPT_STREAM = "encrypt_stream";
+    public static final String DECRYPT_STREAM = "decrypt_stream";
+    public static final String SIGN = "sign";
+    public static final String VERIFY = "verify";
+
+    private static final long[] PAYLOAD_BUCKET_LIMITS = {
+            64, 1024, 16 * 1024, 256 * 1024, 1024 * 1024, 16 * 1024 * 1024 };
+    private static final String[] PAYLOAD_BUCKETS = {
+            "0-64B", "65B-1KB", "1-16KB", "16-256KB", "256KB-1MB", "1-16MB", ">16MB" };
+    private static final String NO_PAYLOAD = "none";
+    static final String INVALID_KEY_SIZE = "invalid";
+
+    private final Supplier<String> algorithmName;
+    private final Supplier<String> providerLookup;
+    private final Supplier<int[]> supportedKeySizes;
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private volatile String provider; // Resolved lazily, the default provider lookup scans the provider list
+
+    public CryptoMetrics(CryptoService service) {
+        this(service::getAlgorithmName, service::getProvider, service::getSupportedKeySizes);
+    }
+
+    public CryptoMetrics(SignatureService service) {
+        this(service::getAlgorithmName, service::getProvider, service::getSupportedKeySizes);
+    }
+
+    CryptoMetrics(Supplier<String> algorithmName, Supplier<String> providerLookup) {
+        this(algorithmName, providerLookup, () -> new int[0]);
+    }
+
+    private CryptoMetrics(Supplier<String> algorithmName, Supplier<String> providerLookup,
+            Supplier<int[]> supportedKeySizes) {
+        this.algorithmName = algorithmName;
+        this.providerLookup = providerLookup;
+        this.supportedKeySizes = supportedKeySizes;
+        this.registry = Metrics.globalRegistry;
+    }
+
+    public <T> T time(String operation, Object key, long payloadBytes, Operation<T> action) throws Exception {
+        return time(operation, keySize(key), payloadBucket(payloadBytes), action);
+    }
+
+    /**
+     * Times a whole batch as one sample, bucketed by the batch's total payload; per-item failures are reported
+     * by the batch itself, so the outcome is only {@code error} if the batch throws.
+     */
+    public byte[][] timeBatch(String operation, Object key, byte[][] items, Supplier<byte[][]> action) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            byte[][] results = action.get();
+            success = true;
+            return results;
+        } finally {
+            timer(operation, keySize(key), payloadBucket(totalLength(items)), success)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public <T> T timeKeyGeneration(int keySize, Operation<T> action) throws Exception {
+        return time(GENERATE_KEY_PAIR, requestedKeySize(keySize), NO_PAYLOAD, action);
+    }
+
+    private String requestedKeySize(int keySize) {
+        for (int supported : supportedKeySizes.get()) {
+            if (supported == keySize) {
+                return Integer.toString(keySize);
+            }
+        }
+        return INVALID_KEY_SIZE;
+    }
+
+    private <T> T time(String operation, String keySize, String payload, Operation<T> action) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try (CipherPool.Lease lease = CipherPool.lease()) {
+            T result = action.run();
+            success = true;
+            return result;
+        } finally {
+            timer(operation, keySize, payload, success).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records an operation timed by the caller, for operations whose payload size is only known at the end
+     * (streams).
+     */
+    public void record(String operation, Object key, long payloadBytes, long startNanos, boolean success) {
+        timer(operation, keySize(key), payloadBucket(payloadBytes), success)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String operation, String keySize, String payload, boolean success) {
+        String cacheKey = operation + '|' + keySize + '|' + payload + '|' + success;
+        Timer timer = timers.get(cacheKey);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(cacheKey, k -> Timer.builder(METRIC_NAME)
+                    .description("Latency of crypto operations inside the CryptoService implementations")
+                    .tag("algorithm", algorithmName.get())
+                    .tag("provider", provider())
+                    .tag("operation", operation)
+                    .tag("keySize", keySize)
+                    .tag("payload", payload)
+                    .tag("outcome", success ? "success" : "error")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(registry));
+        }
+        return timer;
+    }
+
+    private String provider() {
+        String resolved = provider;
+        if (resolved == null) {
+            resolved = String.valueOf(providerLookup.get());
+            provider = resolved;
+        }
+        return resolved;
+    }
+
+    static String payloadBucket(long bytes) {
+        for (int i = 0; i < PAYLOAD_BUCKET_LIMITS.length; i++) {
+            if (bytes <= PAYLOAD_BUCKET_LIMITS[i]) {
+                return PAYLOAD_BUCKETS[i];
+            }
+        }
+        return PAYLOAD_BUCKETS[PAYLOAD_BUCKETS.length - 1];
+    }
+
+    static String keySize(Object key) {
+        return Integer.toString(keyBits(key));
+    }
+
+    private static int keyBits(Object key) {
+        if (key instanceof RSAKey) {
+            return ((RSAKey) key).getModulus().bitLength();
+        }
+        if (key instanceof ECKey) {
+            return ((ECKey) key).getParams().getCurve().getField().getFieldSize();
+        }
+        if (key instanceof EdECKey) {
+            return "Ed448".equals(((EdECKey) key).getParams().getName()) ? 448 : 255;
+        }
+        if (key instanceof Key) {
+            // BouncyCastle EdDSA keys do not implement EdECKey
+            String algorithm = ((Key) key).getAlgorithm();
+            if ("Ed25519".equals(algorithm)) {
+                return 255;
+            }
+            if ("Ed448".equals(algorithm)) {
+                return 448;
+            }
+        }
+        return 0;
+    }
+
+    static long totalLength(byte[][] items) {
+        long total = 0;
+        for (byte[] item : items) {
+            total += item != null ? item.length : 0;
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    public interface Operation<T> {
+        T run() throws Exception;
+    }
+}
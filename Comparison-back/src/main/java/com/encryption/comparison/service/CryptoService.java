@@ -6,4 +6,57 @@ public interface CryptoService {
     byte[] decrypt(byte[] encryptedData, Object privateKey) throws Exception;
     Object[] generateKeyPair(int keySize) throws Exception;
     int[] getSupportedKeySizes();
-}
\ No newline at end of file
+
+    // JCA provider selection: getProvider() reports the provider actually used for the cipher operations
+    String getProvider();
+    String[] getSupportedProviders();
+    CryptoService withProvider(String provider);
+
+    /**
+     * Encrypts every item with the same key, reusing one initialised cipher where the scheme allows it.
+     * A failing item leaves its slot {@code null} and records the exception in {@code errors}; the rest still run.
+     * Items that already have an entry in {@code errors} are skipped.
+     */
+    default byte[][] encryptBatch(byte[][] items, Object publicKey, Exception[] errors) {
+        byte[][] results = new byte[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            try {
+                results[i] = encrypt(items[i], publicKey);
+            } catch (Exception e) {
+                errors[i] = e;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Decrypts every item with the same key; see {@link #encryptBatch(byte[][], Object, Exception[])}.
+     */
+    default byte[][] decryptBatch(byte[][] items, Object privateKey, Exception[] errors) {
+        byte[][] results = new byte[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            try {
+                results[i] = decrypt(items[i], privateKey);
+            } catch (Exception e) {
+                errors[i] = e;
+            }
+        }
+        return results;
+    }
+
+    static void checkProvider(CryptoService service, String provider) {
+        for (String supported : service.getSupportedProviders()) {
+            if (supported.equals(provider)) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Provider " + provider + " is not supported by "
+                + service.getAlgorithmName() + ", expected one of " + String.join(", ", service.getSupportedProviders()));
+    }
+}
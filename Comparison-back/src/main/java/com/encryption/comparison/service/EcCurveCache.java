@@ -0,0 +1,183 @@
+package com.encryption.comparison.service;
+
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.math.ec.FixedPointUtil;
+
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared parameters and precomputed point tables for secp256r1, secp384r1 and secp521r1.
+ * <p>
+ * Domain parameters are built once per curve from BouncyCastle's custom curve implementations (specialised
+ * field arithmetic), with the fixed-base comb table of the generator precomputed, so every ephemeral key drawn on
+ * a curve reuses one table instead of rebuilding the curve and its table per key. Recipient public keys are
+ * imported onto the shared curve and given a comb table of their own, which turns the ECDH multiplication of
+ * ECIES encryption into a fixed-base multiplication as well. About the {@value #MAX_RECIPIENTS} most recently
+ * used recipients are kept ({@link RecipientTables}, lock-free on hits); a table is a few KB.
+ */
+public final class EcCurveCache {
+
+    static final int MAX_RECIPIENTS = 256;
+
+    private static final Map<String, ECDomainParameters> DOMAINS = new ConcurrentHashMap<>();
+
+    private static final RecipientTables RECIPIENTS = new RecipientTables(MAX_RECIPIENTS);
+
+    private EcCurveCache() {
+    }
+
+    /**
+     * Curve for an EC key size: 384 and 521 select secp384r1 and secp521r1, anything else P-256.
+     */
+    public static String curveName(int keySize) {
+        switch (keySize) {
+            case 384: return "secp384r1";
+            case 521: return "secp521r1";
+            default: return "secp256r1"; // Default to P-256
+        }
+    }
+
+    /**
+     * Domain parameters for {@code curve} with the generator's comb table precomputed, shared by all threads.
+     */
+    public static ECDomainParameters domain(String curve) {
+        return DOMAINS.computeIfAbsent(curve, name -> {
+            X9ECParameters x9 = CustomNamedCurves.getByName(name);
+            if (x9 == null) {
+                throw new IllegalArgumentException("Unknown curve: " + name);
+            }
+            ECDomainParameters domain = new ECDomainParameters(x9);
+            FixedPointUtil.precompute(domain.getG());
+            return domain;
+        });
+    }
+
+    /**
+     * The recipient key on its shared curve with a precomputed comb table, or {@code null} if the key is not on
+     * one of the three cached curves (the caller then falls back to the provider's generic path).
+     */
+    public static ECPublicKeyParameters recipient(PublicKey publicKey) {
+        return RECIPIENTS.get(publicKey);
+    }
+
+    /**
+     * Imports {@code publicKey} onto its shared curve and precomputes its comb table, or returns {@code null} if
+     * it is not on one of the cached curves.
+     */
+    static ECPublicKeyParameters precompute(PublicKey publicKey) {
+        if (!(publicKey instanceof ECPublicKey)) {
+            return null;
+        }
+        ECPublicKey ecKey = (ECPublicKey) publicKey;
+        ECParameterSpec params = ecKey.getParams();
+        ECDomainParameters domain = domain(curveName(params.getCurve().getField().getFieldSize()));
+        if (!sameCurve(params, domain)) {
+            return null;
+        }
+        ECPoint w = ecKey.getW();
+        ECPublicKeyParameters recipient = new ECPublicKeyParameters( // Validates the point against the curve
+                domain.getCurve().createPoint(w.getAffineX(), w.getAffineY()), domain);
+        FixedPointUtil.precompute(recipient.getQ());
+        return recipient;
+    }
+
+    private static boolean sameCurve(ECParameterSpec params, ECDomainParameters domain) {
+        return params.getOrder().equals(domain.getN())
+                && params.getCurve().getA().equals(domain.getCurve().getA().toBigInteger())
+                && params.getCurve().getB().equals(domain.getCurve().getB().toBigInteger())
+                && params.getGenerator().getAffineX().equals(domain.getG().getAffineXCoord().toBigInteger());
+    }
+
+    /**
+     * Recipient tables for at most {@code capacity} keys, evicting approximately the least recently used.
+     * <p>
+     * A hit is a {@link ConcurrentHashMap} read and takes no lock, so encryptions to known recipients do not
+     * serialise. Recency is an epoch that advances with every insertion: a new entry is stamped with the epoch it
+     * was inserted in, and a hit stamps its entry with the current epoch, writing only when the stamp changes, so
+     * repeated hits between insertions write nothing and any hit after an insertion outranks the inserted entry. Eviction
+     * scans for the oldest stamp and only runs on insertion, which already paid for a table precomputation.
+     * Entries used within the same epoch are equally recent, and two threads racing on a new key both compute its
+     * table, of which one is kept.
+     */
+    static final class RecipientTables {
+
+        private final int capacity;
+        private final ConcurrentHashMap<PublicKey, Entry> entries = new ConcurrentHashMap<>();
+        private final AtomicLong epoch = new AtomicLong();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        RecipientTables(int capacity) {
+            this.capacity = capacity;
+        }
+
+        ECPublicKeyParameters get(PublicKey publicKey) {
+            Entry entry = entries.get(publicKey);
+            if (entry != null) {
+                long now = epoch.get();
+                if (entry.lastUsed != now) {
+                    entry.lastUsed = now;
+                }
+                hits.increment();
+                return entry.recipient;
+            }
+            ECPublicKeyParameters recipient = precompute(publicKey);
+            if (recipient == null) {
+                return null;
+            }
+            misses.increment();
+            Entry previous = entries.putIfAbsent(publicKey, new Entry(recipient, epoch.getAndIncrement()));
+            if (previous != null) {
+                return previous.recipient;
+            }
+            while (entries.size() > capacity) {
+                evictLeastRecentlyUsed();
+            }
+            return recipient;
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        long hits() {
+            return hits.sum();
+        }
+
+        long misses() {
+            return misses.sum();
+        }
+
+        private void evictLeastRecentlyUsed() {
+            Map.Entry<PublicKey, Entry> eldest = null;
+            for (Map.Entry<PublicKey, Entry> candidate : entries.entrySet()) {
+                if (eldest == null || candidate.getValue().lastUsed < eldest.getValue().lastUsed) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest != null) {
+                entries.remove(eldest.getKey(), eldest.getValue());
+            }
+        }
+
+        private static final class Entry {
+            final ECPublicKeyParameters recipient;
+            volatile long lastUsed;
+
+            Entry(ECPublicKeyParameters recipient, long lastUsed) {
+                this.recipient = recipient;
+                this.lastUsed = lastUsed;
+            }
+        }
+    }
+}
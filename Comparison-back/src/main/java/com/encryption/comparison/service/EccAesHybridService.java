@@ -0,0 +1,177 @@
+package com.encryption.comparison.service;
+
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECKey;
+import java.security.spec.X509EncodedKeySpec;
+
+/**
+ * ECIES-style hybrid encryption on the JDK providers (SunEC / SunJCE), the ECC counterpart of
+ * {@link RsaAesHybridService}: an ephemeral-static ECDH agreement, HKDF-SHA256 to derive an AES-256 key,
+ * and AES-GCM over the payload.
+ * <p>
+ * Envelope format:
+ * <pre>
+ * [2 bytes: ephemeral key length][X.509 ephemeral public key][12 bytes: nonce][ciphertext + 16-byte tag]
+ * </pre>
+ * The ephemeral public key is bound into the HKDF info, and the whole header is authenticated as GCM AAD.
+ */
+@Service
+public class EccAesHybridService implements CryptoService {
+
+    private static final String EC_ALGORITHM = "EC";
+    private static final String KEY_AGREEMENT_ALGORITHM = "ECDH";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String AES_ALGORITHM = "AES";
+    private static final String AES_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int AES_KEY_BYTES = 32;
+    private static final int GCM_TAG_BYTES = 16;
+    private static final int GCM_NONCE_BYTES = 12;
+    private static final byte[] HKDF_INFO_PREFIX = "EccAesHybrid/AES-256-GCM".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String[] SUPPORTED_PROVIDERS = { "SunEC", "BC" };
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final String provider; // null = JDK default provider order
+    private final String symmetricProvider; // SunEC has no AES/HMAC, those fall back to the default order
+    private final CryptoMetrics metrics = new CryptoMetrics(this);
+
+    public EccAesHybridService() {
+        this(null);
+    }
+
+    public EccAesHybridService(String provider) {
+        this.provider = provider;
+        this.symmetricProvider = CipherPool.providerFor("Cipher", AES_ALGORITHM, provider);
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "ECC+AES Hybrid";
+    }
+
+    @Override
+    public int[] getSupportedKeySizes() {
+        return new int[] { 256, 384, 521 };
+    }
+
+    @Override
+    public String getProvider() {
+        return provider != null ? provider : CipherPool.defaultProvider("KeyAgreement", KEY_AGREEMENT_ALGORITHM);
+    }
+
+    @Override
+    public String[] getSupportedProviders() {
+        return SUPPORTED_PROVIDERS;
+    }
+
+    @Override
+    public EccAesHybridService withProvider(String provider) {
+        CryptoService.checkProvider(this, provider);
+        return new EccAesHybridService(provider);
+    }
+
+    @Override
+    public Object[] generateKeyPair(int keySize) throws Exception {
+        return metrics.timeKeyGeneration(keySize, () -> doGenerateKeyPair(keySize));
+    }
+
+    private Object[] doGenerateKeyPair(int keySize) throws Exception {
+        KeyPair keyPair = CipherPool.ecKeyPairGenerator(EcCurveCache.curveName(keySize), provider).generateKeyPair();
+        return new Object[] { keyPair.getPublic(), keyPair.getPrivate() };
+    }
+
+    @Override
+    public byte[] encrypt(byte[] data, Object publicKey) throws Exception {
+        return metrics.time(CryptoMetrics.ENCRYPT, publicKey, data.length, () -> doEncrypt(data, publicKey));
+    }
+
+    private byte[] doEncrypt(byte[] data, Object publicKey) throws Exception {
+        PublicKey recipientKey = (PublicKey) publicKey;
+        int fieldSize = ((ECKey) recipientKey).getParams().getCurve().getField().getFieldSize();
+
+        // Step 1: Ephemeral key pair on the recipient's curve, ECDH with the recipient's static key
+        KeyPair ephemeral = CipherPool.ecKeyPairGenerator(EcCurveCache.curveName(fieldSize), provider).generateKeyPair();
+        byte[] ephemeralEncoded = ephemeral.getPublic().getEncoded();
+        SecretKey aesKey = deriveKey(ephemeral.getPrivate(), recipientKey, ephemeralEncoded);
+
+        // Step 2: Header, then AES-GCM directly into the output buffer
+        byte[] nonce = new byte[GCM_NONCE_BYTES];
+        secureRandom.nextBytes(nonce);
+        int headerLength = 2 + ephemeralEncoded.length + GCM_NONCE_BYTES;
+        byte[] output = new byte[headerLength + data.length + GCM_TAG_BYTES];
+        ByteBuffer.wrap(output)
+                .putShort((short) ephemeralEncoded.length)
+                .put(ephemeralEncoded)
+                .put(nonce);
+
+        Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, symmetricProvider);
+        aesCipher.init(Cipher.ENCRYPT_MODE, aesKey, new GCMParameterSpec(GCM_TAG_BYTES * 8, nonce));
+        aesCipher.updateAAD(output, 0, headerLength);
+        aesCipher.doFinal(data, 0, data.length, output, headerLength);
+        return output;
+    }
+
+    @Override
+    public byte[] decrypt(byte[] encryptedData, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.DECRYPT, privateKey, encryptedData.length, () -> doDecrypt(encryptedData, privateKey));
+    }
+
+    private byte[] doDecrypt(byte[] encryptedData, Object privateKey) throws Exception {
+        PrivateKey recipientKey = (PrivateKey) privateKey;
+
+        // Step 1: Parse the ephemeral public key and nonce
+        ByteBuffer buffer = ByteBuffer.wrap(encryptedData);
+        int keyLength = buffer.getShort() & 0xFFFF;
+        if (keyLength == 0 || keyLength + GCM_NONCE_BYTES + GCM_TAG_BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid ephemeral key length: " + keyLength);
+        }
+        byte[] ephemeralEncoded = new byte[keyLength];
+        buffer.get(ephemeralEncoded);
+        byte[] nonce = new byte[GCM_NONCE_BYTES];
+        buffer.get(nonce);
+        int headerLength = buffer.position();
+
+        PublicKey ephemeralKey = CipherPool.keyFactory(EC_ALGORITHM, provider)
+                .generatePublic(new X509EncodedKeySpec(ephemeralEncoded));
+
+        // Step 2: Recompute the shared key and authenticate/decrypt
+        SecretKey aesKey = deriveKey(recipientKey, ephemeralKey, ephemeralEncoded);
+        Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, symmetricProvider);
+        aesCipher.init(Cipher.DECRYPT_MODE, aesKey, new GCMParameterSpec(GCM_TAG_BYTES * 8, nonce));
+        aesCipher.updateAAD(encryptedData, 0, headerLength);
+        return aesCipher.doFinal(encryptedData, headerLength, encryptedData.length - headerLength);
+    }
+
+    private SecretKey deriveKey(PrivateKey privateKey, PublicKey publicKey, byte[] ephemeralEncoded) throws Exception {
+        KeyAgreement agreement = CipherPool.keyAgreement(KEY_AGREEMENT_ALGORITHM, provider);
+        agreement.init(privateKey);
+        agreement.doPhase(publicKey, true);
+        byte[] sharedSecret = agreement.generateSecret();
+
+        // HKDF-SHA256 (RFC 5869) with an all-zero salt; one expand block covers the 32-byte AES key
+        Mac hmac = CipherPool.mac(HMAC_ALGORITHM, symmetricProvider);
+        hmac.init(new SecretKeySpec(new byte[hmac.getMacLength()], HMAC_ALGORITHM));
+        byte[] prk = hmac.doFinal(sharedSecret);
+
+        hmac.init(new SecretKeySpec(prk, HMAC_ALGORITHM));
+        hmac.update(HKDF_INFO_PREFIX);
+        hmac.update(ephemeralEncoded);
+        hmac.update((byte) 1);
+        byte[] okm = hmac.doFinal();
+
+        return new SecretKeySpec(okm, 0, AES_KEY_BYTES, AES_ALGORITHM);
+    }
+}
@@ -1,17 +1,62 @@
 package com.encryption.comparison.service;
 
+import org.bouncycastle.crypto.BasicAgreement;
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.digests.SHA1Digest;
+import org.bouncycastle.crypto.engines.IESEngine;
+import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
+import org.bouncycastle.crypto.generators.EphemeralKeyPairGenerator;
+import org.bouncycastle.crypto.generators.KDF2BytesGenerator;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.IESParameters;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import java.math.BigInteger;
 import java.security.*;
-import java.security.spec.ECGenParameterSpec;
 
 @Service
 public class EccCryptoService implements CryptoService {
 
     static {
-        Security.addProvider(new BouncyCastleProvider());
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    // ECIES is only implemented by BouncyCastle, so the provider selects key pair generation;
+    // the cipher itself always runs on BC
+    private static final String[] SUPPORTED_PROVIDERS = { "BC", "SunEC" };
+
+    // Parameters of the BC "ECIES" cipher: no derivation/encoding vectors, 128-bit HMAC key, XOR stream
+    private static final IESParameters IES_PARAMETERS = new IESParameters(null, null, 128);
+
+    private final String provider;
+    private final boolean precompute;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final CryptoMetrics metrics = new CryptoMetrics(this);
+
+    public EccCryptoService() {
+        this("BC");
+    }
+
+    public EccCryptoService(String provider) {
+        this(provider, true);
+    }
+
+    /**
+     * @param precompute encrypt through {@link EcCurveCache}'s shared curves and per-recipient comb tables;
+     *                   {@code false} uses the BC {@code ECIES} cipher as is (same ciphertext format)
+     */
+    public EccCryptoService(String provider, boolean precompute) {
+        this.provider = provider;
+        this.precompute = precompute;
     }
 
     @Override
@@ -26,41 +71,153 @@ public class EccCryptoService implements CryptoService {
 
     @Override
     public Object[] generateKeyPair(int keySize) throws Exception {
-        // Select curve based on key size
-        String curve;
-        switch (keySize) {
-            case 384: curve = "secp384r1"; break;
-            case 521: curve = "secp521r1"; break;
-            default: curve = "secp256r1"; break; // Default to P-256
-        }
-
-        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("EC", "BC");
-        ECGenParameterSpec ecSpec = new ECGenParameterSpec(curve);
-        keyGen.initialize(ecSpec, new SecureRandom());
+        return metrics.timeKeyGeneration(keySize, () -> doGenerateKeyPair(keySize));
+    }
 
-        KeyPair keyPair = keyGen.generateKeyPair();
+    private Object[] doGenerateKeyPair(int keySize) throws Exception {
+        // Generator initialised once per thread and curve, the curve is not re-resolved per key pair
+        KeyPair keyPair = CipherPool.ecKeyPairGenerator(EcCurveCache.curveName(keySize), provider).generateKeyPair();
         return new Object[] {keyPair.getPublic(), keyPair.getPrivate()};
     }
 
     @Override
     public byte[] encrypt(byte[] data, Object publicKeyObj) throws Exception {
+        return metrics.time(CryptoMetrics.ENCRYPT, publicKeyObj, data.length, () -> doEncrypt(data, publicKeyObj));
+    }
+
+    private byte[] doEncrypt(byte[] data, Object publicKeyObj) throws Exception {
         PublicKey publicKey = (PublicKey) publicKeyObj;
+        ECPublicKeyParameters recipient = precompute ? EcCurveCache.recipient(publicKey) : null;
+        if (recipient != null) {
+            return encryptPrecomputed(data, recipient);
+        }
 
         // For ECC, we'll use ECIES (Elliptic Curve Integrated Encryption Scheme)
-        Cipher cipher = Cipher.getInstance("ECIES", "BC");
+        Cipher cipher = CipherPool.cipher("ECIES", "BC");
         cipher.init(Cipher.ENCRYPT_MODE, publicKey);
 
         return cipher.doFinal(data);
     }
 
+    /**
+     * The BC {@code ECIES} cipher's encryption ({@code V || C || T}: uncompressed ephemeral point, XOR-KDF2-SHA1
+     * ciphertext, HMAC-SHA1 tag) on the same lightweight engine, but with the ephemeral key drawn against the
+     * shared generator table and the agreement computed with the recipient's comb table, so {@link #decrypt}
+     * and any BC ECIES implementation read the result unchanged.
+     */
+    private byte[] encryptPrecomputed(byte[] data, ECPublicKeyParameters recipient) throws Exception {
+        ECKeyPairGenerator ephemeralGenerator = new ECKeyPairGenerator();
+        ephemeralGenerator.init(new ECKeyGenerationParameters(recipient.getParameters(), secureRandom));
+        IESEngine engine = new IESEngine(new FixedPointAgreement(),
+                new KDF2BytesGenerator(new SHA1Digest()), new HMac(new SHA1Digest()));
+        engine.init(recipient, IES_PARAMETERS, new EphemeralKeyPairGenerator(ephemeralGenerator,
+                key -> ((ECPublicKeyParameters) key).getQ().getEncoded(false)));
+        return engine.processBlock(data, 0, data.length);
+    }
+
+    /**
+     * ECDH ({@code x(d·Q)}, cofactor 1 on the NIST prime curves) with a fixed-point comb multiplication, using
+     * the table {@link EcCurveCache} stored on the recipient's point.
+     */
+    private static final class FixedPointAgreement implements BasicAgreement {
+
+        private ECPrivateKeyParameters privateKey;
+
+        @Override
+        public void init(CipherParameters key) {
+            privateKey = (ECPrivateKeyParameters) key;
+        }
+
+        @Override
+        public int getFieldSize() {
+            return (privateKey.getParameters().getCurve().getFieldSize() + 7) / 8;
+        }
+
+        @Override
+        public BigInteger calculateAgreement(CipherParameters publicKey) {
+            ECPoint q = ((ECPublicKeyParameters) publicKey).getQ();
+            ECPoint shared = new FixedPointCombMultiplier().multiply(q, privateKey.getD()).normalize();
+            if (shared.isInfinity()) {
+                throw new IllegalStateException("Infinity is not a valid agreement value for ECDH");
+            }
+            return shared.getAffineXCoord().toBigInteger();
+        }
+    }
+
     @Override
     public byte[] decrypt(byte[] encryptedData, Object privateKeyObj) throws Exception {
+        return metrics.time(CryptoMetrics.DECRYPT, privateKeyObj, encryptedData.length, () -> doDecrypt(encryptedData, privateKeyObj));
+    }
+
+    private byte[] doDecrypt(byte[] encryptedData, Object privateKeyObj) throws Exception {
         PrivateKey privateKey = (PrivateKey) privateKeyObj;
 
         // For ECC, we'll use ECIES (Elliptic Curve Integrated Encryption Scheme)
-        Cipher cipher = Cipher.getInstance("ECIES", "BC");
+        Cipher cipher = CipherPool.cipher("ECIES", "BC");
         cipher.init(Cipher.DECRYPT_MODE, privateKey);
 
         return cipher.doFinal(encryptedData);
     }
-}
\ No newline at end of file
+
+    @Override
+    public byte[][] encryptBatch(byte[][] items, Object publicKey, Exception[] errors) {
+        return metrics.timeBatch(CryptoMetrics.ENCRYPT_BATCH, publicKey, items, () -> doEncryptBatch(items, publicKey, errors));
+    }
+
+    private byte[][] doEncryptBatch(byte[][] items, Object publicKey, Exception[] errors) {
+        ECPublicKeyParameters recipient = precompute ? EcCurveCache.recipient((PublicKey) publicKey) : null;
+        if (recipient != null) {
+            byte[][] results = new byte[items.length][];
+            for (int i = 0; i < items.length; i++) {
+                if (errors[i] == null) {
+                    try {
+                        results[i] = encryptPrecomputed(items[i], recipient);
+                    } catch (Exception e) {
+                        errors[i] = e;
+                    }
+                }
+            }
+            return results;
+        }
+
+        // The BC ECIES cipher draws a fresh ephemeral key on every doFinal, so one init serves the whole batch
+        try {
+            return CipherPool.doFinalEach(CipherPool.cipher("ECIES", "BC"), Cipher.ENCRYPT_MODE,
+                    (PublicKey) publicKey, items, errors);
+        } catch (GeneralSecurityException e) {
+            CipherPool.failRemaining(errors, e);
+            return new byte[items.length][];
+        }
+    }
+
+    @Override
+    public byte[][] decryptBatch(byte[][] items, Object privateKey, Exception[] errors) {
+        return metrics.timeBatch(CryptoMetrics.DECRYPT_BATCH, privateKey, items, () -> doDecryptBatch(items, privateKey, errors));
+    }
+
+    private byte[][] doDecryptBatch(byte[][] items, Object privateKey, Exception[] errors) {
+        try {
+            return CipherPool.doFinalEach(CipherPool.cipher("ECIES", "BC"), Cipher.DECRYPT_MODE,
+                    (PrivateKey) privateKey, items, errors);
+        } catch (GeneralSecurityException e) {
+            CipherPool.failRemaining(errors, e);
+            return new byte[items.length][];
+        }
+    }
+
+    @Override
+    public String getProvider() {
+        return provider;
+    }
+
+    @Override
+    public String[] getSupportedProviders() {
+        return SUPPORTED_PROVIDERS;
+    }
+
+    @Override
+    public EccCryptoService withProvider(String provider) {
+        CryptoService.checkProvider(this, provider);
+        return new EccCryptoService(provider, precompute);
+    }
+}
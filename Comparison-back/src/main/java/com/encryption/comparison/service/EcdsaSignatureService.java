@@ -0,0 +1,108 @@
+package com.encryption.comparison.service;
+
+import org.springframework.stereotype.Service;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECKey;
+
+/**
+ * ECDSA on P-256, P-384 and P-521, each with the SHA-2 digest of matching strength. Signatures are DER encoded,
+ * so their length varies by a few bytes.
+ */
+@Service
+public class EcdsaSignatureService implements SignatureService {
+
+    private static final int[] SUPPORTED_KEY_SIZES = { 256, 384, 521 };
+    private static final String[] SUPPORTED_PROVIDERS = { "SunEC", "BC" };
+
+    private final String provider; // null = JDK default provider order
+    private final CryptoMetrics metrics = new CryptoMetrics(this);
+
+    public EcdsaSignatureService() {
+        this(null);
+    }
+
+    public EcdsaSignatureService(String provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "ECDSA";
+    }
+
+    @Override
+    public byte[] sign(byte[] data, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.SIGN, privateKey, data.length, () -> doSign(data, privateKey));
+    }
+
+    private byte[] doSign(byte[] data, Object privateKey) throws Exception {
+        Signature signature = CipherPool.signature(signatureAlgorithm(privateKey), provider);
+        signature.initSign((PrivateKey) privateKey);
+        signature.update(data);
+        return signature.sign();
+    }
+
+    @Override
+    public boolean verify(byte[] data, byte[] signatureBytes, Object publicKey) throws Exception {
+        return metrics.time(CryptoMetrics.VERIFY, publicKey, data.length, () -> doVerify(data, signatureBytes, publicKey));
+    }
+
+    private boolean doVerify(byte[] data, byte[] signatureBytes, Object publicKey) throws Exception {
+        Signature signature = CipherPool.signature(signatureAlgorithm(publicKey), provider);
+        signature.initVerify((PublicKey) publicKey);
+        signature.update(data);
+        return signature.verify(signatureBytes);
+    }
+
+    @Override
+    public Object[] generateKeyPair(int keySize) throws Exception {
+        return metrics.timeKeyGeneration(keySize, () -> doGenerateKeyPair(keySize));
+    }
+
+    private Object[] doGenerateKeyPair(int keySize) throws Exception {
+        KeyPair keyPair = CipherPool.ecKeyPairGenerator(curve(keySize), provider).generateKeyPair();
+        return new Object[] { keyPair.getPublic(), keyPair.getPrivate() };
+    }
+
+    private static String curve(int keySize) {
+        switch (keySize) {
+            case 256: return "secp256r1";
+            case 384: return "secp384r1";
+            case 521: return "secp521r1";
+            default: throw new IllegalArgumentException("Unsupported ECDSA key size: " + keySize);
+        }
+    }
+
+    private static String signatureAlgorithm(Object key) {
+        int fieldSize = ((ECKey) key).getParams().getCurve().getField().getFieldSize();
+        if (fieldSize > 384) {
+            return "SHA512withECDSA";
+        }
+        return fieldSize > 256 ? "SHA384withECDSA" : "SHA256withECDSA";
+    }
+
+    @Override
+    public int[] getSupportedKeySizes() {
+        return SUPPORTED_KEY_SIZES;
+    }
+
+    @Override
+    public String getProvider() {
+        return provider != null ? provider : CipherPool.defaultProvider("Signature", "SHA256withECDSA");
+    }
+
+    @Override
+    public String[] getSupportedProviders() {
+        return SUPPORTED_PROVIDERS;
+    }
+
+    @Override
+    public EcdsaSignatureService withProvider(String provider) {
+        SignatureService.checkProvider(this, provider);
+        return new EcdsaSignatureService(provider);
+    }
+}
@@ -0,0 +1,97 @@
+package com.encryption.comparison.service;
+
+import org.springframework.stereotype.Service;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+
+/**
+ * Ed25519 (RFC 8032): fixed 64-byte signatures and no digest or parameter choices; the key size is always 255.
+ */
+@Service
+public class Ed25519SignatureService implements SignatureService {
+
+    private static final String ALGORITHM = "Ed25519";
+    private static final int[] SUPPORTED_KEY_SIZES = { 255 };
+    private static final String[] SUPPORTED_PROVIDERS = { "SunEC", "BC" };
+
+    private final String provider; // null = JDK default provider order
+    private final CryptoMetrics metrics = new CryptoMetrics(this);
+
+    public Ed25519SignatureService() {
+        this(null);
+    }
+
+    public Ed25519SignatureService(String provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "Ed25519";
+    }
+
+    @Override
+    public byte[] sign(byte[] data, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.SIGN, privateKey, data.length, () -> doSign(data, privateKey));
+    }
+
+    private byte[] doSign(byte[] data, Object privateKey) throws Exception {
+        Signature signature = CipherPool.signature(ALGORITHM, provider);
+        signature.initSign((PrivateKey) privateKey);
+        signature.update(data);
+        return signature.sign();
+    }
+
+    @Override
+    public boolean verify(byte[] data, byte[] signatureBytes, Object publicKey) throws Exception {
+        return metrics.time(CryptoMetrics.VERIFY, publicKey, data.length, () -> doVerify(data, signatureBytes, publicKey));
+    }
+
+    private boolean doVerify(byte[] data, byte[] signatureBytes, Object publicKey) throws Exception {
+        Signature signature = CipherPool.signature(ALGORITHM, provider);
+        signature.initVerify((PublicKey) publicKey);
+        signature.update(data);
+        return signature.verify(signatureBytes);
+    }
+
+    @Override
+    public Object[] generateKeyPair(int keySize) throws Exception {
+        if (keySize != 255) {
+            throw new IllegalArgumentException("Unsupported Ed25519 key size: " + keySize);
+        }
+        return metrics.timeKeyGeneration(keySize, () -> doGenerateKeyPair(keySize));
+    }
+
+    private Object[] doGenerateKeyPair(int keySize) throws Exception {
+        KeyPairGenerator keyGen = provider == null
+                ? KeyPairGenerator.getInstance(ALGORITHM)
+                : KeyPairGenerator.getInstance(ALGORITHM, provider);
+        KeyPair keyPair = keyGen.generateKeyPair();
+        return new Object[] { keyPair.getPublic(), keyPair.getPrivate() };
+    }
+
+    @Override
+    public int[] getSupportedKeySizes() {
+        return SUPPORTED_KEY_SIZES;
+    }
+
+    @Override
+    public String getProvider() {
+        return provider != null ? provider : CipherPool.defaultProvider("Signature", ALGORITHM);
+    }
+
+    @Override
+    public String[] getSupportedProviders() {
+        return SUPPORTED_PROVIDERS;
+    }
+
+    @Override
+    public Ed25519SignatureService withProvider(String provider) {
+        SignatureService.checkProvider(this, provider);
+        return new Ed25519SignatureService(provider);
+    }
+}
@@ -0,0 +1,249 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.KeyPoolStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a small stock of pre-generated key pairs per algorithm, provider and key size so that key generation
+ * endpoints do not pay for RSA prime search on the request thread. Pools are refilled in the background
+ * by a dedicated executor; a miss falls back to synchronous generation.
+ * <p>
+ * Only the {@code crypto.keypool.prewarm} entries are pooled, with the provider of the injected service, and
+ * only if {@link CryptoService#getSupportedKeySizes()} lists their size; any other request generates its pair
+ * synchronously, so callers cannot start background generation for sizes nobody configured.
+ * <p>
+ * Background generation would compete for CPU with the benchmarks this application times, so benchmark runs hold
+ * a {@link #pauseRefills()} pause: refills wait until it is closed, while takes keep serving pooled pairs.
+ */
+@Service
+@Slf4j
+public class KeyPairPool {
+
+    private final Map<String, CryptoService> servicesByName = new ConcurrentHashMap<>();
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private static final long PAUSE_DRAIN_MILLIS = 10_000;
+
+    private final int targetDepth;
+    private final ExecutorService refillExecutor;
+    private final Object pauseLock = new Object();
+    private int pauses; // Open pauses, guarded by pauseLock
+    private int generating; // Refills generating a key pair right now, guarded by pauseLock
+
+    public KeyPairPool(List<CryptoService> cryptoServices,
+                       @Value("${crypto.keypool.depth:4}") int targetDepth,
+                       @Value("${crypto.keypool.refill-threads:2}") int refillThreads,
+                       @Value("${crypto.keypool.prewarm:RSA:2048,ECC:256}") List<String> prewarm) {
+        for (CryptoService service : cryptoServices) {
+            servicesByName.put(service.getAlgorithmName(), service);
+        }
+        this.targetDepth = Math.max(1, targetDepth);
+
+        // Refills stay on low-priority platform threads even with virtual threads enabled: key generation is
+        // CPU-bound and would occupy a carrier thread for its whole run, starving virtual request threads
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.refillExecutor = Executors.newFixedThreadPool(Math.max(1, refillThreads), runnable -> {
+            Thread thread = new Thread(runnable, "keypool-refill-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        for (String entry : prewarm) {
+            int separator = entry.lastIndexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            CryptoService service = servicesByName.get(entry.substring(0, separator).trim());
+            int keySize = Integer.parseInt(entry.substring(separator + 1).trim());
+            if (service == null || !isSupported(service, keySize)) {
+                log.warn("Ignoring key pool entry {}: unknown algorithm or unsupported key size", entry);
+                continue;
+            }
+            pools.computeIfAbsent(poolKey(service, keySize), name -> {
+                Pool pool = new Pool(service, keySize, this.targetDepth);
+                refill(pool);
+                return pool;
+            });
+        }
+    }
+
+    /**
+     * Returns a key pair from the pool, generating one synchronously if the pool is empty or if no pool is
+     * configured for this algorithm, provider and key size.
+     */
+    public Object[] take(CryptoService service, int keySize) throws Exception {
+        Pool pool = pools.get(poolKey(service, keySize));
+        if (pool == null) {
+            return service.generateKeyPair(keySize);
+        }
+
+        Object[] keyPair = pool.keys.poll();
+        if (keyPair != null) {
+            pool.hits.incrementAndGet();
+        } else {
+            pool.misses.incrementAndGet();
+            keyPair = service.generateKeyPair(keySize);
+        }
+        refill(pool);
+        return keyPair;
+    }
+
+    public List<KeyPoolStats> getStats() {
+        List<KeyPoolStats> stats = new ArrayList<>();
+        for (Pool pool : pools.values()) {
+            KeyPoolStats poolStats = new KeyPoolStats();
+            poolStats.setAlgorithm(pool.service.getAlgorithmName());
+            poolStats.setProvider(pool.service.getProvider());
+            poolStats.setKeySize(pool.keySize);
+            poolStats.setTargetDepth(targetDepth);
+            poolStats.setAvailable(pool.keys.size());
+            long hits = pool.hits.get();
+            long misses = pool.misses.get();
+            poolStats.setHits(hits);
+            poolStats.setMisses(misses);
+            poolStats.setHitRate(hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+            stats.add(poolStats);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refillExecutor.shutdownNow();
+    }
+
+    /**
+     * Holds back refills until the returned pause is closed, waiting up to {@value #PAUSE_DRAIN_MILLIS} ms for
+     * key pairs that are already being generated. Pauses may overlap; refills resume when the last one closes.
+     */
+    public Pause pauseRefills() {
+        synchronized (pauseLock) {
+            pauses++;
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PAUSE_DRAIN_MILLIS);
+            long remaining;
+            while (generating > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(pauseLock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                synchronized (pauseLock) {
+                    pauses--;
+                    pauseLock.notifyAll();
+                }
+            }
+        };
+    }
+
+    private void startGenerating() throws InterruptedException {
+        synchronized (pauseLock) {
+            while (pauses > 0) {
+                pauseLock.wait();
+            }
+            generating++;
+        }
+    }
+
+    private void stopGenerating() {
+        synchronized (pauseLock) {
+            generating--;
+            pauseLock.notifyAll();
+        }
+    }
+
+    private static String poolKey(CryptoService service, int keySize) {
+        return service.getAlgorithmName() + '|' + service.getProvider() + '|' + keySize;
+    }
+
+    private void refill(Pool pool) {
+        // pending counts refills that are queued or running, so concurrent takes don't overshoot the depth;
+        // the bounded queue drops any pair that still races past it
+        while (!refillExecutor.isShutdown()) {
+            int pending = pool.pending.get();
+            if (pool.keys.size() + pending >= targetDepth) {
+                return;
+            }
+            if (!pool.pending.compareAndSet(pending, pending + 1)) {
+                continue;
+            }
+            try {
+                refillExecutor.execute(() -> {
+                    try {
+                        startGenerating();
+                        try {
+                            pool.keys.offer(pool.service.generateKeyPair(pool.keySize));
+                        } finally {
+                            stopGenerating();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        log.error("Error refilling {} key pool with key size {}: {}",
+                                pool.service.getAlgorithmName(), pool.keySize, e.getMessage());
+                    } finally {
+                        pool.pending.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pool.pending.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private static boolean isSupported(CryptoService service, int keySize) {
+        for (int supported : service.getSupportedKeySizes()) {
+            if (supported == keySize) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A pause of the background refills; closing it does not throw and closing it twice has no effect.
+     */
+    @FunctionalInterface
+    public interface Pause extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Pool {
+        private final CryptoService service;
+        private final int keySize;
+        private final BlockingQueue<Object[]> keys;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        Pool(CryptoService service, int keySize, int depth) {
+            this.service = service;
+            this.keySize = keySize;
+            this.keys = new LinkedBlockingQueue<>(depth);
+        }
+    }
+}
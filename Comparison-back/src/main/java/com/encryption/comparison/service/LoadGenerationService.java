@@ -0,0 +1,349 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.CryptoTestConfig;
+import com.encryption.comparison.model.LatencyStats;
+import com.encryption.comparison.model.LoadTestResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Drives a single {@link CryptoService} operation from N concurrent workers for a fixed duration,
+ * once per configured thread count, to show how throughput and latency scale across cores.
+ * <p>
+ * A load test holds its thread for the sum of its runs, so the REST API queues it on the
+ * {@link ComparisonJobService} executor.
+ */
+@Service
+@Slf4j
+public class LoadGenerationService {
+    static final int MAX_THREADS = 1024;
+    private static final long THREAD_SAMPLE_INTERVAL_MILLIS = 10;
+
+    private final List<CryptoService> cryptoServices;
+    private final int maxDurationSeconds;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    public LoadGenerationService(List<CryptoService> cryptoServices,
+                                 @Value("${crypto.load.max-duration-seconds:60}") int maxDurationSeconds) {
+        this.cryptoServices = cryptoServices;
+        this.maxDurationSeconds = maxDurationSeconds;
+    }
+
+    /**
+     * Validates the load settings of {@code config} and returns the number of runs (thread counts) it has.
+     *
+     * @throws IllegalArgumentException for no thread counts, a thread count outside 1 to {@value #MAX_THREADS} or
+     *                                  a duration above {@code crypto.load.max-duration-seconds}
+     */
+    public int countRuns(CryptoTestConfig config) {
+        if (config.getThreadCounts() == null || config.getThreadCounts().length == 0) {
+            throw new IllegalArgumentException("threadCounts must not be empty");
+        }
+        for (int threads : config.getThreadCounts()) {
+            if (threads < 1 || threads > MAX_THREADS) {
+                throw new IllegalArgumentException("Thread count must be between 1 and " + MAX_THREADS
+                        + ", got: " + threads);
+            }
+        }
+        if (config.getLoadDurationSeconds() > maxDurationSeconds) {
+            throw new IllegalArgumentException("loadDurationSeconds must be at most " + maxDurationSeconds
+                    + ", got: " + config.getLoadDurationSeconds());
+        }
+        return config.getThreadCounts().length;
+    }
+
+    public List<LoadTestResult> runLoadTest(CryptoTestConfig config) {
+        List<LoadTestResult> results = new ArrayList<>();
+        runLoadTest(config, results::add);
+        return results;
+    }
+
+    /**
+     * Runs the load test and hands each thread count's result to {@code listener} as soon as it finishes.
+     * Stops between runs if the calling thread is interrupted.
+     *
+     * @throws IllegalArgumentException if {@code config} is rejected by {@link #countRuns}
+     */
+    public void runLoadTest(CryptoTestConfig config, Consumer<LoadTestResult> listener) {
+        countRuns(config);
+        for (int threads : config.getThreadCounts()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            listener.accept(runAtThreadCount(config, threads));
+        }
+    }
+
+    public CryptoService findService(String algorithm) {
+        for (CryptoService service : cryptoServices) {
+            if (service.getAlgorithmName().equalsIgnoreCase(algorithm)) {
+                return service;
+            }
+        }
+        throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+    }
+
+    private LoadTestResult runAtThreadCount(CryptoTestConfig config, int threads) {
+        LoadTestResult result = new LoadTestResult();
+        result.setAlgorithm(config.getLoadAlgorithm());
+        result.setOperation(config.getLoadOperation());
+        result.setKeySize(config.getLoadKeySize());
+        result.setDataSize(config.getLoadDataSize());
+        result.setThreads(threads);
+        result.setTargetOpsPerSecond(Math.max(0, config.getTargetOpsPerSecond()));
+        result.setVirtualThreads(config.isVirtualThreads());
+        result.setBlockingMillis(Math.max(0, config.getLoadBlockingMillis()));
+
+        try {
+            CryptoService service = findService(config.getLoadAlgorithm());
+            if (config.getLoadProvider() != null && !config.getLoadProvider().isEmpty()) {
+                service = service.withProvider(config.getLoadProvider());
+            }
+            result.setAlgorithm(service.getAlgorithmName());
+            result.setProvider(service.getProvider());
+            Operation operation = prepareOperation(service, config);
+
+            // Warm up on the calling thread so JIT compilation is not part of the measured window
+            for (int i = 0; i < config.getWarmupIterations(); i++) {
+                operation.run();
+            }
+
+            long durationNanos = TimeUnit.SECONDS.toNanos(Math.max(1, config.getLoadDurationSeconds()));
+            // Per-worker interval between intended start times, 0 when unthrottled
+            long intervalNanos = result.getTargetOpsPerSecond() > 0
+                    ? (long) (1_000_000_000.0 * threads / result.getTargetOpsPerSecond())
+                    : 0;
+
+            // The JVM's peak thread count can only be reset JVM-wide, which a concurrent load test would undo,
+            // so the live count is sampled while waiting instead
+            ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            int[] peakThreads = { threadBean.getThreadCount() };
+            WorkerRun<Worker> run = runWorkers(threads, config.isVirtualThreads(), "load-worker-", index -> {
+                Worker worker = new Worker(operation, intervalNanos);
+                worker.run(durationNanos);
+                return worker;
+            }, () -> peakThreads[0] = Math.max(peakThreads[0], threadBean.getThreadCount()));
+
+            List<long[]> perWorkerSamples = new ArrayList<>();
+            long totalOperations = 0;
+            long errors = 0;
+            for (Worker worker : run.results()) {
+                perWorkerSamples.add(worker.samples());
+                totalOperations += worker.count;
+                errors += worker.errors;
+            }
+            long elapsed = run.wallNanos();
+            result.setPeakPlatformThreads(peakThreads[0]);
+
+            result.setDurationMs(elapsed / 1_000_000.0);
+            result.setTotalOperations(totalOperations);
+            result.setErrors(errors);
+            result.setThroughput(totalOperations / (elapsed / 1_000_000_000.0));
+            result.setLatency(LatencyStats.fromNanos(merge(perWorkerSamples)));
+            result.setSuccess(errors == 0);
+            if (errors > 0) {
+                result.setErrorMessage(errors + " operations failed");
+            }
+
+            log.debug("Load test {} ({}) {} with {} {} threads: {} ops/sec", service.getAlgorithmName(),
+                    service.getProvider(), config.getLoadOperation(), threads,
+                    config.isVirtualThreads() ? "virtual" : "platform", result.getThroughput());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setSuccess(false);
+            result.setErrorMessage("Interrupted");
+        } catch (Exception e) {
+            log.error("Error running load test for {} with {} threads: {}",
+                    config.getLoadAlgorithm(), threads, e.getMessage());
+            result.setSuccess(false);
+            result.setErrorMessage(e.getMessage());
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs {@code task} once on each of {@code threads} new worker threads, released together once all of them
+     * have started; the wall time runs from the release until the last worker finishes. {@code whileWaiting}, if
+     * not null, runs on the calling thread right after the release and then every
+     * {@value #THREAD_SAMPLE_INTERVAL_MILLIS} ms until the workers are done. A worker's exception is rethrown.
+     */
+    <T> WorkerRun<T> runWorkers(int threads, boolean virtualThreads, String threadNamePrefix, WorkerTask<T> task,
+                                Runnable whileWaiting) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                WorkerThreads.factory(threadNamePrefix, virtualThreads));
+        try {
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>(threads);
+            for (int w = 0; w < threads; w++) {
+                int worker = w;
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return task.run(worker);
+                }));
+            }
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            if (whileWaiting != null) {
+                whileWaiting.run();
+            }
+
+            List<T> results = new ArrayList<>(threads);
+            for (Future<T> future : futures) {
+                results.add(await(future, whileWaiting));
+            }
+            return new WorkerRun<>(results, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T await(Future<T> future, Runnable whileWaiting) throws Exception {
+        while (true) {
+            try {
+                return whileWaiting == null
+                        ? future.get()
+                        : future.get(THREAD_SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                whileWaiting.run();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+    }
+
+    private Operation prepareOperation(CryptoService service, CryptoTestConfig config) throws Exception {
+        byte[] data = new byte[config.getLoadDataSize()];
+        secureRandom.nextBytes(data);
+        Object[] keyPair = service.generateKeyPair(config.getLoadKeySize());
+
+        Operation operation;
+        switch (config.getLoadOperation().toLowerCase()) {
+            case "encrypt":
+                operation = () -> service.encrypt(data, keyPair[0]);
+                break;
+            case "decrypt":
+                byte[] encrypted = service.encrypt(data, keyPair[0]);
+                operation = () -> service.decrypt(encrypted, keyPair[1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + config.getLoadOperation());
+        }
+
+        long blockingMillis = Math.max(0, config.getLoadBlockingMillis());
+        if (blockingMillis == 0) {
+            return operation;
+        }
+        // A blocking wait per request is where virtual threads differ from a fixed platform pool
+        return () -> {
+            Thread.sleep(blockingMillis);
+            return operation.run();
+        };
+    }
+
+    private static long[] merge(List<long[]> samples) {
+        int total = 0;
+        for (long[] s : samples) {
+            total += s.length;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (long[] s : samples) {
+            System.arraycopy(s, 0, merged, offset, s.length);
+            offset += s.length;
+        }
+        return merged;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run() throws Exception;
+    }
+
+    @FunctionalInterface
+    interface WorkerTask<T> {
+        T run(int worker) throws Exception;
+    }
+
+    record WorkerRun<T>(List<T> results, long wallNanos) {
+    }
+
+    private static final class Worker {
+        private final Operation operation;
+        private final long intervalNanos;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker(Operation operation, long intervalNanos) {
+            this.operation = operation;
+            this.intervalNanos = intervalNanos;
+        }
+
+        void run(long durationNanos) {
+            long start = System.nanoTime();
+            long deadline = start + durationNanos;
+            long intendedStart = start;
+
+            while (true) {
+                long now = System.nanoTime();
+                if (intervalNanos > 0) {
+                    if (intendedStart > now) {
+                        LockSupport.parkNanos(intendedStart - now);
+                    }
+                } else {
+                    intendedStart = now;
+                }
+                if (intendedStart >= deadline || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+
+                try {
+                    operation.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    errors++;
+                }
+                // When throttled, latency is measured from the intended start time so that a stalled
+                // operation also charges the requests queued behind it (no coordinated omission)
+                record(System.nanoTime() - intendedStart);
+                intendedStart += intervalNanos;
+            }
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+
+        long[] samples() {
+            return Arrays.copyOf(latencies, count);
+        }
+    }
+}
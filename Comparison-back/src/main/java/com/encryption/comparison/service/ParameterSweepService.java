@@ -0,0 +1,398 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.LatencyStats;
+import com.encryption.comparison.model.SweepConfig;
+import com.encryption.comparison.model.SweepResult;
+import com.encryption.comparison.model.SweepRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the full cross-product of algorithm, provider, key size, payload size and thread count in one call and
+ * returns one flat row per cell, ready to be plotted or exported as CSV.
+ * <p>
+ * Key pairs are generated once per algorithm/provider/key size and shared by all payload sizes and thread counts
+ * of that group, so RSA-4096 key generation is not repeated per cell. Up to {@code parallelism} cells are
+ * measured at the same time; within a cell, {@code threads} workers start together
+ * ({@link LoadGenerationService#runWorkers}) and each runs the configured iterations, first all encryptions, then
+ * all decryptions.
+ * <p>
+ * Sweeps can run for minutes, so the REST API queues them on the {@link ComparisonJobService} executor.
+ */
+@Service
+@Slf4j
+public class ParameterSweepService {
+
+    private static final int MAX_THREADS_PER_CELL = LoadGenerationService.MAX_THREADS;
+
+    private final List<CryptoService> cryptoServices;
+    private final LoadGenerationService loadGeneration;
+    private final int maxCells;
+    private final int maxDataSize;
+    private final int maxIterations;
+    private final int maxParallelism;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    public ParameterSweepService(List<CryptoService> cryptoServices, LoadGenerationService loadGeneration,
+                                 @Value("${crypto.sweep.max-cells:1000}") int maxCells,
+                                 @Value("${crypto.sweep.max-data-size:1048576}") int maxDataSize,
+                                 @Value("${crypto.sweep.max-iterations:1000}") int maxIterations,
+                                 @Value("${crypto.sweep.max-parallelism:0}") int maxParallelism) {
+        this.cryptoServices = cryptoServices;
+        this.loadGeneration = loadGeneration;
+        this.maxCells = maxCells;
+        this.maxDataSize = maxDataSize;
+        this.maxIterations = maxIterations;
+        // 0 = one cell per CPU
+        this.maxParallelism = maxParallelism > 0 ? maxParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Validates {@code config} and returns the number of rows {@link #runSweep} produces for it.
+     *
+     * @throws IllegalArgumentException for an unknown algorithm, an invalid dimension, a payload above
+     *                                  {@code crypto.sweep.max-data-size}, an iteration count above
+     *                                  {@code crypto.sweep.max-iterations}, a parallelism above
+     *                                  {@code crypto.sweep.max-parallelism} or a sweep larger than
+     *                                  {@code crypto.sweep.max-cells}
+     */
+    public int countCells(SweepConfig config) {
+        validate(config);
+        int cellCount = keyGroups(config).size() * config.getDataSizes().length * config.getThreadCounts().length;
+        if (cellCount > maxCells) {
+            throw new IllegalArgumentException("Sweep has " + cellCount + " cells, the limit is " + maxCells);
+        }
+        return cellCount;
+    }
+
+    public SweepResult runSweep(SweepConfig config) {
+        return runSweep(config, null);
+    }
+
+    /**
+     * Runs every cell of the sweep and returns the rows in algorithm, provider, key size, data size, thread
+     * count order. Cells that fail (e.g. a payload too large for raw RSA) are reported as unsuccessful rows.
+     * {@code onCell}, if not null, runs after each cell, possibly from several threads at once.
+     *
+     * @throws IllegalArgumentException if {@code config} is rejected by {@link #countCells}
+     * @throws IllegalStateException    if the sweep is interrupted
+     */
+    public SweepResult runSweep(SweepConfig config, Runnable onCell) {
+        int cellCount = countCells(config);
+        List<KeyGroup> groups = keyGroups(config);
+
+        byte[][] payloads = new byte[config.getDataSizes().length][];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = new byte[config.getDataSizes()[i]];
+            secureRandom.nextBytes(payloads[i]);
+        }
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(config.getParallelism(),
+                WorkerThreads.factory("sweep-", false));
+        List<SweepRow> rows = new ArrayList<>(cellCount);
+        try {
+            // Key generation tasks are queued first, so a cell never waits for a key task that has not started
+            List<Future<KeyMaterial>> keys = new ArrayList<>();
+            for (KeyGroup group : groups) {
+                keys.add(executor.submit(() -> generateKeys(group, config)));
+            }
+            List<Future<SweepRow>> cells = new ArrayList<>(cellCount);
+            for (int g = 0; g < groups.size(); g++) {
+                KeyGroup group = groups.get(g);
+                Future<KeyMaterial> groupKeys = keys.get(g);
+                for (byte[] payload : payloads) {
+                    for (int threads : config.getThreadCounts()) {
+                        cells.add(executor.submit(() -> {
+                            SweepRow row = measure(group, groupKeys.get(), payload, threads, config);
+                            if (onCell != null) {
+                                onCell.run();
+                            }
+                            return row;
+                        }));
+                    }
+                }
+            }
+            for (Future<SweepRow> cell : cells) {
+                rows.add(cell.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sweep interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sweep cell failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        SweepResult result = new SweepResult();
+        result.setConfig(config);
+        result.setCellCount(rows.size());
+        result.setSuccessCount((int) rows.stream().filter(SweepRow::isSuccess).count());
+        result.setWallTime((System.nanoTime() - start) / 1_000_000.0);
+        result.setRows(rows);
+        return result;
+    }
+
+    /**
+     * The rows as CSV with a header line, one line per cell.
+     */
+    public String toCsv(SweepResult result) {
+        StringBuilder csv = new StringBuilder("algorithm,provider,keySize,dataSize,threads,keyGenerationTime,"
+                + "encryptionTime,encryptionP50,encryptionP99,encryptionThroughput,encryptionMegabytesPerSecond,"
+                + "decryptionTime,decryptionP50,decryptionP99,decryptionThroughput,decryptionMegabytesPerSecond,"
+                + "success,errorMessage\n");
+        for (SweepRow row : result.getRows()) {
+            csv.append(quote(row.getAlgorithm())).append(',')
+                    .append(quote(row.getProvider())).append(',')
+                    .append(row.getKeySize()).append(',')
+                    .append(row.getDataSize()).append(',')
+                    .append(row.getThreads()).append(',')
+                    .append(number(row.getKeyGenerationTime())).append(',')
+                    .append(number(row.getEncryptionTime())).append(',')
+                    .append(number(row.getEncryptionP50())).append(',')
+                    .append(number(row.getEncryptionP99())).append(',')
+                    .append(number(row.getEncryptionThroughput())).append(',')
+                    .append(number(row.getEncryptionMegabytesPerSecond())).append(',')
+                    .append(number(row.getDecryptionTime())).append(',')
+                    .append(number(row.getDecryptionP50())).append(',')
+                    .append(number(row.getDecryptionP99())).append(',')
+                    .append(number(row.getDecryptionThroughput())).append(',')
+                    .append(number(row.getDecryptionMegabytesPerSecond())).append(',')
+                    .append(row.isSuccess()).append(',')
+                    .append(quote(row.getErrorMessage())).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private void validate(SweepConfig config) {
+        if (config.getDataSizes() == null || config.getDataSizes().length == 0) {
+            throw new IllegalArgumentException("dataSizes must not be empty");
+        }
+        if (config.getThreadCounts() == null || config.getThreadCounts().length == 0) {
+            throw new IllegalArgumentException("threadCounts must not be empty");
+        }
+        for (int dataSize : config.getDataSizes()) {
+            if (dataSize < 0 || dataSize > maxDataSize) {
+                throw new IllegalArgumentException("Data size must be between 0 and " + maxDataSize
+                        + " bytes, got: " + dataSize);
+            }
+        }
+        checkIterations("warmupIterations", config.getWarmupIterations());
+        checkIterations("measurementIterations", config.getMeasurementIterations());
+        checkIterations("keyGenerationIterations", config.getKeyGenerationIterations());
+        if (config.getParallelism() < 1 || config.getParallelism() > maxParallelism) {
+            throw new IllegalArgumentException("parallelism must be between 1 and " + maxParallelism
+                    + ", got: " + config.getParallelism());
+        }
+        for (int threads : config.getThreadCounts()) {
+            if (threads < 1 || threads > MAX_THREADS_PER_CELL) {
+                throw new IllegalArgumentException("Thread count must be between 1 and " + MAX_THREADS_PER_CELL
+                        + ", got: " + threads);
+            }
+        }
+    }
+
+    private void checkIterations(String name, int iterations) {
+        if (iterations > maxIterations) {
+            throw new IllegalArgumentException(name + " must be at most " + maxIterations + ", got: " + iterations);
+        }
+    }
+
+    private List<KeyGroup> keyGroups(SweepConfig config) {
+        List<KeyGroup> groups = new ArrayList<>();
+        for (CryptoService algorithm : algorithms(config)) {
+            for (CryptoService service : withProviders(algorithm, config.getProviders())) {
+                for (int keySize : keySizes(service, config.getKeySizes())) {
+                    groups.add(new KeyGroup(service, keySize));
+                }
+            }
+        }
+        return groups;
+    }
+
+    private List<CryptoService> algorithms(SweepConfig config) {
+        String[] names = config.getAlgorithms();
+        if (names == null || names.length == 0) {
+            return cryptoServices;
+        }
+        List<CryptoService> selected = new ArrayList<>();
+        for (String name : names) {
+            selected.add(cryptoServices.stream()
+                    .filter(service -> service.getAlgorithmName().equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown algorithm: " + name)));
+        }
+        return selected;
+    }
+
+    private static List<CryptoService> withProviders(CryptoService service, String[] providers) {
+        if (providers == null || providers.length == 0) {
+            return List.of(service);
+        }
+        List<CryptoService> variants = new ArrayList<>();
+        for (String provider : providers) {
+            if (Arrays.asList(service.getSupportedProviders()).contains(provider)) {
+                variants.add(service.withProvider(provider));
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * The requested key sizes this service supports, in request order, or all of its sizes if none are requested.
+     */
+    private static int[] keySizes(CryptoService service, int[] requested) {
+        int[] supported = service.getSupportedKeySizes();
+        if (requested == null || requested.length == 0) {
+            return supported;
+        }
+        return Arrays.stream(requested)
+                .filter(keySize -> Arrays.stream(supported).anyMatch(s -> s == keySize))
+                .toArray();
+    }
+
+    private KeyMaterial generateKeys(KeyGroup group, SweepConfig config) {
+        try {
+            int iterations = Math.max(1, config.getKeyGenerationIterations());
+            long[] samples = new long[iterations];
+            Object[] keyPair = null;
+            for (int i = 0; i < iterations; i++) {
+                long keyGenStart = System.nanoTime();
+                keyPair = group.service().generateKeyPair(group.keySize());
+                samples[i] = System.nanoTime() - keyGenStart;
+            }
+            return new KeyMaterial(keyPair, LatencyStats.fromNanos(samples).getMean(), null);
+        } catch (Exception e) {
+            log.error("Key generation for {} ({}) with key size {} failed: {}", group.service().getAlgorithmName(),
+                    group.service().getProvider(), group.keySize(), e.getMessage());
+            return new KeyMaterial(null, 0, e.getMessage());
+        }
+    }
+
+    private SweepRow measure(KeyGroup group, KeyMaterial keys, byte[] data, int threads, SweepConfig config) {
+        CryptoService service = group.service();
+        SweepRow row = new SweepRow();
+        row.setAlgorithm(service.getAlgorithmName());
+        row.setProvider(service.getProvider());
+        row.setKeySize(group.keySize());
+        row.setDataSize(data.length);
+        row.setThreads(threads);
+        row.setKeyGenerationTime(keys.keyGenerationTime());
+        if (keys.keyPair() == null) {
+            row.setErrorMessage("Key generation failed: " + keys.error());
+            return row;
+        }
+
+        try {
+            Object publicKey = keys.keyPair()[0];
+            Object privateKey = keys.keyPair()[1];
+            for (int i = 0; i < config.getWarmupIterations(); i++) {
+                service.decrypt(service.encrypt(data, publicKey), privateKey);
+            }
+
+            int iterations = Math.max(1, config.getMeasurementIterations());
+            byte[][] ciphertexts = new byte[threads * iterations][];
+            Phase encryption = runPhase(threads, iterations,
+                    index -> ciphertexts[index] = service.encrypt(data, publicKey));
+            Phase decryption = runPhase(threads, iterations, index -> {
+                if (!Arrays.equals(data, service.decrypt(ciphertexts[index], privateKey))) {
+                    throw new IllegalStateException("Decryption failed - data mismatch");
+                }
+            });
+
+            LatencyStats encryptStats = LatencyStats.fromNanos(encryption.samples());
+            row.setEncryptionTime(encryptStats.getMean());
+            row.setEncryptionP50(encryptStats.getMedian());
+            row.setEncryptionP99(encryptStats.getP99());
+            row.setEncryptionThroughput(encryption.throughput());
+            row.setEncryptionMegabytesPerSecond(encryption.throughput() * data.length / 1_000_000.0);
+
+            LatencyStats decryptStats = LatencyStats.fromNanos(decryption.samples());
+            row.setDecryptionTime(decryptStats.getMean());
+            row.setDecryptionP50(decryptStats.getMedian());
+            row.setDecryptionP99(decryptStats.getP99());
+            row.setDecryptionThroughput(decryption.throughput());
+            row.setDecryptionMegabytesPerSecond(decryption.throughput() * data.length / 1_000_000.0);
+            row.setSuccess(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            row.setErrorMessage("Interrupted");
+        } catch (Exception e) {
+            log.debug("Sweep cell {} ({}) {}-bit {}B x{} failed: {}", service.getAlgorithmName(),
+                    service.getProvider(), group.keySize(), data.length, threads, e.getMessage());
+            row.setErrorMessage(e.getMessage());
+        }
+        return row;
+    }
+
+    /**
+     * Runs {@code iterations} steps on each of {@code threads} workers released together; worker {@code w}
+     * handles indices {@code w * iterations} up to {@code (w + 1) * iterations - 1}.
+     */
+    private Phase runPhase(int threads, int iterations, Step step) throws Exception {
+        long[] samples = new long[threads * iterations];
+        if (threads == 1) {
+            long start = System.nanoTime();
+            runWorker(0, iterations, samples, step);
+            return new Phase(samples, System.nanoTime() - start);
+        }
+
+        LoadGenerationService.WorkerRun<Void> run = loadGeneration.runWorkers(threads, false, "sweep-worker-",
+                worker -> {
+                    runWorker(worker, iterations, samples, step);
+                    return null;
+                }, null);
+        return new Phase(samples, run.wallNanos());
+    }
+
+    private static void runWorker(int worker, int iterations, long[] samples, Step step) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            int index = worker * iterations + i;
+            long start = System.nanoTime();
+            step.run(index);
+            samples[index] = System.nanoTime() - start;
+        }
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run(int index) throws Exception;
+    }
+
+    private record KeyGroup(CryptoService service, int keySize) {
+    }
+
+    private record KeyMaterial(Object[] keyPair, double keyGenerationTime, String error) {
+    }
+
+    private record Phase(long[] samples, long wallNanos) {
+        double throughput() {
+            return wallNanos > 0 ? samples.length / (wallNanos / 1_000_000_000.0) : 0;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.BenchmarkRun;
+import com.encryption.comparison.model.CryptoTestResult;
+import com.encryption.comparison.model.LatencyStats;
+import com.encryption.comparison.model.MetricComparison;
+import com.encryption.comparison.model.RegressionReport;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compares two stored runs case by case and flags latency changes that are both statistically significant and
+ * large enough to matter. Cases are matched on algorithm, provider, data size, key size and RSA key form; each
+ * of the key generation, encryption and decryption (signing and verification for signature cases) latencies is
+ * tested with Welch's t-test (unequal variances), using the sample counts and standard deviations kept in
+ * {@link LatencyStats}.
+ * <p>
+ * A change is only reported when {@code p < alpha} and the means differ by at least {@code minRelativeChange},
+ * so a large sample count alone cannot turn a 0.1% difference into a regression.
+ */
+@Service
+public class RegressionDetectionService {
+
+    public static final double DEFAULT_ALPHA = 0.01;
+    public static final double DEFAULT_MIN_RELATIVE_CHANGE = 0.05;
+
+    public static final String REGRESSION = "REGRESSION";
+    public static final String IMPROVEMENT = "IMPROVEMENT";
+    public static final String NO_CHANGE = "NO_CHANGE";
+
+    private static final Map<String, Function<CryptoTestResult, LatencyStats>> METRICS = new LinkedHashMap<>();
+
+    static {
+        METRICS.put("keyGeneration", CryptoTestResult::getKeyGenerationStats);
+        METRICS.put("encryption", CryptoTestResult::getEncryptionStats);
+        METRICS.put("decryption", CryptoTestResult::getDecryptionStats);
+        METRICS.put("signing", CryptoTestResult::getSigningStats);
+        METRICS.put("verification", CryptoTestResult::getVerificationStats);
+    }
+
+    public RegressionReport compare(BenchmarkRun baseline, BenchmarkRun candidate,
+                                    double alpha, double minRelativeChange) {
+        RegressionReport report = new RegressionReport();
+        report.setBaselineRunId(baseline.getRunId());
+        report.setCandidateRunId(candidate.getRunId());
+        report.setBaselineEnvironment(baseline.getEnvironment());
+        report.setCandidateEnvironment(candidate.getEnvironment());
+        report.setAlpha(alpha);
+        report.setMinRelativeChange(minRelativeChange);
+
+        Map<String, CryptoTestResult> baselineCases = index(baseline.getResults());
+        Map<String, CryptoTestResult> candidateCases = index(candidate.getResults());
+
+        List<MetricComparison> comparisons = new ArrayList<>();
+        List<String> unmatched = new ArrayList<>();
+        for (Map.Entry<String, CryptoTestResult> entry : candidateCases.entrySet()) {
+            CryptoTestResult before = baselineCases.get(entry.getKey());
+            if (before == null) {
+                unmatched.add(entry.getKey());
+                continue;
+            }
+            for (Map.Entry<String, Function<CryptoTestResult, LatencyStats>> metric : METRICS.entrySet()) {
+                MetricComparison comparison = compareMetric(before, entry.getValue(), metric.getKey(),
+                        metric.getValue(), alpha, minRelativeChange);
+                if (comparison != null) {
+                    comparisons.add(comparison);
+                }
+            }
+        }
+        for (String key : baselineCases.keySet()) {
+            if (!candidateCases.containsKey(key)) {
+                unmatched.add(key);
+            }
+        }
+
+        report.setComparisons(comparisons);
+        report.setUnmatched(unmatched);
+        report.setRegressions((int) comparisons.stream().filter(c -> REGRESSION.equals(c.getVerdict())).count());
+        report.setImprovements((int) comparisons.stream().filter(c -> IMPROVEMENT.equals(c.getVerdict())).count());
+        return report;
+    }
+
+    private static MetricComparison compareMetric(CryptoTestResult baseline, CryptoTestResult candidate,
+                                                  String metric, Function<CryptoTestResult, LatencyStats> stats,
+                                                  double alpha, double minRelativeChange) {
+        LatencyStats before = stats.apply(baseline);
+        LatencyStats after = stats.apply(candidate);
+        if (before == null || after == null || before.getSamples() < 2 || after.getSamples() < 2) {
+            return null;
+        }
+
+        MetricComparison comparison = new MetricComparison();
+        comparison.setAlgorithm(candidate.getAlgorithm());
+        comparison.setProvider(candidate.getProvider());
+        comparison.setDataSize(candidate.getDataSize());
+        comparison.setKeySize(candidate.getKeySize());
+        comparison.setMetric(metric);
+        comparison.setBaselineMean(before.getMean());
+        comparison.setCandidateMean(after.getMean());
+        double relativeChange = before.getMean() > 0 ? (after.getMean() - before.getMean()) / before.getMean() : 0;
+        comparison.setRelativeChange(relativeChange);
+
+        double[] test = welchTTest(before, after);
+        comparison.setTestStatistic(test[0]);
+        comparison.setPValue(test[1]);
+
+        String verdict = NO_CHANGE;
+        if (test[1] < alpha && Math.abs(relativeChange) >= minRelativeChange) {
+            verdict = relativeChange > 0 ? REGRESSION : IMPROVEMENT;
+        }
+        comparison.setVerdict(verdict);
+        return comparison;
+    }
+
+    /**
+     * Welch's t-test on two summarised samples; returns {t, two-sided p}. {@link LatencyStats#getStdDev()} is
+     * the population standard deviation, so it is rescaled to the unbiased sample variance first.
+     */
+    static double[] welchTTest(LatencyStats before, LatencyStats after) {
+        int n1 = before.getSamples();
+        int n2 = after.getSamples();
+        double v1 = before.getStdDev() * before.getStdDev() * n1 / (n1 - 1) / n1;
+        double v2 = after.getStdDev() * after.getStdDev() * n2 / (n2 - 1) / n2;
+        double difference = after.getMean() - before.getMean();
+        double standardError = v1 + v2;
+        if (standardError == 0) {
+            // Identical constant samples: no evidence of change unless the means differ
+            return new double[] { difference == 0 ? 0 : Math.copySign(Double.POSITIVE_INFINITY, difference),
+                    difference == 0 ? 1 : 0 };
+        }
+        double t = difference / Math.sqrt(standardError);
+        double degreesOfFreedom = standardError * standardError
+                / (v1 * v1 / (n1 - 1) + v2 * v2 / (n2 - 1));
+        return new double[] { t, twoSidedPValue(t, degreesOfFreedom) };
+    }
+
+    /**
+     * P(|T| >= |t|) for Student's t with {@code df} degrees of freedom, I_{df/(df+t²)}(df/2, 1/2).
+     */
+    static double twoSidedPValue(double t, double df) {
+        return regularizedIncompleteBeta(df / (df + t * t), df / 2, 0.5);
+    }
+
+    // Regularized incomplete beta function I_x(a, b) by Lentz's continued fraction (Numerical Recipes, 6.4)
+    private static double regularizedIncompleteBeta(double x, double a, double b) {
+        if (x <= 0) {
+            return 0;
+        }
+        if (x >= 1) {
+            return 1;
+        }
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b)
+                + a * Math.log(x) + b * Math.log(1 - x));
+        if (x < (a + 1) / (a + b + 2)) {
+            return front * betaContinuedFraction(x, a, b) / a;
+        }
+        return 1 - front * betaContinuedFraction(1 - x, b, a) / b;
+    }
+
+    private static double betaContinuedFraction(double x, double a, double b) {
+        final double tiny = 1e-300;
+        double c = 1;
+        double d = 1 - (a + b) * x / (a + 1);
+        d = 1 / (Math.abs(d) < tiny ? tiny : d);
+        double h = d;
+        for (int m = 1; m <= 300; m++) {
+            int m2 = 2 * m;
+            double numerator = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 / nonZero(1 + numerator * d, tiny);
+            c = nonZero(1 + numerator / c, tiny);
+            h *= d * c;
+
+            numerator = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 / nonZero(1 + numerator * d, tiny);
+            c = nonZero(1 + numerator / c, tiny);
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-12) {
+                break;
+            }
+        }
+        return h;
+    }
+
+    private static double nonZero(double value, double tiny) {
+        return Math.abs(value) < tiny ? tiny : value;
+    }
+
+    // Lanczos approximation (g = 7, n = 9)
+    private static double logGamma(double x) {
+        final double[] coefficients = { 0.99999999999980993, 676.5203681218851, -1259.1392167224028,
+                771.32342877765313, -176.61502916214059, 12.507343278686905, -0.13857109526572012,
+                9.9843695780195716e-6, 1.5056327351493116e-7 };
+        if (x < 0.5) {
+            return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - logGamma(1 - x);
+        }
+        x -= 1;
+        double sum = coefficients[0];
+        for (int i = 1; i < coefficients.length; i++) {
+            sum += coefficients[i] / (x + i);
+        }
+        double t = x + 7.5;
+        return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(sum);
+    }
+
+    // The default form adds nothing, so runs stored before key forms existed still match
+    private static String keyFormSuffix(String rsaKeyForm) {
+        return rsaKeyForm == null || rsaKeyForm.equals(RsaCryptoService.KEY_FORM_CRT) ? "" : " / " + rsaKeyForm;
+    }
+
+    private static Map<String, CryptoTestResult> index(List<CryptoTestResult> results) {
+        Map<String, CryptoTestResult> cases = new LinkedHashMap<>();
+        if (results != null) {
+            for (CryptoTestResult result : results) {
+                if (result.isSuccess()) {
+                    cases.put(result.getAlgorithm() + " / " + result.getProvider() + " / "
+                            + result.getDataSize() + "B / " + result.getKeySize() + "-bit"
+                            + keyFormSuffix(result.getRsaKeyForm()), result);
+                }
+            }
+        }
+        return cases;
+    }
+}
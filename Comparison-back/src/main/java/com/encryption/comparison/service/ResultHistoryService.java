@@ -0,0 +1,195 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.BenchmarkRun;
+import com.encryption.comparison.model.CryptoTestConfig;
+import com.encryption.comparison.model.CryptoTestResult;
+import com.encryption.comparison.model.EnvironmentInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.Provider;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Append-only history of comparison runs, one JSON document per line, each stamped with the environment it ran
+ * in (JDK, JCA provider versions, CPU count, commit) so that runs across JDK or BouncyCastle upgrades can be
+ * compared. The log is only ever appended to; a line that cannot be parsed (e.g. cut short by a crash) is
+ * skipped on read.
+ * <p>
+ * An empty {@code crypto.history.file} disables persistence; runs are then still stamped and returned.
+ */
+@Service
+@Slf4j
+public class ResultHistoryService {
+
+    private final Path file; // null = history disabled
+    private final String commit;
+    private volatile EnvironmentInfo environment; // Captured on first use, once the crypto providers are registered
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Autowired
+    public ResultHistoryService(@Value("${crypto.history.file:data/benchmark-history.jsonl}") String file,
+                                @Value("${crypto.history.commit:}") String commit) {
+        this.file = file == null || file.isBlank() ? null : Paths.get(file);
+        this.commit = commit;
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    public EnvironmentInfo getEnvironment() {
+        EnvironmentInfo captured = environment;
+        if (captured == null) {
+            captured = captureEnvironment(commit);
+            environment = captured;
+        }
+        return captured;
+    }
+
+    /**
+     * Stamps the results with the current environment and appends them to the history.
+     */
+    public BenchmarkRun record(String source, CryptoTestConfig config, List<CryptoTestResult> results) {
+        BenchmarkRun run = new BenchmarkRun();
+        run.setRunId(UUID.randomUUID().toString());
+        run.setTimestamp(System.currentTimeMillis());
+        run.setSource(source);
+        run.setEnvironment(getEnvironment());
+        run.setConfig(config);
+        run.setResultCount(results.size());
+        run.setResults(results);
+
+        if (file != null) {
+            try {
+                byte[] line = (objectMapper.writeValueAsString(run) + "\n").getBytes(StandardCharsets.UTF_8);
+                synchronized (this) {
+                    Path parent = file.toAbsolutePath().getParent();
+                    if (parent != null) {
+                        Files.createDirectories(parent);
+                    }
+                    Files.write(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+            } catch (IOException e) {
+                log.error("Could not append run {} to {}: {}", run.getRunId(), file, e.getMessage());
+            }
+        }
+        return run;
+    }
+
+    /**
+     * All stored runs, oldest first, without their results.
+     */
+    public List<BenchmarkRun> list() {
+        List<BenchmarkRun> runs = read(run -> true);
+        for (BenchmarkRun run : runs) {
+            run.setResults(null);
+        }
+        return runs;
+    }
+
+    /**
+     * The stored run with its results, or {@code null} if there is none with that ID.
+     */
+    public BenchmarkRun get(String runId) {
+        List<BenchmarkRun> runs = read(run -> runId.equals(run.getRunId()));
+        return runs.isEmpty() ? null : runs.get(0);
+    }
+
+    /**
+     * The most recently stored run with its results, or {@code null} if the history is empty.
+     */
+    public BenchmarkRun latest() {
+        List<BenchmarkRun> runs = read(run -> true);
+        return runs.isEmpty() ? null : runs.get(runs.size() - 1);
+    }
+
+    private List<BenchmarkRun> read(Predicate<BenchmarkRun> filter) {
+        List<BenchmarkRun> runs = new ArrayList<>();
+        if (file == null || !Files.exists(file)) {
+            return runs;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    BenchmarkRun run = objectMapper.readValue(line, BenchmarkRun.class);
+                    if (filter.test(run)) {
+                        runs.add(run);
+                    }
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable line {} of {}: {}", lineNumber, file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read benchmark history " + file, e);
+        }
+        return runs;
+    }
+
+    private static EnvironmentInfo captureEnvironment(String commit) {
+        EnvironmentInfo info = new EnvironmentInfo();
+        info.setJavaVersion(System.getProperty("java.version"));
+        info.setJavaVendor(System.getProperty("java.vendor"));
+        info.setVmName(System.getProperty("java.vm.name"));
+        info.setOsName(System.getProperty("os.name"));
+        info.setOsArch(System.getProperty("os.arch"));
+        info.setAvailableProcessors(Runtime.getRuntime().availableProcessors());
+        info.setMaxHeapBytes(Runtime.getRuntime().maxMemory());
+
+        Map<String, String> providers = new LinkedHashMap<>();
+        for (Provider provider : Security.getProviders()) {
+            providers.put(provider.getName(), provider.getVersionStr());
+        }
+        info.setProviders(providers);
+        info.setCommit(commit != null && !commit.isBlank() ? commit : detectCommit());
+        return info;
+    }
+
+    private static String detectCommit() {
+        String fromEnvironment = System.getenv("GIT_COMMIT");
+        if (fromEnvironment != null && !fromEnvironment.isBlank()) {
+            return fromEnvironment;
+        }
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "HEAD").redirectErrorStream(true).start();
+            try (InputStream output = process.getInputStream()) {
+                String revision = new String(output.readAllBytes(), StandardCharsets.UTF_8).trim();
+                if (process.waitFor(2, TimeUnit.SECONDS) && process.exitValue() == 0 && !revision.isEmpty()) {
+                    return revision;
+                }
+            }
+        } catch (IOException e) {
+            // No git on the PATH or not a checkout
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+}
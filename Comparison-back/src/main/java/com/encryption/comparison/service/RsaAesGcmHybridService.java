@@ -0,0 +1,264 @@
+package com.encryption.comparison.service;
+
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * RSA+AES hybrid scheme using authenticated AES-GCM over independently nonce'd segments.
+ * <p>
+ * Envelope format:
+ * <pre>
+ * [4 bytes: wrapped key length][wrapped AES key]
+ * [4 bytes: segment size][8 bytes: plaintext length][8 bytes: nonce prefix]
+ * [segment 0 ciphertext + tag][segment 1 ciphertext + tag]...
+ * </pre>
+ * Segment {@code i} uses nonce {@code prefix || i} and AAD {@code i || isLast}, so segments cannot be
+ * reordered, dropped or truncated without failing authentication. Every segment except the last is exactly
+ * {@code segmentSize} bytes, which makes all offsets computable up front and lets segments be encrypted and
+ * decrypted in parallel on a {@link ForkJoinPool}.
+ */
+@Service
+public class RsaAesGcmHybridService implements CryptoService {
+
+    private static final String RSA_ALGORITHM = "RSA";
+    private static final String AES_ALGORITHM = "AES";
+    private static final String RSA_TRANSFORMATION = "RSA/ECB/PKCS1Padding";
+    private static final String AES_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int AES_KEY_SIZE = 256;
+    private static final int GCM_TAG_BYTES = 16;
+    private static final int GCM_NONCE_BYTES = 12;
+    private static final int NONCE_PREFIX_BYTES = 8;
+    private static final int MAX_WRAPPED_KEY_LENGTH = 1024; // RSA-4096 wraps to 512 bytes
+    private static final int DEFAULT_SEGMENT_SIZE = 256 * 1024;
+    private static final int MIN_SEGMENT_SIZE = 1024;
+    private static final String[] SUPPORTED_PROVIDERS = { "SunJCE", "BC" };
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final int segmentSize;
+    private final ForkJoinPool pool;
+    private final String provider; // null = JDK default provider order
+    private final CryptoMetrics metrics = new CryptoMetrics(this);
+
+    public RsaAesGcmHybridService() {
+        this(DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public RsaAesGcmHybridService(int segmentSize, ForkJoinPool pool) {
+        this(segmentSize, pool, null);
+    }
+
+    public RsaAesGcmHybridService(int segmentSize, ForkJoinPool pool, String provider) {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Segment size must be at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        this.segmentSize = segmentSize;
+        this.pool = pool;
+        this.provider = provider;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "RSA+AES-GCM Hybrid";
+    }
+
+    @Override
+    public int[] getSupportedKeySizes() {
+        return new int[] { 1024, 2048, 3072, 4096 };
+    }
+
+    @Override
+    public Object[] generateKeyPair(int keySize) throws Exception {
+        return metrics.timeKeyGeneration(keySize, () -> doGenerateKeyPair(keySize));
+    }
+
+    private Object[] doGenerateKeyPair(int keySize) throws Exception {
+        String keyGenProvider = CipherPool.providerFor("KeyPairGenerator", RSA_ALGORITHM, provider);
+        KeyPairGenerator keyGen = keyGenProvider == null
+                ? KeyPairGenerator.getInstance(RSA_ALGORITHM)
+                : KeyPairGenerator.getInstance(RSA_ALGORITHM, keyGenProvider);
+        keyGen.initialize(keySize, new SecureRandom());
+        KeyPair keyPair = keyGen.generateKeyPair();
+        return new Object[] { keyPair.getPublic(), keyPair.getPrivate() };
+    }
+
+    @Override
+    public byte[] encrypt(byte[] data, Object publicKey) throws Exception {
+        return metrics.time(CryptoMetrics.ENCRYPT, publicKey, data.length, () -> doEncrypt(data, publicKey));
+    }
+
+    private byte[] doEncrypt(byte[] data, Object publicKey) throws Exception {
+        PublicKey rsaPublicKey = (PublicKey) publicKey;
+
+        // Step 1: Generate a fresh AES key and wrap it with RSA
+        SecretKey aesKey = CipherPool.keyGenerator(AES_ALGORITHM, AES_KEY_SIZE, provider).generateKey();
+        Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
+        rsaCipher.init(Cipher.ENCRYPT_MODE, rsaPublicKey);
+        byte[] encryptedAesKey = rsaCipher.doFinal(aesKey.getEncoded());
+
+        byte[] noncePrefix = new byte[NONCE_PREFIX_BYTES];
+        secureRandom.nextBytes(noncePrefix);
+
+        // Step 2: Write the header into a single output buffer sized for every segment
+        int segments = segmentCount(data.length, segmentSize);
+        int headerLength = 4 + encryptedAesKey.length + 4 + 8 + NONCE_PREFIX_BYTES;
+        long totalLength = (long) headerLength + data.length + (long) segments * GCM_TAG_BYTES;
+        if (totalLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Payload too large for a single envelope: " + data.length + " bytes");
+        }
+        byte[] output = new byte[(int) totalLength];
+        ByteBuffer header = ByteBuffer.wrap(output);
+        header.putInt(encryptedAesKey.length);
+        header.put(encryptedAesKey);
+        header.putInt(segmentSize);
+        header.putLong(data.length);
+        header.put(noncePrefix);
+
+        // Step 3: Encrypt each segment directly into its slot of the output buffer
+        forEachSegment(segments, i -> {
+            int plainOffset = i * segmentSize;
+            int plainLength = Math.min(segmentSize, data.length - plainOffset);
+            int cipherOffset = headerLength + i * (segmentSize + GCM_TAG_BYTES);
+
+            Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, provider);
+            aesCipher.init(Cipher.ENCRYPT_MODE, aesKey, nonce(noncePrefix, i));
+            aesCipher.updateAAD(aad(i, i == segments - 1));
+            aesCipher.doFinal(data, plainOffset, plainLength, output, cipherOffset);
+        });
+
+        return output;
+    }
+
+    @Override
+    public byte[] decrypt(byte[] encryptedData, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.DECRYPT, privateKey, encryptedData.length, () -> doDecrypt(encryptedData, privateKey));
+    }
+
+    private byte[] doDecrypt(byte[] encryptedData, Object privateKey) throws Exception {
+        PrivateKey rsaPrivateKey = (PrivateKey) privateKey;
+
+        // Step 1: Parse and validate the header
+        ByteBuffer header = ByteBuffer.wrap(encryptedData);
+        int keyLength = header.getInt();
+        if (keyLength <= 0 || keyLength > MAX_WRAPPED_KEY_LENGTH || keyLength > header.remaining()) {
+            throw new IllegalArgumentException("Invalid wrapped key length: " + keyLength);
+        }
+        byte[] encryptedAesKey = new byte[keyLength];
+        header.get(encryptedAesKey);
+        int envelopeSegmentSize = header.getInt();
+        long plaintextLength = header.getLong();
+        byte[] noncePrefix = new byte[NONCE_PREFIX_BYTES];
+        header.get(noncePrefix);
+        int headerLength = header.position();
+
+        if (envelopeSegmentSize < MIN_SEGMENT_SIZE || plaintextLength < 0 || plaintextLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment header");
+        }
+        int dataLength = (int) plaintextLength;
+        int segments = segmentCount(dataLength, envelopeSegmentSize);
+        if (encryptedData.length - headerLength != (long) dataLength + (long) segments * GCM_TAG_BYTES) {
+            throw new IllegalArgumentException("Envelope length does not match its header");
+        }
+
+        // Step 2: Unwrap the AES key
+        Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
+        rsaCipher.init(Cipher.DECRYPT_MODE, rsaPrivateKey);
+        SecretKey aesKey = new SecretKeySpec(rsaCipher.doFinal(encryptedAesKey), AES_ALGORITHM);
+
+        // Step 3: Decrypt and authenticate each segment into its slot of the output buffer
+        byte[] output = new byte[dataLength];
+        forEachSegment(segments, i -> {
+            int plainOffset = i * envelopeSegmentSize;
+            int plainLength = Math.min(envelopeSegmentSize, dataLength - plainOffset);
+            int cipherOffset = headerLength + i * (envelopeSegmentSize + GCM_TAG_BYTES);
+
+            Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, provider);
+            aesCipher.init(Cipher.DECRYPT_MODE, aesKey, nonce(noncePrefix, i));
+            aesCipher.updateAAD(aad(i, i == segments - 1));
+            aesCipher.doFinal(encryptedData, cipherOffset, plainLength + GCM_TAG_BYTES, output, plainOffset);
+        });
+
+        return output;
+    }
+
+    @Override
+    public String getProvider() {
+        return provider != null ? provider : CipherPool.defaultProvider("Cipher", AES_ALGORITHM);
+    }
+
+    @Override
+    public String[] getSupportedProviders() {
+        return SUPPORTED_PROVIDERS;
+    }
+
+    @Override
+    public RsaAesGcmHybridService withProvider(String provider) {
+        CryptoService.checkProvider(this, provider);
+        return new RsaAesGcmHybridService(segmentSize, pool, provider);
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    private void forEachSegment(int segments, SegmentTask task) throws Exception {
+        if (segments == 1) {
+            task.run(0);
+            return;
+        }
+        try {
+            pool.submit(() -> IntStream.range(0, segments).parallel().forEach(i -> {
+                try {
+                    task.run(i);
+                } catch (Exception e) {
+                    throw new SegmentException(e);
+                }
+            })).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SegmentException) {
+                throw (Exception) cause.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static int segmentCount(int dataLength, int segmentSize) {
+        // An empty payload still gets one (empty) authenticated segment
+        return Math.max(1, (dataLength + segmentSize - 1) / segmentSize);
+    }
+
+    private static GCMParameterSpec nonce(byte[] prefix, int segment) {
+        byte[] nonce = new byte[GCM_NONCE_BYTES];
+        System.arraycopy(prefix, 0, nonce, 0, NONCE_PREFIX_BYTES);
+        ByteBuffer.wrap(nonce, NONCE_PREFIX_BYTES, 4).putInt(segment);
+        return new GCMParameterSpec(GCM_TAG_BYTES * 8, nonce);
+    }
+
+    private static byte[] aad(int segment, boolean last) {
+        return ByteBuffer.allocate(5).putInt(segment).put((byte) (last ? 1 : 0)).array();
+    }
+
+    @FunctionalInterface
+    private interface SegmentTask {
+        void run(int segment) throws Exception;
+    }
+
+    private static final class SegmentException extends RuntimeException {
+        SegmentException(Exception cause) {
+            super(cause);
+        }
+    }
+}
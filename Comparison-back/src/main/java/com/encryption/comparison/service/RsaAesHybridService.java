@@ -3,15 +3,24 @@ package com.encryption.comparison.service;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
-import javax.crypto.KeyGenerator;
+import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.SecureRandom;
+import java.security.interfaces.RSAKey;
+import java.util.Arrays;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
 
 @Service
 public class RsaAesHybridService implements CryptoService {
@@ -20,11 +29,40 @@ public class RsaAesHybridService implements CryptoService {
     private static final String AES_ALGORITHM = "AES";
     private static final String RSA_TRANSFORMATION = "RSA/ECB/PKCS1Padding";
     private static final String AES_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String AES_BODY_TRANSFORMATION = "AES/ECB/NoPadding"; // Whole blocks before the padded one
     private static final int AES_KEY_SIZE = 256;
+    private static final int AES_BLOCK_SIZE = 16;
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_WRAPPED_KEY_LENGTH = 1024; // RSA-4096 wraps to 512 bytes
+    private static final String[] SUPPORTED_PROVIDERS = { "SunJCE", "BC" };
+
+    // In/out chunk array pairs for direct buffers not in use right now, see cryptBlocks. Shared rather than per
+    // thread, so short-lived (virtual) threads do not each allocate a pair; a staging pass never blocks, so about
+    // one pair per CPU is in use at a time, and pairs returned to a full pool are dropped
+    private static final BlockingDeque<byte[][]> STAGING =
+            new LinkedBlockingDeque<>(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    private final String provider; // null = JDK default provider order
+    private final CryptoMetrics metrics = new CryptoMetrics(this);
+
+    public RsaAesHybridService() {
+        this(null);
+    }
+
+    public RsaAesHybridService(String provider) {
+        this.provider = provider;
+    }
 
     @Override
     public Object[] generateKeyPair(int keySize) throws Exception {
-        KeyPairGenerator keyGen = KeyPairGenerator.getInstance(RSA_ALGORITHM);
+        return metrics.timeKeyGeneration(keySize, () -> doGenerateKeyPair(keySize));
+    }
+
+    private Object[] doGenerateKeyPair(int keySize) throws Exception {
+        String keyGenProvider = CipherPool.providerFor("KeyPairGenerator", RSA_ALGORITHM, provider);
+        KeyPairGenerator keyGen = keyGenProvider == null
+                ? KeyPairGenerator.getInstance(RSA_ALGORITHM)
+                : KeyPairGenerator.getInstance(RSA_ALGORITHM, keyGenProvider);
         keyGen.initialize(keySize, new SecureRandom());
         KeyPair keyPair = keyGen.generateKeyPair();
         return new Object[] { keyPair.getPublic(), keyPair.getPrivate() };
@@ -37,63 +75,410 @@ public class RsaAesHybridService implements CryptoService {
 
     @Override
     public byte[] encrypt(byte[] data, Object publicKey) throws Exception {
-        PublicKey rsaPublicKey = (PublicKey) publicKey;
+        return metrics.time(CryptoMetrics.ENCRYPT, publicKey, data.length, () -> doEncrypt(data, publicKey));
+    }
+
+    private byte[] doEncrypt(byte[] data, Object publicKey) throws Exception {
+        Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
+        rsaCipher.init(Cipher.ENCRYPT_MODE, (PublicKey) publicKey);
+        return seal(data, rsaCipher);
+    }
+
+    @Override
+    public byte[] decrypt(byte[] encryptedData, Object privateKey) throws Exception {
+        return decrypt(encryptedData, 0, encryptedData.length, privateKey);
+    }
+
+    /**
+     * Decrypts the envelope at {@code encryptedData[offset, offset + length)} in place, for callers that wrap it
+     * in a header of their own ({@link RsaPayloadDispatcher}).
+     */
+    byte[] decrypt(byte[] encryptedData, int offset, int length, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.DECRYPT, privateKey, length,
+                () -> doDecrypt(encryptedData, offset, length, privateKey));
+    }
+
+    private byte[] doDecrypt(byte[] encryptedData, int offset, int length, Object privateKey) throws Exception {
+        Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
+        rsaCipher.init(Cipher.DECRYPT_MODE, (PrivateKey) privateKey);
+        return open(encryptedData, offset, length, rsaCipher);
+    }
+
+    /**
+     * Initialises the RSA key-wrapping cipher once for the whole batch; each item still gets its own AES key.
+     */
+    @Override
+    public byte[][] encryptBatch(byte[][] items, Object publicKey, Exception[] errors) {
+        return metrics.timeBatch(CryptoMetrics.ENCRYPT_BATCH, publicKey, items, () -> doEncryptBatch(items, publicKey, errors));
+    }
+
+    private byte[][] doEncryptBatch(byte[][] items, Object publicKey, Exception[] errors) {
+        byte[][] results = new byte[items.length][];
+        try {
+            Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
+            rsaCipher.init(Cipher.ENCRYPT_MODE, (PublicKey) publicKey);
+            for (int i = 0; i < items.length; i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                try {
+                    results[i] = seal(items[i], rsaCipher);
+                } catch (Exception e) {
+                    errors[i] = e;
+                    rsaCipher.init(Cipher.ENCRYPT_MODE, (PublicKey) publicKey);
+                }
+            }
+        } catch (Exception e) {
+            CipherPool.failRemaining(errors, e);
+        }
+        return results;
+    }
+
+    @Override
+    public byte[][] decryptBatch(byte[][] items, Object privateKey, Exception[] errors) {
+        return metrics.timeBatch(CryptoMetrics.DECRYPT_BATCH, privateKey, items, () -> doDecryptBatch(items, privateKey, errors));
+    }
 
+    private byte[][] doDecryptBatch(byte[][] items, Object privateKey, Exception[] errors) {
+        byte[][] results = new byte[items.length][];
+        try {
+            Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
+            rsaCipher.init(Cipher.DECRYPT_MODE, (PrivateKey) privateKey);
+            for (int i = 0; i < items.length; i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                try {
+                    results[i] = open(items[i], rsaCipher);
+                } catch (Exception e) {
+                    errors[i] = e;
+                    rsaCipher.init(Cipher.DECRYPT_MODE, (PrivateKey) privateKey);
+                }
+            }
+        } catch (Exception e) {
+            CipherPool.failRemaining(errors, e);
+        }
+        return results;
+    }
+
+    private byte[] seal(byte[] data, Cipher rsaCipher) throws Exception {
         // Step 1: Generate random AES key
-        KeyGenerator aesKeyGen = KeyGenerator.getInstance(AES_ALGORITHM);
-        aesKeyGen.init(AES_KEY_SIZE);
-        SecretKey aesKey = aesKeyGen.generateKey();
+        SecretKey aesKey = CipherPool.keyGenerator(AES_ALGORITHM, AES_KEY_SIZE, provider).generateKey();
+
+        // Step 2: One array for the whole envelope, both ciphers write straight into it
+        // Format: [4 bytes: key length][encrypted AES key][encrypted data]
+        byte[] envelope = new byte[4 + rsaCipher.getOutputSize(AES_KEY_SIZE / 8) + paddedLength(data.length)];
+        ByteBuffer out = ByteBuffer.wrap(envelope);
+
+        // Step 3: Encrypt AES key with RSA (cipher initialised by the caller)
+        out.position(4);
+        int keyLength = rsaCipher.doFinal(ByteBuffer.wrap(aesKey.getEncoded()), out);
+        out.putInt(0, keyLength);
+
+        // Step 4: Encrypt data with AES
+        aesEncrypt(aesKey, ByteBuffer.wrap(data), out);
+        return out.position() == envelope.length ? envelope : Arrays.copyOf(envelope, out.position());
+    }
+
+    private byte[] open(byte[] encryptedData, Cipher rsaCipher) throws Exception {
+        return open(encryptedData, 0, encryptedData.length, rsaCipher);
+    }
+
+    private byte[] open(byte[] encryptedData, int offset, int length, Cipher rsaCipher) throws Exception {
+        // Step 1: Locate the encrypted AES key and encrypted data in place
+        if (length < 4) {
+            throw new IllegalArgumentException("Envelope too short: " + length + " bytes");
+        }
+        int keyLength = ByteBuffer.wrap(encryptedData, offset, length).getInt();
+        if (keyLength <= 0 || keyLength > MAX_WRAPPED_KEY_LENGTH || keyLength > length - 4) {
+            throw new IllegalArgumentException("Invalid wrapped key length: " + keyLength);
+        }
+        int contentOffset = offset + 4 + keyLength;
+        int contentLength = length - 4 - keyLength;
+        if (contentLength == 0 || contentLength % AES_BLOCK_SIZE != 0) {
+            throw new IllegalBlockSizeException("Encrypted data must be a non-empty multiple of "
+                    + AES_BLOCK_SIZE + " bytes, got: " + contentLength + " bytes");
+        }
+
+        // Step 2: Decrypt AES key with RSA (cipher initialised by the caller)
+        byte[] aesKeyBytes = rsaCipher.doFinal(encryptedData, offset + 4, keyLength);
+        SecretKey aesKey = new SecretKeySpec(aesKeyBytes, AES_ALGORITHM);
+
+        // Step 3: Decrypt data with AES. The padded last block is decrypted first to learn the plaintext length,
+        // the whole blocks before it then go straight into an exactly sized result (see aesEncrypt)
+        int bodyLength = contentLength - AES_BLOCK_SIZE;
+        Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, provider);
+        aesCipher.init(Cipher.DECRYPT_MODE, aesKey);
+        byte[] tail = aesCipher.doFinal(encryptedData, contentOffset + bodyLength, AES_BLOCK_SIZE);
+
+        byte[] decryptedData = new byte[bodyLength + tail.length];
+        if (bodyLength > 0) {
+            Cipher bodyCipher = CipherPool.cipher(AES_BODY_TRANSFORMATION, provider);
+            bodyCipher.init(Cipher.DECRYPT_MODE, aesKey);
+            bodyCipher.doFinal(encryptedData, contentOffset, bodyLength, decryptedData, 0);
+        }
+        System.arraycopy(tail, 0, decryptedData, bodyLength, tail.length);
+        return decryptedData;
+    }
+
+    /**
+     * Size of the envelope {@link #encrypt(ByteBuffer, ByteBuffer, Object)} writes for {@code dataLength} bytes.
+     */
+    public static int encryptedSize(int dataLength, Object publicKey) {
+        int modulusBytes = (((RSAKey) publicKey).getModulus().bitLength() + 7) / 8;
+        return 4 + modulusBytes + paddedLength(dataLength);
+    }
 
-        // Step 2: Encrypt data with AES
-        Cipher aesCipher = Cipher.getInstance(AES_TRANSFORMATION);
+    private static int paddedLength(int dataLength) {
+        return (dataLength / AES_BLOCK_SIZE + 1) * AES_BLOCK_SIZE;
+    }
+
+    /*
+     * PKCS#5 padding makes providers copy the whole input (to append the padding) or the whole output (to strip
+     * it) into a scratch array. ECB blocks are independent, so the whole blocks go through the NoPadding cipher
+     * straight from buffer to buffer and only the last block through the padding one; the ciphertext is the same.
+     */
+    private void aesEncrypt(SecretKey aesKey, ByteBuffer data, ByteBuffer out) throws Exception {
+        int bodyLength = data.remaining() - data.remaining() % AES_BLOCK_SIZE;
+        if (bodyLength > 0) {
+            Cipher bodyCipher = CipherPool.cipher(AES_BODY_TRANSFORMATION, provider);
+            bodyCipher.init(Cipher.ENCRYPT_MODE, aesKey);
+            cryptBlocks(bodyCipher, data, bodyLength, out);
+        }
+        Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, provider);
         aesCipher.init(Cipher.ENCRYPT_MODE, aesKey);
-        byte[] encryptedData = aesCipher.doFinal(data);
+        aesCipher.doFinal(data, out);
+    }
+
+    // Providers stage a direct buffer through an array as large as the whole output; two reused chunks instead
+    private static void cryptBlocks(Cipher blockCipher, ByteBuffer in, int length, ByteBuffer out) throws Exception {
+        if (in.hasArray() && out.hasArray()) {
+            blockCipher.doFinal(in.slice(in.position(), length), out);
+            in.position(in.position() + length);
+            return;
+        }
+        byte[][] staging = STAGING.pollFirst();
+        if (staging == null) {
+            staging = new byte[][] { new byte[STREAM_CHUNK_SIZE], new byte[STREAM_CHUNK_SIZE] };
+        }
+        try {
+            for (int remaining = length; remaining > 0; ) {
+                int chunk = Math.min(STREAM_CHUNK_SIZE, remaining);
+                in.get(staging[0], 0, chunk);
+                out.put(staging[1], 0, blockCipher.update(staging[0], 0, chunk, staging[1], 0));
+                remaining -= chunk;
+            }
+            blockCipher.doFinal(staging[1], 0); // Whole blocks only, nothing left to flush
+        } finally {
+            STAGING.offerFirst(staging);
+        }
+    }
+
+    private int aesDecrypt(SecretKey aesKey, ByteBuffer content, ByteBuffer out) throws Exception {
+        int contentLength = content.remaining();
+        if (contentLength == 0 || contentLength % AES_BLOCK_SIZE != 0) {
+            throw new IllegalBlockSizeException("Encrypted data must be a non-empty multiple of "
+                    + AES_BLOCK_SIZE + " bytes, got: " + contentLength + " bytes");
+        }
+        int start = out.position();
+        int bodyLength = contentLength - AES_BLOCK_SIZE;
+        if (bodyLength > 0) {
+            Cipher bodyCipher = CipherPool.cipher(AES_BODY_TRANSFORMATION, provider);
+            bodyCipher.init(Cipher.DECRYPT_MODE, aesKey);
+            cryptBlocks(bodyCipher, content, bodyLength, out);
+        }
+        Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, provider);
+        aesCipher.init(Cipher.DECRYPT_MODE, aesKey);
+        aesCipher.doFinal(content, out);
+        return out.position() - start;
+    }
+
+    /**
+     * Buffer variant of {@link #encrypt(byte[], Object)}: encrypts the remaining bytes of {@code data} into
+     * {@code out} as the same envelope, with {@code Cipher.doFinal(ByteBuffer, ByteBuffer)} from one buffer
+     * straight into the other. Nothing proportional to the payload is allocated, for heap or direct buffers
+     * (providers stage direct buffers through small fixed-size arrays). Both positions advance; on failure they
+     * are restored.
+     *
+     * @return bytes written to {@code out}
+     * @throws ShortBufferException if {@code out} has fewer than {@link #encryptedSize} bytes remaining
+     */
+    public int encrypt(ByteBuffer data, ByteBuffer out, Object publicKey) throws Exception {
+        return metrics.time(CryptoMetrics.ENCRYPT, publicKey, data.remaining(), () -> doEncrypt(data, out, publicKey));
+    }
+
+    private int doEncrypt(ByteBuffer data, ByteBuffer out, Object publicKey) throws Exception {
+        int required = encryptedSize(data.remaining(), publicKey);
+        if (out.remaining() < required) {
+            throw new ShortBufferException("Output buffer needs " + required + " bytes, has " + out.remaining());
+        }
+        int dataStart = data.position();
+        int outStart = out.position();
+        try {
+            SecretKey aesKey = CipherPool.keyGenerator(AES_ALGORITHM, AES_KEY_SIZE, provider).generateKey();
+            Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
+            rsaCipher.init(Cipher.ENCRYPT_MODE, (PublicKey) publicKey);
+            out.position(outStart + 4);
+            int keyLength = rsaCipher.doFinal(ByteBuffer.wrap(aesKey.getEncoded()), out);
+            out.putInt(outStart, keyLength);
+
+            aesEncrypt(aesKey, data, out);
+            return out.position() - outStart;
+        } catch (Exception e) {
+            data.position(dataStart);
+            out.position(outStart);
+            throw e;
+        }
+    }
+
+    /**
+     * Buffer variant of {@link #decrypt(byte[], Object)}: reads the envelope from the remaining bytes of
+     * {@code envelope} and decrypts into {@code out}. The wrapped key and the encrypted data are read through
+     * slices rather than copied. Both positions advance; on failure they are restored.
+     *
+     * @return bytes written to {@code out}
+     * @throws ShortBufferException if {@code out} has less room than the encrypted data (the plaintext is up to
+     *                              one AES block shorter)
+     */
+    public int decrypt(ByteBuffer envelope, ByteBuffer out, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.DECRYPT, privateKey, envelope.remaining(),
+                () -> doDecrypt(envelope, out, privateKey));
+    }
+
+    private int doDecrypt(ByteBuffer envelope, ByteBuffer out, Object privateKey) throws Exception {
+        int envelopeStart = envelope.position();
+        int outStart = out.position();
+        try {
+            int keyLength = envelope.getInt();
+            if (keyLength <= 0 || keyLength > MAX_WRAPPED_KEY_LENGTH || keyLength > envelope.remaining()) {
+                throw new IllegalArgumentException("Invalid wrapped key length: " + keyLength);
+            }
+            Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
+            rsaCipher.init(Cipher.DECRYPT_MODE, (PrivateKey) privateKey);
+            byte[] aesKeyBytes = new byte[rsaCipher.getOutputSize(keyLength)];
+            int aesKeyLength = rsaCipher.doFinal(envelope.slice(envelope.position(), keyLength),
+                    ByteBuffer.wrap(aesKeyBytes));
+            envelope.position(envelope.position() + keyLength);
+            if (out.remaining() < envelope.remaining()) {
+                throw new ShortBufferException("Output buffer needs " + envelope.remaining() + " bytes, has "
+                        + out.remaining());
+            }
+            return aesDecrypt(new SecretKeySpec(aesKeyBytes, 0, aesKeyLength, AES_ALGORITHM), envelope, out);
+        } catch (Exception e) {
+            envelope.position(envelopeStart);
+            out.position(outStart);
+            throw e;
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #encrypt(byte[], Object)}: writes the {@code [key length][wrapped key]} header,
+     * then encrypts {@code in} in fixed-size chunks. Heap use is independent of the payload size and the output
+     * is byte-for-byte compatible with the array-based envelope. Neither stream is closed.
+     */
+    public void encrypt(InputStream in, OutputStream out, Object publicKey) throws Exception {
+        long start = System.nanoTime();
+        long[] processed = new long[1];
+        boolean success = false;
+        try (CipherPool.Lease lease = CipherPool.lease()) {
+            encryptStream(in, out, publicKey, processed);
+            success = true;
+        } finally {
+            metrics.record(CryptoMetrics.ENCRYPT_STREAM, publicKey, processed[0], start, success);
+        }
+    }
 
-        // Step 3: Encrypt AES key with RSA
-        Cipher rsaCipher = Cipher.getInstance(RSA_TRANSFORMATION);
+    private void encryptStream(InputStream in, OutputStream out, Object publicKey, long[] processed)
+            throws Exception {
+        PublicKey rsaPublicKey = (PublicKey) publicKey;
+        SecretKey aesKey = CipherPool.keyGenerator(AES_ALGORITHM, AES_KEY_SIZE, provider).generateKey();
+
+        Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
         rsaCipher.init(Cipher.ENCRYPT_MODE, rsaPublicKey);
         byte[] encryptedAesKey = rsaCipher.doFinal(aesKey.getEncoded());
 
-        // Step 4: Combine encrypted AES key + encrypted data
-        // Format: [4 bytes: key length][encrypted AES key][encrypted data]
-        ByteBuffer buffer = ByteBuffer.allocate(4 + encryptedAesKey.length + encryptedData.length);
-        buffer.putInt(encryptedAesKey.length);
-        buffer.put(encryptedAesKey);
-        buffer.put(encryptedData);
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(encryptedAesKey.length);
+        header.write(encryptedAesKey);
 
-        return buffer.array();
+        Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, provider);
+        aesCipher.init(Cipher.ENCRYPT_MODE, aesKey);
+        transform(aesCipher, in, out, processed);
     }
 
-    @Override
-    public byte[] decrypt(byte[] encryptedData, Object privateKey) throws Exception {
-        PrivateKey rsaPrivateKey = (PrivateKey) privateKey;
+    /**
+     * Streaming variant of {@link #decrypt(byte[], Object)}, accepting envelopes from either encrypt method.
+     * Neither stream is closed.
+     */
+    public void decrypt(InputStream in, OutputStream out, Object privateKey) throws Exception {
+        long start = System.nanoTime();
+        long[] processed = new long[1];
+        boolean success = false;
+        try (CipherPool.Lease lease = CipherPool.lease()) {
+            decryptStream(in, out, privateKey, processed);
+            success = true;
+        } finally {
+            metrics.record(CryptoMetrics.DECRYPT_STREAM, privateKey, processed[0], start, success);
+        }
+    }
 
-        // Step 1: Extract encrypted AES key and encrypted data
-        ByteBuffer buffer = ByteBuffer.wrap(encryptedData);
-        int keyLength = buffer.getInt();
+    private void decryptStream(InputStream in, OutputStream out, Object privateKey, long[] processed)
+            throws Exception {
+        PrivateKey rsaPrivateKey = (PrivateKey) privateKey;
 
+        DataInputStream header = new DataInputStream(in);
+        int keyLength = header.readInt();
+        if (keyLength <= 0 || keyLength > MAX_WRAPPED_KEY_LENGTH) {
+            throw new IllegalArgumentException("Invalid wrapped key length: " + keyLength);
+        }
         byte[] encryptedAesKey = new byte[keyLength];
-        buffer.get(encryptedAesKey);
+        header.readFully(encryptedAesKey);
 
-        byte[] encryptedContent = new byte[buffer.remaining()];
-        buffer.get(encryptedContent);
-
-        // Step 2: Decrypt AES key with RSA
-        Cipher rsaCipher = Cipher.getInstance(RSA_TRANSFORMATION);
+        Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, provider);
         rsaCipher.init(Cipher.DECRYPT_MODE, rsaPrivateKey);
-        byte[] aesKeyBytes = rsaCipher.doFinal(encryptedAesKey);
-        SecretKey aesKey = new SecretKeySpec(aesKeyBytes, AES_ALGORITHM);
+        SecretKey aesKey = new SecretKeySpec(rsaCipher.doFinal(encryptedAesKey), AES_ALGORITHM);
 
-        // Step 3: Decrypt data with AES
-        Cipher aesCipher = Cipher.getInstance(AES_TRANSFORMATION);
+        Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, provider);
         aesCipher.init(Cipher.DECRYPT_MODE, aesKey);
-        byte[] decryptedData = aesCipher.doFinal(encryptedContent);
+        transform(aesCipher, in, out, processed);
+    }
 
-        return decryptedData;
+    /**
+     * Adds the number of input bytes to {@code processed[0]} as it goes, so the count is there even on failure.
+     */
+    private static void transform(Cipher cipher, InputStream in, OutputStream out, long[] processed)
+            throws Exception {
+        byte[] inBuffer = new byte[STREAM_CHUNK_SIZE];
+        byte[] outBuffer = new byte[cipher.getOutputSize(STREAM_CHUNK_SIZE)];
+        int read;
+        while ((read = in.read(inBuffer)) != -1) {
+            processed[0] += read;
+            int written = cipher.update(inBuffer, 0, read, outBuffer);
+            out.write(outBuffer, 0, written);
+        }
+        int written = cipher.doFinal(outBuffer, 0);
+        out.write(outBuffer, 0, written);
+        out.flush();
     }
 
     @Override
     public String getAlgorithmName() {
         return "RSA+AES Hybrid";
     }
+
+    @Override
+    public String getProvider() {
+        return provider != null ? provider : CipherPool.defaultProvider("Cipher", AES_ALGORITHM);
+    }
+
+    @Override
+    public String[] getSupportedProviders() {
+        return SUPPORTED_PROVIDERS;
+    }
+
+    @Override
+    public RsaAesHybridService withProvider(String provider) {
+        CryptoService.checkProvider(this, provider);
+        return new RsaAesHybridService(provider);
+    }
 }
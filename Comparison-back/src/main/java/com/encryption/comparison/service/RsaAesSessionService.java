@@ -0,0 +1,300 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.HybridSessionStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Session mode of the RSA+AES hybrid: one AES-256 data key per session, RSA-wrapped once and reused for the
+ * session's messages until it rotates, instead of a fresh AES key and an RSA wrap per message. Small messages then
+ * cost an AES-GCM encryption rather than an RSA operation.
+ * <p>
+ * Envelope format:
+ * <pre>
+ * [1 byte: type][16 bytes: key id]
+ * [4 bytes: wrapped key length][RSA-wrapped data key]      (type 1 only)
+ * [12 bytes: nonce][AES-GCM ciphertext + 16-byte tag]
+ * </pre>
+ * The first message under a data key (type 1) carries the wrapped key, later ones (type 2) only its id. Reusing
+ * a GCM key is safe while no nonce repeats: the nonce is a random 4-byte field fixed per data key followed by the
+ * key's 8-byte message counter (the deterministic construction of NIST SP 800-38D), and a key rotates after
+ * {@code rotation-seconds} or {@code max-messages}, whichever comes first. The header up to the nonce is the AAD.
+ * <p>
+ * The decrypting side unwraps each data key once and caches it by id, bound to the private key that unwrapped it,
+ * for twice the rotation interval; a key's first message has to be decrypted before the others. Both caches keep
+ * at most {@code max-keys} entries, least recently used first out.
+ */
+@Service
+public class RsaAesSessionService {
+
+    public static final String ALGORITHM_NAME = "RSA+AES-GCM Session";
+
+    static final byte KEY_CARRYING = 1;
+    static final byte KEY_REFERENCE = 2;
+
+    private static final String RSA_TRANSFORMATION = "RSA/ECB/PKCS1Padding";
+    private static final String AES_ALGORITHM = "AES";
+    private static final String AES_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int AES_KEY_SIZE = 256;
+    private static final int KEY_ID_BYTES = 16;
+    private static final int NONCE_FIXED_BYTES = 4;
+    private static final int GCM_NONCE_BYTES = 12;
+    private static final int GCM_TAG_BYTES = 16;
+    private static final int MAX_WRAPPED_KEY_LENGTH = 1024; // RSA-4096 wraps to 512 bytes
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final long rotationNanos;
+    private final long maxMessages;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final CryptoMetrics metrics =
+            new CryptoMetrics(() -> ALGORITHM_NAME, () -> CipherPool.defaultProvider("Cipher", AES_ALGORITHM));
+
+    private final Map<String, DataKey> dataKeys; // session id -> current data key, encrypting side
+    private final Map<String, ReceivedKey> receivedKeys; // key id (hex) -> unwrapped data key, decrypting side
+
+    private final AtomicLong keysWrapped = new AtomicLong();
+    private final AtomicLong keysUnwrapped = new AtomicLong();
+    private final AtomicLong messagesEncrypted = new AtomicLong();
+    private final AtomicLong messagesDecrypted = new AtomicLong();
+
+    @Autowired
+    public RsaAesSessionService(@Value("${crypto.hybrid-session.rotation-seconds:300}") long rotationSeconds,
+                                @Value("${crypto.hybrid-session.max-messages:1000000}") long maxMessages,
+                                @Value("${crypto.hybrid-session.max-keys:10000}") int maxKeys) {
+        this(rotationSeconds, maxMessages, maxKeys, System::nanoTime);
+    }
+
+    RsaAesSessionService(long rotationSeconds, long maxMessages, int maxKeys, LongSupplier clock) {
+        this.rotationNanos = TimeUnit.SECONDS.toNanos(Math.max(1, rotationSeconds));
+        this.maxMessages = Math.max(1, maxMessages);
+        this.maxKeys = Math.max(1, maxKeys);
+        this.clock = clock;
+        this.dataKeys = leastRecentlyUsed(this.maxKeys);
+        this.receivedKeys = leastRecentlyUsed(this.maxKeys);
+    }
+
+    /**
+     * Encrypts one message of {@code sessionId} for {@code publicKey} under the session's current data key,
+     * wrapping a new one first if the session has none, it is due for rotation, or the recipient key changed.
+     */
+    public byte[] encrypt(String sessionId, byte[] data, Object publicKey) throws Exception {
+        return metrics.time(CryptoMetrics.ENCRYPT, publicKey, data.length,
+                () -> doEncrypt(sessionId, data, (PublicKey) publicKey));
+    }
+
+    private byte[] doEncrypt(String sessionId, byte[] data, PublicKey publicKey) throws Exception {
+        long now = clock.getAsLong();
+        DataKey dataKey;
+        synchronized (dataKeys) {
+            dataKey = dataKeys.get(sessionId);
+        }
+        long counter = -1;
+        if (dataKey != null && dataKey.publicKey.equals(publicKey) && now - dataKey.createdAt < rotationNanos) {
+            counter = dataKey.messages.getAndIncrement();
+        }
+        if (counter < 0 || counter >= maxMessages) {
+            // Wrapped outside the lock; sessions racing on a rotation each wrap a key and the last one is kept,
+            // every message still names (or carries) the key it was encrypted under
+            dataKey = newDataKey(publicKey, now);
+            counter = dataKey.messages.getAndIncrement();
+            synchronized (dataKeys) {
+                dataKeys.put(sessionId, dataKey);
+            }
+        }
+
+        // Header: [type][key id] and, for the key's first message, [wrapped key length][wrapped key]
+        boolean carriesKey = counter == 0;
+        int headerLength = 1 + KEY_ID_BYTES + (carriesKey ? 4 + dataKey.wrappedKey.length : 0);
+        byte[] envelope = new byte[headerLength + GCM_NONCE_BYTES + data.length + GCM_TAG_BYTES];
+        ByteBuffer out = ByteBuffer.wrap(envelope);
+        out.put(carriesKey ? KEY_CARRYING : KEY_REFERENCE).put(dataKey.id);
+        if (carriesKey) {
+            out.putInt(dataKey.wrappedKey.length).put(dataKey.wrappedKey);
+        }
+        out.put(dataKey.nonceFixed).putLong(counter);
+
+        Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, null);
+        aesCipher.init(Cipher.ENCRYPT_MODE, dataKey.key,
+                new GCMParameterSpec(GCM_TAG_BYTES * 8, envelope, headerLength, GCM_NONCE_BYTES));
+        aesCipher.updateAAD(envelope, 0, headerLength);
+        aesCipher.doFinal(data, 0, data.length, envelope, headerLength + GCM_NONCE_BYTES);
+        messagesEncrypted.incrementAndGet();
+        return envelope;
+    }
+
+    private DataKey newDataKey(PublicKey publicKey, long now) throws Exception {
+        SecretKey key = CipherPool.keyGenerator(AES_ALGORITHM, AES_KEY_SIZE, null).generateKey();
+        Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, null);
+        rsaCipher.init(Cipher.ENCRYPT_MODE, publicKey);
+        byte[] wrappedKey = rsaCipher.doFinal(key.getEncoded());
+        keysWrapped.incrementAndGet();
+
+        byte[] id = new byte[KEY_ID_BYTES];
+        byte[] nonceFixed = new byte[NONCE_FIXED_BYTES];
+        secureRandom.nextBytes(id);
+        secureRandom.nextBytes(nonceFixed);
+        return new DataKey(id, key, wrappedKey, nonceFixed, publicKey, now);
+    }
+
+    /**
+     * Decrypts a session envelope, unwrapping its data key with {@code privateKey} if the envelope carries one
+     * that is not cached yet.
+     *
+     * @throws IllegalStateException if the envelope only references a key that was never seen (or has expired)
+     *                               under this private key
+     */
+    public byte[] decrypt(byte[] envelope, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.DECRYPT, privateKey, envelope.length,
+                () -> doDecrypt(envelope, (PrivateKey) privateKey));
+    }
+
+    private byte[] doDecrypt(byte[] envelope, PrivateKey privateKey) throws Exception {
+        if (envelope.length < 1 + KEY_ID_BYTES + GCM_NONCE_BYTES + GCM_TAG_BYTES) {
+            throw new IllegalArgumentException("Session envelope too short: " + envelope.length + " bytes");
+        }
+        ByteBuffer in = ByteBuffer.wrap(envelope);
+        byte type = in.get();
+        String keyId = HEX.formatHex(envelope, 1, 1 + KEY_ID_BYTES);
+        in.position(1 + KEY_ID_BYTES);
+        long now = clock.getAsLong();
+
+        SecretKey key = cachedKey(keyId, privateKey, now);
+        if (type == KEY_CARRYING) {
+            int wrappedLength = in.getInt();
+            if (wrappedLength <= 0 || wrappedLength > MAX_WRAPPED_KEY_LENGTH
+                    || wrappedLength > in.remaining() - GCM_NONCE_BYTES - GCM_TAG_BYTES) {
+                throw new IllegalArgumentException("Invalid wrapped key length: " + wrappedLength);
+            }
+            if (key == null) {
+                Cipher rsaCipher = CipherPool.cipher(RSA_TRANSFORMATION, null);
+                rsaCipher.init(Cipher.DECRYPT_MODE, privateKey);
+                key = new SecretKeySpec(rsaCipher.doFinal(envelope, in.position(), wrappedLength), AES_ALGORITHM);
+                keysUnwrapped.incrementAndGet();
+                synchronized (receivedKeys) {
+                    receivedKeys.put(keyId, new ReceivedKey(key, privateKey, now));
+                }
+            }
+            in.position(in.position() + wrappedLength);
+        } else if (type == KEY_REFERENCE) {
+            if (key == null) {
+                throw new IllegalStateException("Unknown or expired data key " + keyId
+                        + ", the message carrying it has to be decrypted first");
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown session envelope type: " + type);
+        }
+
+        // The cached key still has to pass the tag, so a forged wrapped key under a known id is rejected here
+        int headerLength = in.position();
+        Cipher aesCipher = CipherPool.cipher(AES_TRANSFORMATION, null);
+        aesCipher.init(Cipher.DECRYPT_MODE, key,
+                new GCMParameterSpec(GCM_TAG_BYTES * 8, envelope, headerLength, GCM_NONCE_BYTES));
+        aesCipher.updateAAD(envelope, 0, headerLength);
+        int contentOffset = headerLength + GCM_NONCE_BYTES;
+        byte[] decrypted = aesCipher.doFinal(envelope, contentOffset, envelope.length - contentOffset);
+        messagesDecrypted.incrementAndGet();
+        return decrypted;
+    }
+
+    private SecretKey cachedKey(String keyId, PrivateKey privateKey, long now) {
+        ReceivedKey received;
+        synchronized (receivedKeys) {
+            received = receivedKeys.get(keyId);
+            if (received != null && now - received.cachedAt >= 2 * rotationNanos) {
+                receivedKeys.remove(keyId);
+                received = null;
+            }
+        }
+        return received != null && received.privateKey.equals(privateKey) ? received.key : null;
+    }
+
+    /**
+     * Id (hex) of the data key an envelope was encrypted under.
+     */
+    public static String keyId(byte[] envelope) {
+        return HEX.formatHex(envelope, 1, 1 + KEY_ID_BYTES);
+    }
+
+    /**
+     * Whether an envelope carries its wrapped data key (the first message under that key).
+     */
+    public static boolean carriesKey(byte[] envelope) {
+        return envelope.length > 0 && envelope[0] == KEY_CARRYING;
+    }
+
+    /**
+     * Drops the session's data key; its next message wraps a new one.
+     */
+    public void endSession(String sessionId) {
+        synchronized (dataKeys) {
+            dataKeys.remove(sessionId);
+        }
+    }
+
+    public HybridSessionStats getStats() {
+        HybridSessionStats stats = new HybridSessionStats();
+        synchronized (dataKeys) {
+            stats.setSessions(dataKeys.size());
+        }
+        synchronized (receivedKeys) {
+            stats.setReceivedKeys(receivedKeys.size());
+        }
+        stats.setMaxKeys(maxKeys);
+        stats.setRotationSeconds(TimeUnit.NANOSECONDS.toSeconds(rotationNanos));
+        stats.setMaxMessages(maxMessages);
+        stats.setKeysWrapped(keysWrapped.get());
+        stats.setKeysUnwrapped(keysUnwrapped.get());
+        stats.setMessagesEncrypted(messagesEncrypted.get());
+        stats.setMessagesDecrypted(messagesDecrypted.get());
+        return stats;
+    }
+
+    private static <V> Map<String, V> leastRecentlyUsed(int maxSize) {
+        return new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private static final class DataKey {
+        private final byte[] id;
+        private final SecretKey key;
+        private final byte[] wrappedKey;
+        private final byte[] nonceFixed;
+        private final PublicKey publicKey;
+        private final long createdAt;
+        private final AtomicLong messages = new AtomicLong(); // Next nonce counter
+
+        DataKey(byte[] id, SecretKey key, byte[] wrappedKey, byte[] nonceFixed, PublicKey publicKey, long createdAt) {
+            this.id = id;
+            this.key = key;
+            this.wrappedKey = wrappedKey;
+            this.nonceFixed = nonceFixed;
+            this.publicKey = publicKey;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private record ReceivedKey(SecretKey key, PrivateKey privateKey, long cachedAt) {
+    }
+}
@@ -3,13 +3,52 @@ package com.encryption.comparison.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
 import java.security.*;
+import java.security.interfaces.RSAKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPrivateKeySpec;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 @Service
 @Slf4j
 public class RsaCryptoService implements CryptoService {
     private static final int[] SUPPORTED_KEY_SIZES = { 1024, 2048, 3072, 4096 };
+    private static final String TRANSFORMATION = "RSA/ECB/PKCS1Padding";
+    private static final String[] SUPPORTED_PROVIDERS = { "SunJCE", "BC" };
+
+    // Private key forms for toKeyForm
+    public static final String KEY_FORM_CRT = "crt";
+    public static final String KEY_FORM_NON_CRT = "non-crt";
+    public static final String KEY_FORM_PKCS8 = "pkcs8";
+    public static final String[] KEY_FORMS = { KEY_FORM_CRT, KEY_FORM_NON_CRT, KEY_FORM_PKCS8 };
+
+    // Phases timed by decryptProfiled, in the order of its phaseNanos array
+    public static final String[] DECRYPT_PHASES = { "parse", "blinding", "exponentiation", "unblinding", "padding" };
+
+    // Blinding pair (u, v) per private key, squared on every use as the JDK does
+    private static final Map<RSAPrivateKey, BigInteger[]> BLINDING = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final String provider; // null = JDK default provider order
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final CryptoMetrics metrics = new CryptoMetrics(this);
+
+    public RsaCryptoService() {
+        this(null);
+    }
+
+    public RsaCryptoService(String provider) {
+        this.provider = provider;
+    }
 
     @Override
     public String getAlgorithmName() {
@@ -18,33 +57,327 @@ public class RsaCryptoService implements CryptoService {
 
     @Override
     public byte[] encrypt(byte[] data, Object publicKey) throws Exception {
-        // RSA can only encrypt data smaller than key size - padding
-        // For PKCS1Padding, max data size = (key_size_bits / 8) - 11
-        // We need to get the actual key size from the key itself
-        java.security.interfaces.RSAPublicKey rsaKey = (java.security.interfaces.RSAPublicKey) publicKey;
-        int keySizeBits = rsaKey.getModulus().bitLength();
-        int maxDataSize = (keySizeBits / 8) - 11; // PKCS1 padding overhead
+        return encrypt(data, publicKey, 0);
+    }
 
-        if (data.length > maxDataSize) {
-            throw new IllegalArgumentException("Data too large for RSA encryption. Max size: " + maxDataSize
-                    + " bytes, got: " + data.length + " bytes");
-        }
+    /**
+     * As {@link #encrypt(byte[], Object)}, with {@code headerLength} free bytes in front of the ciphertext for a
+     * caller's own header ({@link RsaPayloadDispatcher}).
+     */
+    byte[] encrypt(byte[] data, Object publicKey, int headerLength) throws Exception {
+        return metrics.time(CryptoMetrics.ENCRYPT, publicKey, data.length,
+                () -> doEncrypt(data, publicKey, headerLength));
+    }
+
+    private byte[] doEncrypt(byte[] data, Object publicKey, int headerLength) throws Exception {
+        checkDataSize(data, maxDataSize(publicKey));
 
-        Cipher cipher = Cipher.getInstance("RSA/ECB/PKCS1Padding");
+        Cipher cipher = CipherPool.cipher(TRANSFORMATION, provider);
         cipher.init(Cipher.ENCRYPT_MODE, (PublicKey) publicKey);
-        return cipher.doFinal(data);
+        if (headerLength == 0) {
+            return cipher.doFinal(data);
+        }
+        byte[] encrypted = new byte[headerLength + blockLength(publicKey)];
+        cipher.doFinal(data, 0, data.length, encrypted, headerLength);
+        return encrypted;
     }
 
     @Override
     public byte[] decrypt(byte[] encryptedData, Object privateKey) throws Exception {
-        Cipher cipher = Cipher.getInstance("RSA/ECB/PKCS1Padding");
+        return decrypt(encryptedData, 0, encryptedData.length, privateKey);
+    }
+
+    /**
+     * Decrypts the block at {@code encryptedData[offset, offset + length)} without copying it out.
+     */
+    byte[] decrypt(byte[] encryptedData, int offset, int length, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.DECRYPT, privateKey, length,
+                () -> doDecrypt(encryptedData, offset, length, privateKey));
+    }
+
+    private byte[] doDecrypt(byte[] encryptedData, int offset, int length, Object privateKey) throws Exception {
+        Cipher cipher = CipherPool.cipher(TRANSFORMATION, provider);
+        cipher.init(Cipher.DECRYPT_MODE, (PrivateKey) privateKey);
+        return cipher.doFinal(encryptedData, offset, length);
+    }
+
+    /**
+     * PKCS#1 v1.5 decryption on {@link BigInteger} arithmetic, the primitive SunRsaSign uses as well, timing
+     * each phase into {@code phaseNanos} (indexed like {@link #DECRYPT_PHASES}): parsing the ciphertext, blinding
+     * it, the private exponentiation, removing the blinding and checking the padding. The exponentiation uses CRT
+     * (two half-size exponentiations mod p and q, then Garner's recombination) when the key carries its CRT
+     * parameters, otherwise one full-size exponentiation mod n. The configured provider plays no part.
+     * <p>
+     * Blinding follows the JDK: a random pair {@code (u, v)} with {@code c^d = (c·u)^d·v mod n} is set up once per
+     * key and squared on every later use. Keys that know their public exponent use {@code u = r^e, v = r^-1};
+     * keys without it ({@code non-crt}) use {@code u = r, v = r^-d}, whose setup costs one extra exponentiation.
+     */
+    public byte[] decryptProfiled(byte[] encryptedData, Object privateKey, long[] phaseNanos) throws Exception {
+        return metrics.time(CryptoMetrics.DECRYPT_PROFILED, privateKey, encryptedData.length,
+                () -> doDecryptProfiled(encryptedData, (RSAPrivateKey) privateKey, phaseNanos));
+    }
+
+    private byte[] doDecryptProfiled(byte[] encryptedData, RSAPrivateKey key, long[] phaseNanos) throws Exception {
+        BigInteger n = key.getModulus();
+        int blockLength = blockLength(key);
+
+        long start = System.nanoTime();
+        if (encryptedData.length > blockLength) {
+            throw new IllegalBlockSizeException("Data must not be longer than " + blockLength + " bytes");
+        }
+        BigInteger c = new BigInteger(1, encryptedData);
+        if (c.compareTo(n) >= 0) {
+            throw new BadPaddingException("Message is larger than modulus");
+        }
+        long parsed = System.nanoTime();
+
+        BigInteger[] blinding = blindingPair(key);
+        BigInteger blinded = c.multiply(blinding[0]).mod(n);
+        long blindedAt = System.nanoTime();
+
+        BigInteger m;
+        if (isCrtKey(key)) {
+            RSAPrivateCrtKey crtKey = (RSAPrivateCrtKey) key;
+            BigInteger mP = blinded.modPow(crtKey.getPrimeExponentP(), crtKey.getPrimeP());
+            BigInteger mQ = blinded.modPow(crtKey.getPrimeExponentQ(), crtKey.getPrimeQ());
+            BigInteger h = mP.subtract(mQ).multiply(crtKey.getCrtCoefficient()).mod(crtKey.getPrimeP());
+            m = h.multiply(crtKey.getPrimeQ()).add(mQ);
+        } else {
+            m = blinded.modPow(key.getPrivateExponent(), n);
+        }
+        long exponentiated = System.nanoTime();
+
+        m = m.multiply(blinding[1]).mod(n);
+        long unblinded = System.nanoTime();
+
+        byte[] plaintext = unpad(toBlock(m, blockLength));
+        long unpadded = System.nanoTime();
+
+        phaseNanos[0] = parsed - start;
+        phaseNanos[1] = blindedAt - parsed;
+        phaseNanos[2] = exponentiated - blindedAt;
+        phaseNanos[3] = unblinded - exponentiated;
+        phaseNanos[4] = unpadded - unblinded;
+        return plaintext;
+    }
+
+    private BigInteger[] blindingPair(RSAPrivateKey key) {
+        BigInteger n = key.getModulus();
+        synchronized (BLINDING) {
+            BigInteger[] pair = BLINDING.get(key);
+            if (pair != null) {
+                pair = new BigInteger[] { pair[0].multiply(pair[0]).mod(n), pair[1].multiply(pair[1]).mod(n) };
+            } else {
+                BigInteger r;
+                do {
+                    r = new BigInteger(n.bitLength(), secureRandom).mod(n);
+                } while (r.signum() == 0 || !r.gcd(n).equals(BigInteger.ONE));
+                BigInteger e = key instanceof RSAPrivateCrtKey ? ((RSAPrivateCrtKey) key).getPublicExponent() : null;
+                pair = e != null && e.signum() > 0
+                        ? new BigInteger[] { r.modPow(e, n), r.modInverse(n) }
+                        : new BigInteger[] { r, r.modInverse(n).modPow(key.getPrivateExponent(), n) };
+            }
+            BLINDING.put(key, pair);
+            return pair;
+        }
+    }
+
+    // I2OSP: the integer as exactly blockLength big-endian bytes
+    private static byte[] toBlock(BigInteger m, int blockLength) {
+        byte[] bytes = m.toByteArray();
+        if (bytes.length == blockLength) {
+            return bytes;
+        }
+        byte[] block = new byte[blockLength];
+        int length = Math.min(bytes.length, blockLength);
+        System.arraycopy(bytes, bytes.length - length, block, blockLength - length, length);
+        return block;
+    }
+
+    // EME-PKCS1-v1_5: 0x00 0x02, at least 8 non-zero padding bytes, 0x00, message. Scans the whole block.
+    private static byte[] unpad(byte[] block) throws BadPaddingException {
+        int separator = -1;
+        for (int i = 2; i < block.length; i++) {
+            if (block[i] == 0 && separator < 0) {
+                separator = i;
+            }
+        }
+        if (block[0] != 0 || block[1] != 2 || separator < 10) {
+            throw new BadPaddingException("Decryption error");
+        }
+        return Arrays.copyOfRange(block, separator + 1, block.length);
+    }
+
+    /**
+     * The private key in one of {@link #KEY_FORMS}: {@code crt} as given, {@code non-crt} reduced to
+     * {@code (n, d)} so that every private-key operation is one full-size exponentiation, {@code pkcs8} encoded
+     * and read back through a {@link KeyFactory}, as a key loaded from storage would be.
+     *
+     * @throws IllegalArgumentException for an unknown form
+     */
+    public static PrivateKey toKeyForm(Object privateKey, String form) throws GeneralSecurityException {
+        PrivateKey key = (PrivateKey) privateKey;
+        switch (form) {
+            case KEY_FORM_CRT:
+                return key;
+            case KEY_FORM_NON_CRT:
+                RSAPrivateKey rsaKey = (RSAPrivateKey) key;
+                return CipherPool.keyFactory("RSA").generatePrivate(
+                        new RSAPrivateKeySpec(rsaKey.getModulus(), rsaKey.getPrivateExponent()));
+            case KEY_FORM_PKCS8:
+                return CipherPool.keyFactory("RSA").generatePrivate(new PKCS8EncodedKeySpec(key.getEncoded()));
+            default:
+                throw new IllegalArgumentException("Unknown RSA key form: " + form + ", expected crt, non-crt or pkcs8");
+        }
+    }
+
+    /**
+     * Whether private-key operations with this key can use CRT: an {@link RSAPrivateCrtKey} whose CRT
+     * parameters are present.
+     */
+    public static boolean isCrtKey(Object privateKey) {
+        if (!(privateKey instanceof RSAPrivateCrtKey)) {
+            return false;
+        }
+        RSAPrivateCrtKey key = (RSAPrivateCrtKey) privateKey;
+        return key.getPrimeP() != null && key.getPrimeP().signum() > 0
+                && key.getCrtCoefficient() != null && key.getCrtCoefficient().signum() > 0;
+    }
+
+    @Override
+    public byte[][] encryptBatch(byte[][] items, Object publicKey, Exception[] errors) {
+        return metrics.timeBatch(CryptoMetrics.ENCRYPT_BATCH, publicKey, items, () -> doEncryptBatch(items, publicKey, errors));
+    }
+
+    private byte[][] doEncryptBatch(byte[][] items, Object publicKey, Exception[] errors) {
+        int maxDataSize = maxDataSize(publicKey);
+        for (int i = 0; i < items.length; i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            try {
+                checkDataSize(items[i], maxDataSize);
+            } catch (IllegalArgumentException e) {
+                errors[i] = e;
+            }
+        }
+        try {
+            return CipherPool.doFinalEach(CipherPool.cipher(TRANSFORMATION, provider), Cipher.ENCRYPT_MODE,
+                    (PublicKey) publicKey, items, errors);
+        } catch (GeneralSecurityException e) {
+            CipherPool.failRemaining(errors, e);
+            return new byte[items.length][];
+        }
+    }
+
+    @Override
+    public byte[][] decryptBatch(byte[][] items, Object privateKey, Exception[] errors) {
+        return metrics.timeBatch(CryptoMetrics.DECRYPT_BATCH, privateKey, items, () -> doDecryptBatch(items, privateKey, errors));
+    }
+
+    private byte[][] doDecryptBatch(byte[][] items, Object privateKey, Exception[] errors) {
+        try {
+            return CipherPool.doFinalEach(CipherPool.cipher(TRANSFORMATION, provider), Cipher.DECRYPT_MODE,
+                    (PrivateKey) privateKey, items, errors);
+        } catch (GeneralSecurityException e) {
+            CipherPool.failRemaining(errors, e);
+            return new byte[items.length][];
+        }
+    }
+
+    /**
+     * Multi-block RSA: splits {@code data} into chunks of at most {@link #maxDataSize(Object)} bytes and encrypts
+     * each with one initialised cipher. The output is the concatenation of modulus-sized blocks; decrypting it
+     * costs one private-key operation per block.
+     */
+    public byte[] encryptBlocks(byte[] data, Object publicKey) throws Exception {
+        return encryptBlocks(data, publicKey, 0);
+    }
+
+    /**
+     * As {@link #encryptBlocks(byte[], Object)}, with {@code headerLength} free bytes in front of the blocks.
+     */
+    byte[] encryptBlocks(byte[] data, Object publicKey, int headerLength) throws Exception {
+        return metrics.time(CryptoMetrics.ENCRYPT_BLOCKS, publicKey, data.length,
+                () -> doEncryptBlocks(data, publicKey, headerLength));
+    }
+
+    private byte[] doEncryptBlocks(byte[] data, Object publicKey, int headerLength) throws Exception {
+        int maxDataSize = maxDataSize(publicKey);
+        int blockLength = blockLength(publicKey);
+        int blocks = Math.max(1, (data.length + maxDataSize - 1) / maxDataSize);
+
+        Cipher cipher = CipherPool.cipher(TRANSFORMATION, provider);
+        cipher.init(Cipher.ENCRYPT_MODE, (PublicKey) publicKey);
+        byte[] encrypted = new byte[headerLength + blocks * blockLength];
+        for (int i = 0; i < blocks; i++) {
+            int offset = i * maxDataSize;
+            cipher.doFinal(data, offset, Math.min(maxDataSize, data.length - offset), encrypted,
+                    headerLength + i * blockLength);
+        }
+        return encrypted;
+    }
+
+    /**
+     * Decrypts the output of {@link #encryptBlocks(byte[], Object)}.
+     */
+    public byte[] decryptBlocks(byte[] encryptedData, Object privateKey) throws Exception {
+        return decryptBlocks(encryptedData, 0, encryptedData.length, privateKey);
+    }
+
+    /**
+     * Decrypts the blocks at {@code encryptedData[offset, offset + length)} without copying them out.
+     */
+    byte[] decryptBlocks(byte[] encryptedData, int offset, int length, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.DECRYPT_BLOCKS, privateKey, length,
+                () -> doDecryptBlocks(encryptedData, offset, length, privateKey));
+    }
+
+    private byte[] doDecryptBlocks(byte[] encryptedData, int offset, int length, Object privateKey)
+            throws Exception {
+        int blockLength = blockLength(privateKey);
+        if (length == 0 || length % blockLength != 0) {
+            throw new IllegalArgumentException("Multi-block RSA ciphertext must be a multiple of " + blockLength
+                    + " bytes, got: " + length + " bytes");
+        }
+
+        Cipher cipher = CipherPool.cipher(TRANSFORMATION, provider);
         cipher.init(Cipher.DECRYPT_MODE, (PrivateKey) privateKey);
-        return cipher.doFinal(encryptedData);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream(length);
+        for (int block = offset; block < offset + length; block += blockLength) {
+            decrypted.write(cipher.doFinal(encryptedData, block, blockLength));
+        }
+        return decrypted.toByteArray();
+    }
+
+    /**
+     * Largest payload one PKCS#1 v1.5 block can hold for this key: modulus bytes - 11.
+     */
+    public static int maxDataSize(Object publicKey) {
+        return blockLength(publicKey) - 11; // PKCS1 padding overhead
+    }
+
+    private static int blockLength(Object key) {
+        return (((RSAKey) key).getModulus().bitLength() + 7) / 8;
+    }
+
+    private static void checkDataSize(byte[] data, int maxDataSize) {
+        if (data.length > maxDataSize) {
+            throw new IllegalArgumentException("Data too large for RSA encryption. Max size: " + maxDataSize
+                    + " bytes, got: " + data.length + " bytes");
+        }
     }
 
     @Override
     public Object[] generateKeyPair(int keySize) throws Exception {
-        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        return metrics.timeKeyGeneration(keySize, () -> doGenerateKeyPair(keySize));
+    }
+
+    private Object[] doGenerateKeyPair(int keySize) throws Exception {
+        String keyGenProvider = CipherPool.providerFor("KeyPairGenerator", "RSA", provider);
+        KeyPairGenerator keyGen = keyGenProvider == null
+                ? KeyPairGenerator.getInstance("RSA")
+                : KeyPairGenerator.getInstance("RSA", keyGenProvider);
         keyGen.initialize(keySize, new SecureRandom());
         KeyPair keyPair = keyGen.generateKeyPair();
         return new Object[] { keyPair.getPublic(), keyPair.getPrivate() };
@@ -54,4 +387,20 @@ public class RsaCryptoService implements CryptoService {
     public int[] getSupportedKeySizes() {
         return SUPPORTED_KEY_SIZES;
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getProvider() {
+        return provider != null ? provider : CipherPool.defaultProvider("Cipher", "RSA");
+    }
+
+    @Override
+    public String[] getSupportedProviders() {
+        return SUPPORTED_PROVIDERS;
+    }
+
+    @Override
+    public RsaCryptoService withProvider(String provider) {
+        CryptoService.checkProvider(this, provider);
+        return new RsaCryptoService(provider);
+    }
+}
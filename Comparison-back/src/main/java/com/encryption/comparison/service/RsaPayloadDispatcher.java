@@ -0,0 +1,136 @@
+package com.encryption.comparison.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Payload-aware RSA used for the RSA cases of a comparison: raw RSA when the payload fits one PKCS#1 block,
+ * the RSA+AES hybrid envelope otherwise, so RSA succeeds at every data size and is measured on the fastest path
+ * that works. Multi-block RSA is never picked automatically: decryption costs one private-key operation per
+ * block, which already loses to the hybrid's single private-key operation at two blocks. Any path can be forced
+ * to measure it anyway.
+ * <p>
+ * Ciphertexts start with a one-byte path tag so that decryption does not depend on the plaintext size; they
+ * are not interchangeable with those of {@link RsaCryptoService} or {@link RsaAesHybridService}. The underlying
+ * path writes its ciphertext behind the tag and reads it in place, so the tag never copies the payload.
+ */
+public final class RsaPayloadDispatcher implements CryptoService {
+
+    public enum Path {
+        RAW("raw"), MULTI_BLOCK("multi-block"), HYBRID("hybrid");
+
+        private final String label;
+
+        Path(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private static final Path[] PATHS = Path.values();
+    private static final int TAG_LENGTH = 1;
+
+    private final RsaCryptoService rsa;
+    private final RsaAesHybridService hybrid;
+    private final Path forced; // null = choose by payload size
+
+    public RsaPayloadDispatcher(RsaCryptoService rsa, RsaAesHybridService hybrid, Path forced) {
+        this.rsa = rsa;
+        this.hybrid = hybrid;
+        this.forced = forced;
+    }
+
+    /**
+     * Parses a {@code CryptoTestConfig.rsaPath} value: {@code auto} (or empty) gives {@code null}, otherwise a
+     * {@link Path} label.
+     *
+     * @throws IllegalArgumentException for an unknown value
+     */
+    public static Path parsePath(String value) {
+        if (value == null || value.isEmpty() || value.equalsIgnoreCase("auto")) {
+            return null;
+        }
+        for (Path path : PATHS) {
+            if (path.label.equalsIgnoreCase(value)) {
+                return path;
+            }
+        }
+        throw new IllegalArgumentException("Unknown RSA path: " + value + ", expected auto, raw, multi-block or hybrid");
+    }
+
+    /**
+     * The path {@link #encrypt} takes for a payload of {@code dataSize} bytes under {@code publicKey}.
+     */
+    public Path pathFor(int dataSize, Object publicKey) {
+        if (forced != null) {
+            return forced;
+        }
+        return dataSize <= RsaCryptoService.maxDataSize(publicKey) ? Path.RAW : Path.HYBRID;
+    }
+
+    @Override
+    public byte[] encrypt(byte[] data, Object publicKey) throws Exception {
+        Path path = pathFor(data.length, publicKey);
+        // Every path writes behind a free first byte, so the tag costs no copy of the ciphertext
+        byte[] tagged = switch (path) {
+            case RAW -> rsa.encrypt(data, publicKey, TAG_LENGTH);
+            case MULTI_BLOCK -> rsa.encryptBlocks(data, publicKey, TAG_LENGTH);
+            case HYBRID -> encryptHybrid(data, publicKey);
+        };
+        tagged[0] = (byte) path.ordinal();
+        return tagged;
+    }
+
+    private byte[] encryptHybrid(byte[] data, Object publicKey) throws Exception {
+        byte[] tagged = new byte[TAG_LENGTH + RsaAesHybridService.encryptedSize(data.length, publicKey)];
+        ByteBuffer out = ByteBuffer.wrap(tagged, TAG_LENGTH, tagged.length - TAG_LENGTH);
+        int written = hybrid.encrypt(ByteBuffer.wrap(data), out, publicKey);
+        return TAG_LENGTH + written == tagged.length ? tagged : Arrays.copyOf(tagged, TAG_LENGTH + written);
+    }
+
+    @Override
+    public byte[] decrypt(byte[] encryptedData, Object privateKey) throws Exception {
+        if (encryptedData.length == 0 || encryptedData[0] < 0 || encryptedData[0] >= PATHS.length) {
+            throw new IllegalArgumentException("Missing or unknown RSA path tag");
+        }
+        int length = encryptedData.length - TAG_LENGTH;
+        return switch (PATHS[encryptedData[0]]) {
+            case RAW -> rsa.decrypt(encryptedData, TAG_LENGTH, length, privateKey);
+            case MULTI_BLOCK -> rsa.decryptBlocks(encryptedData, TAG_LENGTH, length, privateKey);
+            case HYBRID -> hybrid.decrypt(encryptedData, TAG_LENGTH, length, privateKey);
+        };
+    }
+
+    @Override
+    public Object[] generateKeyPair(int keySize) throws Exception {
+        return rsa.generateKeyPair(keySize);
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return rsa.getAlgorithmName();
+    }
+
+    @Override
+    public int[] getSupportedKeySizes() {
+        return rsa.getSupportedKeySizes();
+    }
+
+    @Override
+    public String getProvider() {
+        return rsa.getProvider();
+    }
+
+    @Override
+    public String[] getSupportedProviders() {
+        return rsa.getSupportedProviders();
+    }
+
+    @Override
+    public RsaPayloadDispatcher withProvider(String provider) {
+        return new RsaPayloadDispatcher(rsa.withProvider(provider), hybrid.withProvider(provider), forced);
+    }
+}
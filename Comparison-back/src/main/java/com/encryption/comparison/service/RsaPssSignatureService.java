@@ -0,0 +1,103 @@
+package com.encryption.comparison.service;
+
+import org.springframework.stereotype.Service;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+
+/**
+ * RSASSA-PSS with SHA-256, MGF1-SHA-256 and a 32-byte salt, on ordinary RSA keys.
+ */
+@Service
+public class RsaPssSignatureService implements SignatureService {
+
+    private static final String ALGORITHM = "RSASSA-PSS";
+    private static final PSSParameterSpec PSS_PARAMETERS =
+            new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, PSSParameterSpec.TRAILER_FIELD_BC);
+    private static final int[] SUPPORTED_KEY_SIZES = { 1024, 2048, 3072, 4096 };
+    private static final String[] SUPPORTED_PROVIDERS = { "SunRsaSign", "BC" };
+
+    private final String provider; // null = JDK default provider order
+    private final CryptoMetrics metrics = new CryptoMetrics(this);
+
+    public RsaPssSignatureService() {
+        this(null);
+    }
+
+    public RsaPssSignatureService(String provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "RSA-PSS";
+    }
+
+    @Override
+    public byte[] sign(byte[] data, Object privateKey) throws Exception {
+        return metrics.time(CryptoMetrics.SIGN, privateKey, data.length, () -> doSign(data, privateKey));
+    }
+
+    private byte[] doSign(byte[] data, Object privateKey) throws Exception {
+        Signature signature = CipherPool.signature(ALGORITHM, provider);
+        signature.initSign((PrivateKey) privateKey);
+        signature.setParameter(PSS_PARAMETERS);
+        signature.update(data);
+        return signature.sign();
+    }
+
+    @Override
+    public boolean verify(byte[] data, byte[] signatureBytes, Object publicKey) throws Exception {
+        return metrics.time(CryptoMetrics.VERIFY, publicKey, data.length, () -> doVerify(data, signatureBytes, publicKey));
+    }
+
+    private boolean doVerify(byte[] data, byte[] signatureBytes, Object publicKey) throws Exception {
+        Signature signature = CipherPool.signature(ALGORITHM, provider);
+        signature.initVerify((PublicKey) publicKey);
+        signature.setParameter(PSS_PARAMETERS);
+        signature.update(data);
+        return signature.verify(signatureBytes);
+    }
+
+    @Override
+    public Object[] generateKeyPair(int keySize) throws Exception {
+        return metrics.timeKeyGeneration(keySize, () -> doGenerateKeyPair(keySize));
+    }
+
+    private Object[] doGenerateKeyPair(int keySize) throws Exception {
+        String keyGenProvider = CipherPool.providerFor("KeyPairGenerator", "RSA", provider);
+        KeyPairGenerator keyGen = keyGenProvider == null
+                ? KeyPairGenerator.getInstance("RSA")
+                : KeyPairGenerator.getInstance("RSA", keyGenProvider);
+        keyGen.initialize(keySize, new SecureRandom());
+        KeyPair keyPair = keyGen.generateKeyPair();
+        return new Object[] { keyPair.getPublic(), keyPair.getPrivate() };
+    }
+
+    @Override
+    public int[] getSupportedKeySizes() {
+        return SUPPORTED_KEY_SIZES;
+    }
+
+    @Override
+    public String getProvider() {
+        return provider != null ? provider : CipherPool.defaultProvider("Signature", ALGORITHM);
+    }
+
+    @Override
+    public String[] getSupportedProviders() {
+        return SUPPORTED_PROVIDERS;
+    }
+
+    @Override
+    public RsaPssSignatureService withProvider(String provider) {
+        SignatureService.checkProvider(this, provider);
+        return new RsaPssSignatureService(provider);
+    }
+}
@@ -11,7 +11,9 @@ public class SecurityEstimatorService {
         estimate.setAlgorithm(algorithm);
         estimate.setKeySize(keySize);
 
-        if ("RSA".equals(algorithm)) {
+        // Hybrid schemes ("RSA+AES Hybrid", "ECC+AES Hybrid") are bounded by their public-key half;
+        // RSA-PSS and ECDSA have the strength of their key
+        if (algorithm.startsWith("RSA")) {
             switch (keySize) {
                 case 1024:
                     estimate.setSecurityBits(80);
@@ -30,7 +32,7 @@ public class SecurityEstimatorService {
                     estimate.setEstimatedBreakTime("Beyond foreseeable future");
                     break;
             }
-        } else if ("ECC".equals(algorithm)) {
+        } else if (algorithm.startsWith("ECC") || algorithm.equals("ECDSA")) {
             switch (keySize) {
                 case 256:
                     estimate.setSecurityBits(128);
@@ -45,6 +47,9 @@ public class SecurityEstimatorService {
                     estimate.setEstimatedBreakTime("Beyond foreseeable quantum computing threats");
                     break;
             }
+        } else if (algorithm.equals("Ed25519")) {
+            estimate.setSecurityBits(128);
+            estimate.setEstimatedBreakTime("Decades with current technology");
         }
 
         return estimate;
@@ -0,0 +1,167 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.SessionKeyStoreStats;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe store for the key pairs handed out by the key generation endpoints.
+ * <p>
+ * Entries expire a fixed time after creation (TTL) or after a period without access (idle time), and the
+ * least recently used entry is evicted when the store is full. Expired entries are dropped lazily on
+ * access and by a periodic background sweep. The entries are an access-ordered {@link LinkedHashMap} guarded by
+ * its own monitor, so the least recently used entry is always the eldest and eviction does not scan the store.
+ */
+@Service
+public class SessionKeyStore {
+
+    private final Map<String, Entry> entries;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService sweeper;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    @Autowired
+    public SessionKeyStore(@Value("${crypto.session.max-size:10000}") int maxSize,
+                           @Value("${crypto.session.ttl-seconds:3600}") long ttlSeconds,
+                           @Value("${crypto.session.idle-seconds:900}") long idleSeconds) {
+        this(maxSize, ttlSeconds, idleSeconds, System::nanoTime);
+    }
+
+    SessionKeyStore(int maxSize, long ttlSeconds, long idleSeconds, LongSupplier clock) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= SessionKeyStore.this.maxSize) {
+                    return false;
+                }
+                // The eldest entry has gone longest without access, so it is the likeliest to have expired
+                if (isExpired(eldest.getValue(), SessionKeyStore.this.clock.getAsLong())) {
+                    expirations.incrementAndGet();
+                } else {
+                    evictions.incrementAndGet();
+                }
+                return true;
+            }
+        };
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-key-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepSeconds = Math.max(1, Math.min(ttlSeconds, idleSeconds) / 2);
+        sweeper.scheduleWithFixedDelay(this::removeExpired, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    public void put(String key, Object[] keyPair) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            entries.put(key, new Entry(keyPair, now));
+        }
+    }
+
+    /**
+     * Returns the key pair for {@code key}, or {@code null} if it is unknown or has expired.
+     */
+    public Object[] get(String key) {
+        long now = clock.getAsLong();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && isExpired(entry, now)) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry != null) {
+                entry.lastAccess = now;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.keyPair;
+    }
+
+    public void remove(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public SessionKeyStoreStats getStats() {
+        SessionKeyStoreStats stats = new SessionKeyStoreStats();
+        synchronized (entries) {
+            stats.setSize(entries.size());
+        }
+        stats.setMaxSize(maxSize);
+        stats.setTtlSeconds(TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        stats.setIdleSeconds(TimeUnit.NANOSECONDS.toSeconds(idleNanos));
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRate(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        stats.setEvictions(evictions.get());
+        stats.setExpirations(expirations.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    void removeExpired() {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (isExpired(iterator.next(), now)) {
+                    iterator.remove();
+                    expirations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdAt >= ttlNanos || now - entry.lastAccess >= idleNanos;
+    }
+
+    private static final class Entry {
+        private final Object[] keyPair;
+        private final long createdAt;
+        private long lastAccess;
+
+        Entry(Object[] keyPair, long now) {
+            this.keyPair = keyPair;
+            this.createdAt = now;
+            this.lastAccess = now;
+        }
+    }
+}
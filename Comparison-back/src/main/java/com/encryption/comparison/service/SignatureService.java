@@ -0,0 +1,28 @@
+package com.encryption.comparison.service;
+
+/**
+ * Counterpart of {@link CryptoService} for digital signatures: key pairs are {@code {public, private}} as there,
+ * {@code sign} uses the private key and {@code verify} the public key.
+ */
+public interface SignatureService {
+    String getAlgorithmName();
+    byte[] sign(byte[] data, Object privateKey) throws Exception;
+    boolean verify(byte[] data, byte[] signature, Object publicKey) throws Exception;
+    Object[] generateKeyPair(int keySize) throws Exception;
+    int[] getSupportedKeySizes();
+
+    // JCA provider selection, as for CryptoService
+    String getProvider();
+    String[] getSupportedProviders();
+    SignatureService withProvider(String provider);
+
+    static void checkProvider(SignatureService service, String provider) {
+        for (String supported : service.getSupportedProviders()) {
+            if (supported.equals(provider)) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Provider " + provider + " is not supported by "
+                + service.getAlgorithmName() + ", expected one of " + String.join(", ", service.getSupportedProviders()));
+    }
+}
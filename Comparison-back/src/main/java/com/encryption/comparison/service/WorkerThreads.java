@@ -0,0 +1,111 @@
+package com.encryption.comparison.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the background workers, either daemon platform threads or virtual threads.
+ * <p>
+ * The build targets Java 17, so the Java 21 virtual thread API is reached reflectively; on an older runtime
+ * {@link #virtualThreadsSupported()} is {@code false} and asking for virtual threads fails fast. With
+ * {@code spring.threads.virtual.enabled=true} on Java 21, Spring Boot moves Tomcat request handling to virtual
+ * threads as well.
+ */
+public final class WorkerThreads {
+
+    private static final Method OF_VIRTUAL = lookup(Thread.class, "ofVirtual");
+    private static final Method NEW_VIRTUAL_PER_TASK = lookup(Executors.class, "newVirtualThreadPerTaskExecutor");
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    private WorkerThreads() {
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * {@code Thread.isVirtual()}, always {@code false} before Java 21.
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot call Thread.isVirtual", e);
+        }
+    }
+
+    /**
+     * Factory naming threads {@code namePrefix + n}; platform threads are daemons so they never block shutdown.
+     *
+     * @throws UnsupportedOperationException if {@code virtual} is requested on a runtime older than Java 21
+     */
+    public static ThreadFactory factory(String namePrefix, boolean virtual) {
+        if (!virtual) {
+            AtomicInteger counter = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        requireVirtualThreads();
+        try {
+            // Thread.ofVirtual().name(namePrefix, 1).factory()
+            // Methods are taken from the public Thread.Builder interface, the implementation class is not exported
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread factory", e);
+        }
+    }
+
+    /**
+     * One new virtual thread per task, the virtual-thread counterpart of a thread-per-request pool.
+     *
+     * @throws UnsupportedOperationException on a runtime older than Java 21
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        requireVirtualThreads();
+        try {
+            return (ExecutorService) NEW_VIRTUAL_PER_TASK.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+
+    private static void requireVirtualThreads() {
+        if (!virtualThreadsSupported()) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later, running on "
+                    + System.getProperty("java.version"));
+        }
+    }
+
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static Method lookup(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.encryption.comparison.controller;
+
+import com.encryption.comparison.service.EccAesHybridService;
+import com.encryption.comparison.service.EccCryptoService;
+import com.encryption.comparison.service.RsaAesGcmHybridService;
+import com.encryption.comparison.service.RsaAesHybridService;
+import com.encryption.comparison.service.RsaCryptoService;
+import com.encryption.comparison.service.SessionKeyStore;
+import jakarta.servlet.ServletContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.AbstractMockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "crypto.binary.max-payload-bytes=4096")
+@AutoConfigureMockMvc
+class BinaryEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private SessionKeyStore sessionKeys;
+    @Autowired
+    private RsaCryptoService rsaService;
+    @Autowired
+    private EccCryptoService eccService;
+    @Autowired
+    private RsaAesHybridService rsaAesHybridService;
+    @Autowired
+    private EccAesHybridService eccAesHybridService;
+    @Autowired
+    private RsaAesGcmHybridService rsaAesGcmHybridService;
+
+    @Test
+    void testRoundTripForEveryAlgorithm() throws Exception {
+        Map<String, Object[]> keyPairs = Map.of(
+                "rsa", rsaService.generateKeyPair(2048),
+                "ecc", eccService.generateKeyPair(256),
+                "rsa-aes", rsaAesHybridService.generateKeyPair(2048),
+                "ecc-aes", eccAesHybridService.generateKeyPair(256),
+                "rsa-aes-gcm", rsaAesGcmHybridService.generateKeyPair(2048));
+        byte[] plaintext = randomBytes(200); // Fits raw RSA-2048 PKCS#1
+
+        for (Map.Entry<String, Object[]> entry : keyPairs.entrySet()) {
+            String sessionId = session(entry.getKey(), entry.getValue());
+            byte[] ciphertext = binary("/api/crypto/binary/encrypt", sessionId, entry.getKey(), plaintext)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertFalse(Arrays.equals(plaintext, ciphertext), entry.getKey());
+
+            byte[] decrypted = binary("/api/crypto/binary/decrypt", sessionId, entry.getKey(), ciphertext)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertArrayEquals(plaintext, decrypted, entry.getKey());
+        }
+    }
+
+    @Test
+    void testUnknownAlgorithmAndSession() throws Exception {
+        String sessionId = session("ecc-aes", eccAesHybridService.generateKeyPair(256));
+
+        binary("/api/crypto/binary/encrypt", sessionId, "des", randomBytes(16))
+                .andExpect(status().isBadRequest());
+        binary("/api/crypto/binary/encrypt", UUID.randomUUID().toString(), "ecc-aes", randomBytes(16))
+                .andExpect(status().isNotFound());
+        binary("/api/crypto/binary/decrypt", UUID.randomUUID().toString(), "rsa-aes", randomBytes(16))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPayloadOverTheLimitIsRejected() throws Exception {
+        String sessionId = session("ecc-aes", eccAesHybridService.generateKeyPair(256));
+
+        binary("/api/crypto/binary/encrypt", sessionId, "ecc-aes", randomBytes(4097))
+                .andExpect(status().isPayloadTooLarge());
+
+        // No Content-Length: the limit is enforced while reading
+        mockMvc.perform(chunked("/api/crypto/binary/encrypt", sessionId, "ecc-aes", randomBytes(4097)))
+                .andExpect(status().isPayloadTooLarge());
+        mockMvc.perform(chunked("/api/crypto/binary/encrypt", sessionId, "ecc-aes", randomBytes(4096)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testCorruptCiphertextIsABadRequest() throws Exception {
+        for (String algorithm : new String[] { "rsa-aes", "ecc-aes" }) {
+            Object[] keyPair = algorithm.equals("rsa-aes")
+                    ? rsaAesHybridService.generateKeyPair(2048) : eccAesHybridService.generateKeyPair(256);
+            String sessionId = session(algorithm, keyPair);
+            byte[] ciphertext = binary("/api/crypto/binary/encrypt", sessionId, algorithm, randomBytes(100))
+                    .andReturn().getResponse().getContentAsByteArray();
+            ciphertext[10] ^= 1; // Inside the wrapped key / ephemeral public key
+
+            binary("/api/crypto/binary/decrypt", sessionId, algorithm, ciphertext)
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void testStreamingFailureAfterCommitIsNotASuccess() throws Exception {
+        String sessionId = session("rsa-aes", rsaAesHybridService.generateKeyPair(2048));
+        byte[] ciphertext = binary("/api/crypto/binary/encrypt", sessionId, "rsa-aes", randomBytes(256 * 1024))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] truncated = Arrays.copyOf(ciphertext, ciphertext.length - 1);
+
+        // Most of the body has been written when the last block fails; the error must reach the container
+        // (which drops the connection) instead of completing a 200
+        assertThrows(Exception.class,
+                () -> binary("/api/crypto/binary/decrypt", sessionId, "rsa-aes", truncated));
+    }
+
+    private String session(String algorithm, Object[] keyPair) {
+        String sessionId = UUID.randomUUID().toString();
+        sessionKeys.put(algorithm + "-" + sessionId, keyPair);
+        return sessionId;
+    }
+
+    private ResultActions binary(String path, String sessionId, String algorithm, byte[] body) throws Exception {
+        MockHttpServletRequestBuilder request = post(path)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Session-Id", sessionId)
+                .header("X-Algorithm", algorithm)
+                .content(body);
+        return mockMvc.perform(request);
+    }
+
+    private static ChunkedRequestBuilder chunked(String path, String sessionId, String algorithm, byte[] body) {
+        return new ChunkedRequestBuilder(path)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Session-Id", sessionId)
+                .header("X-Algorithm", algorithm)
+                .content(body);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * A request without a Content-Length, as sent with {@code Transfer-Encoding: chunked}.
+     */
+    private static class ChunkedRequestBuilder extends AbstractMockHttpServletRequestBuilder<ChunkedRequestBuilder> {
+
+        ChunkedRequestBuilder(String path) {
+            super(HttpMethod.POST);
+            uri(path);
+        }
+
+        @Override
+        protected MockHttpServletRequest createServletRequest(ServletContext servletContext) {
+            return new MockHttpServletRequest(servletContext) {
+                @Override
+                public int getContentLength() {
+                    return -1;
+                }
+
+                @Override
+                public long getContentLengthLong() {
+                    return -1;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.encryption.comparison.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchCryptoServiceTests {
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private ForkJoinPool pool;
+    private BatchCryptoService batchService;
+
+    @BeforeEach
+    void setUp() {
+        // Small chunks and a dedicated pool so that the parallel path runs even on a single-core machine
+        pool = new ForkJoinPool(4);
+        batchService = new BatchCryptoService(3, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testBatchRoundTripForEveryService() throws Exception {
+        List<CryptoService> services = List.of(new RsaCryptoService(), new EccCryptoService(),
+                new RsaAesHybridService(), new RsaAesGcmHybridService(), new EccAesHybridService());
+
+        for (CryptoService service : services) {
+            Object[] keyPair = service.generateKeyPair(service.getSupportedKeySizes()[1]);
+            byte[][] items = randomItems(10, 48);
+
+            Exception[] encryptErrors = new Exception[items.length];
+            byte[][] encrypted = batchService.encrypt(service, items, keyPair[0], encryptErrors);
+            Exception[] decryptErrors = new Exception[items.length];
+            byte[][] decrypted = batchService.decrypt(service, encrypted, keyPair[1], decryptErrors);
+
+            for (int i = 0; i < items.length; i++) {
+                assertNull(encryptErrors[i], service.getAlgorithmName() + " item " + i);
+                assertNull(decryptErrors[i], service.getAlgorithmName() + " item " + i);
+                assertArrayEquals(items[i], decrypted[i], service.getAlgorithmName() + " item " + i);
+            }
+            // One initialised cipher must still produce independent ciphertexts for equal plaintexts
+            byte[][] same = batchService.encrypt(service, new byte[][] { items[0], items[0] }, keyPair[0],
+                    new Exception[2]);
+            assertFalse(Arrays.equals(same[0], same[1]), service.getAlgorithmName());
+        }
+    }
+
+    @Test
+    void testFailingItemDoesNotAffectTheRest() throws Exception {
+        RsaCryptoService rsaService = new RsaCryptoService();
+        Object[] keyPair = rsaService.generateKeyPair(2048);
+        byte[][] items = randomItems(7, 32);
+        items[2] = new byte[300]; // Over the 245-byte PKCS#1 limit for RSA-2048
+
+        Exception[] errors = new Exception[items.length];
+        byte[][] encrypted = batchService.encrypt(rsaService, items, keyPair[0], errors);
+        assertInstanceOf(IllegalArgumentException.class, errors[2]);
+        assertNull(encrypted[2]);
+
+        encrypted[2] = new byte[256]; // Garbage ciphertext fails padding checks on decrypt
+        errors = new Exception[items.length];
+        byte[][] decrypted = batchService.decrypt(rsaService, encrypted, keyPair[1], errors);
+        assertNotNull(errors[2]);
+        for (int i = 0; i < items.length; i++) {
+            if (i != 2) {
+                assertNull(errors[i]);
+                assertArrayEquals(items[i], decrypted[i]);
+            }
+        }
+    }
+
+    @Test
+    void testItemsWithExistingErrorsAreSkipped() throws Exception {
+        RsaAesHybridService service = new RsaAesHybridService();
+        Object[] keyPair = service.generateKeyPair(2048);
+        byte[][] items = randomItems(4, 16);
+        Exception[] errors = new Exception[items.length];
+        IllegalArgumentException rejected = new IllegalArgumentException("rejected by caller");
+        errors[1] = rejected;
+
+        byte[][] encrypted = batchService.encrypt(service, items, keyPair[0], errors);
+        assertSame(rejected, errors[1]);
+        assertNull(encrypted[1]);
+        assertNotNull(encrypted[0]);
+        assertNotNull(encrypted[3]);
+    }
+
+    private byte[][] randomItems(int count, int size) {
+        byte[][] items = new byte[count][size];
+        for (byte[] item : items) {
+            secureRandom.nextBytes(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,206 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.ComparisonJobStatus;
+import com.encryption.comparison.model.CryptoTestConfig;
+import com.encryption.comparison.model.CryptoTestResult;
+import com.encryption.comparison.model.JobStatus;
+import com.encryption.comparison.model.LoadTestResult;
+import com.encryption.comparison.model.SweepConfig;
+import com.encryption.comparison.model.SweepResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComparisonJobServiceTests {
+
+    private ComparisonJobService jobService;
+    private KeyPairPool keyPairPool;
+
+    @BeforeEach
+    void setUp() {
+        CryptoComparisonService comparisonService = new CryptoComparisonService(new RsaCryptoService(),
+                new EccCryptoService(), new RsaAesHybridService(), new EccAesHybridService(),
+                new SecurityEstimatorService(), List.of());
+        List<CryptoService> services = List.of(new EccCryptoService());
+        LoadGenerationService loadService = new LoadGenerationService(services, 2);
+        ParameterSweepService sweepService = new ParameterSweepService(services, loadService, 20, 1024, 10, 1);
+        // One worker, one queued job, history disabled
+        keyPairPool = new KeyPairPool(services, 1, 1, List.of());
+        jobService = new ComparisonJobService(comparisonService, sweepService, loadService,
+                new ResultHistoryService("", "test"), keyPairPool, 1, 1, 10, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+        keyPairPool.shutdown();
+    }
+
+    @Test
+    void testJobRunsToCompletion() throws Exception {
+        CryptoTestConfig config = quickConfig(2);
+        ComparisonJobStatus submitted = jobService.submit(config);
+        assertEquals(8, submitted.getTotalCases());
+
+        ComparisonJobStatus status = awaitFinished(submitted.getJobId());
+        assertEquals(JobStatus.COMPLETED, status.getStatus());
+        assertEquals(8, status.getCompletedCases());
+        assertEquals(1.0, status.getProgress());
+        assertNotNull(status.getStartedAt());
+        assertNotNull(status.getFinishedAt());
+
+        List<CryptoTestResult> results = jobService.getResults(submitted.getJobId());
+        assertEquals(8, results.size());
+        assertTrue(results.stream().allMatch(CryptoTestResult::isSuccess));
+    }
+
+    @Test
+    void testRerunIsRecordedAgainstItsBaseline() throws Exception {
+        ComparisonJobStatus submitted = jobService.submitRerun("baseline-run", quickConfig(1));
+        assertEquals(ComparisonJobService.TYPE_COMPARISON, submitted.getType());
+        assertEquals("baseline-run", submitted.getBaselineRunId());
+        assertNull(submitted.getRunId());
+
+        ComparisonJobStatus status = awaitFinished(submitted.getJobId());
+        assertEquals(JobStatus.COMPLETED, status.getStatus());
+        assertEquals("baseline-run", status.getBaselineRunId());
+        assertNotNull(status.getRunId());
+        assertNull(jobService.submit(quickConfig(1)).getBaselineRunId());
+    }
+
+    @Test
+    void testQueueIsBoundedAndJobsCanBeCancelled() throws Exception {
+        ComparisonJobStatus running = jobService.submit(quickConfig(500));
+        ComparisonJobStatus queued = jobService.submit(quickConfig(1));
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit(quickConfig(1)));
+
+        assertEquals(JobStatus.CANCELLED, jobService.cancel(queued.getJobId()).getStatus());
+        jobService.cancel(running.getJobId());
+
+        ComparisonJobStatus status = awaitFinished(running.getJobId());
+        assertEquals(JobStatus.CANCELLED, status.getStatus());
+        assertTrue(status.getCompletedCases() < status.getTotalCases());
+
+        // Cancelled jobs free their queue slot
+        ComparisonJobStatus next = jobService.submit(quickConfig(1));
+        assertEquals(JobStatus.COMPLETED, awaitFinished(next.getJobId()).getStatus());
+    }
+
+    @Test
+    void testStreamingJobHandsOverEachResult() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+        CompletableFuture<ComparisonJobStatus> finished = new CompletableFuture<>();
+        ComparisonJobStatus submitted = jobService.stream(quickConfig(2),
+                status -> events.add("started"),
+                result -> events.add(result.getAlgorithm()),
+                finished::complete);
+
+        ComparisonJobStatus status = finished.get(60, TimeUnit.SECONDS);
+        assertEquals(submitted.getJobId(), status.getJobId());
+        assertEquals(JobStatus.COMPLETED, status.getStatus());
+        assertEquals(8, status.getCompletedCases());
+        assertEquals(List.of("started", "RSA", "ECC", "RSA+AES Hybrid", "ECC+AES Hybrid",
+                "RSA", "ECC", "RSA+AES Hybrid", "ECC+AES Hybrid"), events);
+        // Streamed results are not kept on the job
+        assertTrue(jobService.getResults(submitted.getJobId()).isEmpty());
+    }
+
+    @Test
+    void testSweepRunsAsAJob() throws Exception {
+        SweepConfig config = new SweepConfig();
+        config.setDataSizes(new int[] { 16, 64 });
+        config.setThreadCounts(new int[] { 1, 2 });
+        config.setWarmupIterations(1);
+        config.setMeasurementIterations(2);
+        ComparisonJobStatus submitted = jobService.submitSweep(config);
+        assertEquals(ComparisonJobService.TYPE_SWEEP, submitted.getType());
+        // ECC's three key sizes x two payloads x two thread counts
+        assertEquals(12, submitted.getTotalCases());
+
+        ComparisonJobStatus status = awaitFinished(submitted.getJobId());
+        assertEquals(JobStatus.COMPLETED, status.getStatus());
+        assertEquals(12, status.getCompletedCases());
+        SweepResult result = jobService.getSweepResult(submitted.getJobId());
+        assertEquals(12, result.getCellCount());
+        assertEquals(12, result.getSuccessCount());
+        // Sweeps are not comparison runs
+        assertTrue(jobService.getResults(submitted.getJobId()).isEmpty());
+        assertNull(status.getRunId());
+
+        // Invalid sweeps are rejected before they take a queue slot
+        config.setMeasurementIterations(11);
+        assertThrows(IllegalArgumentException.class, () -> jobService.submitSweep(config));
+    }
+
+    @Test
+    void testLoadTestRunsAsAJob() throws Exception {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setLoadAlgorithm("ECC");
+        config.setLoadOperation("encrypt");
+        config.setLoadKeySize(256);
+        config.setThreadCounts(new int[] { 1, 2 });
+        config.setLoadDurationSeconds(1);
+        config.setWarmupIterations(2);
+        ComparisonJobStatus submitted = jobService.submitLoadTest(config);
+        assertEquals(ComparisonJobService.TYPE_LOAD, submitted.getType());
+        assertEquals(2, submitted.getTotalCases());
+
+        ComparisonJobStatus status = awaitFinished(submitted.getJobId());
+        assertEquals(JobStatus.COMPLETED, status.getStatus());
+        List<LoadTestResult> results = jobService.getLoadResults(submitted.getJobId());
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(LoadTestResult::isSuccess));
+        assertNull(status.getRunId());
+        assertNull(jobService.getLoadResults("missing"));
+
+        // Invalid load tests are rejected before they take a queue slot
+        config.setLoadDurationSeconds(3);
+        assertThrows(IllegalArgumentException.class, () -> jobService.submitLoadTest(config));
+        config.setLoadDurationSeconds(1);
+        config.setThreadCounts(new int[] { 1025 });
+        assertThrows(IllegalArgumentException.class, () -> jobService.submitLoadTest(config));
+    }
+
+    @Test
+    void testUnknownJob() {
+        assertNull(jobService.getStatus("missing"));
+        assertNull(jobService.getResults("missing"));
+        assertNull(jobService.cancel("missing"));
+        assertNull(jobService.getSweepResult("missing"));
+    }
+
+    private ComparisonJobStatus awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (System.currentTimeMillis() < deadline) {
+            ComparisonJobStatus status = jobService.getStatus(jobId);
+            if (status.getStatus() != JobStatus.QUEUED && status.getStatus() != JobStatus.RUNNING) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+
+    private static CryptoTestConfig quickConfig(int dataSizeCount) {
+        CryptoTestConfig config = new CryptoTestConfig();
+        int[] dataSizes = new int[dataSizeCount];
+        Arrays.fill(dataSizes, 16);
+        config.setDataSizes(dataSizes);
+        config.setRsaKeySize(1024);
+        config.setEccKeySize(256);
+        config.setWarmupIterations(1);
+        config.setMeasurementIterations(2);
+        config.setKeyGenerationWarmupIterations(0);
+        config.setKeyGenerationIterations(1);
+        return config;
+    }
+}
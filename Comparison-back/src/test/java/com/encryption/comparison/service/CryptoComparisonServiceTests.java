@@ -1,15 +1,20 @@
 package com.encryption.comparison.service;
 
+import com.encryption.comparison.model.AllocationProfile;
 import com.encryption.comparison.model.CryptoTestConfig;
 import com.encryption.comparison.model.CryptoTestResult;
+import com.encryption.comparison.model.LatencyStats;
+import com.encryption.comparison.model.RsaDecryptBreakdown;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @SpringJUnitConfig
 @SpringBootTest
@@ -25,7 +30,9 @@ class CryptoComparisonServiceTests {
         rsaService = new RsaCryptoService();
         eccService = new EccCryptoService();
         securityEstimator = new SecurityEstimatorService();
-        comparisonService = new CryptoComparisonService(rsaService, eccService, securityEstimator);
+        comparisonService = new CryptoComparisonService(rsaService, eccService,
+                new RsaAesHybridService(), new EccAesHybridService(), securityEstimator,
+                List.of(new RsaPssSignatureService(), new EcdsaSignatureService(), new Ed25519SignatureService()));
     }
 
     @Test
@@ -37,7 +44,7 @@ class CryptoComparisonServiceTests {
 
         List<CryptoTestResult> results = comparisonService.runComparison(config);
 
-        assertEquals(4, results.size(), "Should have 2 algorithms × 2 data sizes = 4 results");
+        assertEquals(8, results.size(), "Should have 4 algorithms × 2 data sizes = 8 results");
 
         // Verify all tests succeeded
         for (CryptoTestResult result : results) {
@@ -51,11 +58,11 @@ class CryptoComparisonServiceTests {
             assertTrue(result.getDecryptionTime() >= 0);
         }
 
-        // Verify we have both algorithms
-        long rsaCount = results.stream().filter(r -> "RSA".equals(r.getAlgorithm())).count();
-        long eccCount = results.stream().filter(r -> "ECC".equals(r.getAlgorithm())).count();
-        assertEquals(2, rsaCount, "Should have 2 RSA results");
-        assertEquals(2, eccCount, "Should have 2 ECC results");
+        // Verify we have every algorithm
+        for (String algorithm : List.of("RSA", "ECC", "RSA+AES Hybrid", "ECC+AES Hybrid")) {
+            long count = results.stream().filter(r -> algorithm.equals(r.getAlgorithm())).count();
+            assertEquals(2, count, "Should have 2 " + algorithm + " results");
+        }
     }
 
     @Test
@@ -80,12 +87,191 @@ class CryptoComparisonServiceTests {
         assertNotNull(rsaResult);
         assertNotNull(eccResult);
 
-        // RSA should fail with large data
-        assertFalse(rsaResult.isSuccess(), "RSA should fail with data too large for key size");
-        assertNotNull(rsaResult.getErrorMessage());
+        // RSA falls back to the hybrid envelope for data too large for one block
+        assertTrue(rsaResult.isSuccess(), "RSA should dispatch large data to the hybrid path");
+        assertEquals("hybrid", rsaResult.getRsaPath());
+        assertNull(eccResult.getRsaPath());
 
-        // ECC should succeed
+        // ECC and both hybrids should succeed
         assertTrue(eccResult.isSuccess(), "ECC should handle large data fine");
+        results.stream()
+                .filter(r -> r.getAlgorithm().endsWith("Hybrid"))
+                .forEach(r -> assertTrue(r.isSuccess(), r.getAlgorithm() + " should handle large data fine"));
+    }
+
+    @Test
+    void testRsaPathSelection() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setDataSizes(new int[] { 100, 300 });
+        config.setRsaKeySize(1024);
+        config.setEccKeySize(256);
+        config.setMeasurementIterations(5);
+
+        List<CryptoTestResult> auto = rsaResults(config);
+        assertEquals(List.of("raw", "hybrid"), auto.stream().map(CryptoTestResult::getRsaPath).toList());
+        assertTrue(auto.stream().allMatch(CryptoTestResult::isSuccess));
+
+        config.setRsaPath("multi-block");
+        List<CryptoTestResult> multiBlock = rsaResults(config);
+        assertEquals(List.of("multi-block", "multi-block"), multiBlock.stream().map(CryptoTestResult::getRsaPath).toList());
+        assertTrue(multiBlock.stream().allMatch(CryptoTestResult::isSuccess));
+
+        // Forcing raw RSA keeps the old behaviour: data above one block fails
+        config.setRsaPath("raw");
+        List<CryptoTestResult> raw = rsaResults(config);
+        assertTrue(raw.get(0).isSuccess());
+        assertFalse(raw.get(1).isSuccess(), "RSA should fail with data too large for key size");
+        assertNotNull(raw.get(1).getErrorMessage());
+
+        config.setRsaPath("oaep");
+        assertThrows(IllegalArgumentException.class, () -> comparisonService.runComparison(config));
+    }
+
+    @Test
+    void testRsaKeyFormsAndDecryptBreakdown() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setDataSizes(new int[] { 100 });
+        config.setRsaKeySize(2048);
+        config.setWarmupIterations(2);
+        config.setMeasurementIterations(10);
+        config.setRsaKeyForms(new String[] { "crt", "non-crt", "pkcs8" });
+        config.setRsaDecryptBreakdown(true);
+
+        List<CryptoTestResult> rsa = rsaResults(config);
+        assertEquals(List.of("crt", "non-crt", "pkcs8"), rsa.stream().map(CryptoTestResult::getRsaKeyForm).toList());
+        assertTrue(rsa.stream().allMatch(CryptoTestResult::isSuccess));
+        // A key re-read from its PKCS#8 encoding keeps its CRT parameters, a non-CRT key has none
+        assertEquals(List.of(true, false, true), rsa.stream().map(CryptoTestResult::getRsaCrtKey).toList());
+
+        for (CryptoTestResult result : rsa) {
+            RsaDecryptBreakdown breakdown = result.getRsaDecryptBreakdown();
+            assertNotNull(breakdown);
+            assertEquals(result.getRsaCrtKey(), breakdown.isCrt());
+            assertEquals(10, breakdown.getSamples());
+            assertTrue(breakdown.getExponentiationTime() > breakdown.getPaddingTime(),
+                    "The exponentiation should dominate the private-key operation");
+        }
+        // CRT does two half-size exponentiations instead of one full-size one
+        assertTrue(rsa.get(1).getRsaDecryptBreakdown().getExponentiationTime()
+                > rsa.get(0).getRsaDecryptBreakdown().getExponentiationTime());
+
+        // Other algorithms carry no key form; the breakdown stays off unless requested
+        assertTrue(comparisonService.runComparison(config).stream()
+                .filter(r -> !r.getAlgorithm().equals("RSA"))
+                .allMatch(r -> r.getRsaKeyForm() == null && r.getRsaDecryptBreakdown() == null));
+        config.setRsaKeyForms(new String[] { "crt" });
+        config.setRsaDecryptBreakdown(false);
+        assertNull(rsaResults(config).get(0).getRsaDecryptBreakdown());
+
+        config.setRsaKeyForms(new String[] { "jwk" });
+        assertThrows(IllegalArgumentException.class, () -> comparisonService.runComparison(config));
+    }
+
+    @Test
+    void testComparisonWithSignatures() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setDataSizes(new int[] { 1024 });
+        config.setRsaKeySize(2048);
+        config.setEccKeySize(384);
+        config.setMeasurementIterations(5);
+        config.setSignatureAlgorithms(new String[] { "RSA-PSS", "ECDSA", "Ed25519" });
+
+        assertEquals(7, comparisonService.countCases(config));
+        List<CryptoTestResult> results = comparisonService.runComparison(config);
+        assertEquals(7, results.size());
+
+        List<CryptoTestResult> signatures = results.subList(4, 7);
+        assertEquals(List.of("RSA-PSS", "ECDSA", "Ed25519"),
+                signatures.stream().map(CryptoTestResult::getAlgorithm).toList());
+        assertEquals(List.of(2048, 384, 255), signatures.stream().map(CryptoTestResult::getKeySize).toList());
+        for (CryptoTestResult result : signatures) {
+            assertTrue(result.isSuccess(), result.getAlgorithm() + ": " + result.getErrorMessage());
+            assertTrue(result.getSigningTime() > 0);
+            assertTrue(result.getVerificationTime() > 0);
+            assertEquals(5, result.getVerificationStats().getSamples());
+            assertTrue(result.getVerificationStats().getOpsPerSecond() > 0);
+            assertNull(result.getEncryptionStats());
+            assertNotNull(result.getSecurityEstimate().getEstimatedBreakTime());
+        }
+        assertEquals(256, signatures.get(0).getSignatureSize());
+        assertTrue(signatures.get(1).getSignatureSize() <= 104); // DER-encoded P-384 signature
+        assertEquals(64, signatures.get(2).getSignatureSize());
+
+        config.setSignatureAlgorithms(new String[] { "DSA" });
+        assertThrows(IllegalArgumentException.class, () -> comparisonService.runComparison(config));
+    }
+
+    @Test
+    void testAllocationProfileIsPopulated() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        int dataSize = 64 * 1024;
+        config.setDataSizes(new int[] { dataSize });
+        config.setMeasurementIterations(5);
+        config.setSignatureAlgorithms(new String[] { "Ed25519" });
+
+        List<CryptoTestResult> results = comparisonService.runComparison(config);
+        for (CryptoTestResult result : results) {
+            assertTrue(result.isSuccess(), result.getAlgorithm() + ": " + result.getErrorMessage());
+            AllocationProfile allocation = result.getAllocation();
+            assertNotNull(allocation, result.getAlgorithm());
+            assertTrue(allocation.getKeyGenerationBytes() > 0);
+            assertTrue(allocation.getGcCount() >= 0);
+            assertTrue(allocation.getGcTime() >= 0);
+            assertTrue(allocation.getPeakHeapDelta() >= 0);
+            assertFalse(allocation.isOverlapped());
+        }
+
+        // The hybrid envelope allocates its result once, plus the RSA operation
+        AllocationProfile hybrid = results.stream()
+                .filter(r -> "RSA+AES Hybrid".equals(r.getAlgorithm()))
+                .findFirst().orElseThrow().getAllocation();
+        assertTrue(hybrid.getEncryptionBytes() >= dataSize && hybrid.getEncryptionBytes() < 2L * dataSize,
+                "Encryption allocated " + hybrid.getEncryptionBytes() + " bytes");
+        assertTrue(hybrid.getDecryptionBytes() >= dataSize && hybrid.getDecryptionBytes() < 2L * dataSize,
+                "Decryption allocated " + hybrid.getDecryptionBytes() + " bytes");
+
+        AllocationProfile ed25519 = results.get(results.size() - 1).getAllocation();
+        assertTrue(ed25519.getSigningBytes() > 0 && ed25519.getVerificationBytes() > 0);
+        assertEquals(0, ed25519.getEncryptionBytes());
+    }
+
+    @Test
+    void testAllocationOnTheCommonPoolIsCounted() throws Exception {
+        long before = AllocationProbe.allocatedBytes();
+        assumeTrue(before >= 0, "No per-thread allocation counter");
+        int size = 8 * 1024 * 1024;
+
+        // Parallel services leave the calling thread waiting while the pool's workers allocate
+        byte[] allocatedByWorker = ForkJoinPool.commonPool().submit(() -> new byte[size]).get();
+
+        assertEquals(size, allocatedByWorker.length);
+        assertTrue(AllocationProbe.perOperation(before, 1) >= size);
+    }
+
+    @Test
+    void testOverlappingCasesAreFlagged() {
+        assumeTrue(AllocationProbe.allocatedBytes() >= 0, "No per-thread allocation counter");
+        AllocationProbe first = AllocationProbe.start();
+        AllocationProfile second = new AllocationProfile();
+        try (first; AllocationProbe probe = AllocationProbe.start()) {
+            probe.finish(second);
+        }
+        AllocationProfile firstProfile = new AllocationProfile();
+        first.finish(firstProfile);
+        assertTrue(second.isOverlapped());
+        assertTrue(firstProfile.isOverlapped());
+
+        AllocationProfile alone = new AllocationProfile();
+        try (AllocationProbe probe = AllocationProbe.start()) {
+            probe.finish(alone);
+        }
+        assertFalse(alone.isOverlapped());
+    }
+
+    private List<CryptoTestResult> rsaResults(CryptoTestConfig config) {
+        return comparisonService.runComparison(config).stream()
+                .filter(r -> "RSA".equals(r.getAlgorithm()))
+                .toList();
     }
 
     @Test
@@ -127,4 +313,75 @@ class CryptoComparisonServiceTests {
             }
         }
     }
+
+    @Test
+    void testLatencyStatisticsArePopulated() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setDataSizes(new int[] { 32 });
+        config.setWarmupIterations(5);
+        config.setMeasurementIterations(20);
+        config.setKeyGenerationIterations(2);
+
+        List<CryptoTestResult> results = comparisonService.runComparison(config);
+
+        for (CryptoTestResult result : results) {
+            assertTrue(result.isSuccess(), result.getAlgorithm() + " should succeed");
+            assertEquals(5, result.getWarmupIterations());
+            assertEquals(20, result.getMeasurementIterations());
+            assertEquals(2, result.getKeyGenerationStats().getSamples());
+
+            for (LatencyStats stats : List.of(result.getEncryptionStats(), result.getDecryptionStats())) {
+                assertEquals(20, stats.getSamples());
+                assertTrue(stats.getMin() <= stats.getMedian());
+                assertTrue(stats.getMedian() <= stats.getP90());
+                assertTrue(stats.getP90() <= stats.getP99());
+                assertTrue(stats.getP99() <= stats.getMax());
+                assertTrue(stats.getMean() >= stats.getMin() && stats.getMean() <= stats.getMax());
+                assertTrue(stats.getStdDev() >= 0);
+                assertTrue(stats.getOpsPerSecond() > 0);
+            }
+            assertEquals(result.getEncryptionStats().getMean(), result.getEncryptionTime());
+            assertEquals(result.getDecryptionStats().getMean(), result.getDecryptionTime());
+        }
+    }
+
+    @Test
+    void testLatencyStatsFromKnownSamples() {
+        long[] nanos = new long[100];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = (i + 1) * 1_000_000L; // 1ms .. 100ms
+        }
+
+        LatencyStats stats = LatencyStats.fromNanos(nanos);
+
+        assertEquals(100, stats.getSamples());
+        assertEquals(1.0, stats.getMin(), 1e-9);
+        assertEquals(50.5, stats.getMean(), 1e-9);
+        assertEquals(50.0, stats.getMedian(), 1e-9);
+        assertEquals(90.0, stats.getP90(), 1e-9);
+        assertEquals(99.0, stats.getP99(), 1e-9);
+        assertEquals(100.0, stats.getMax(), 1e-9);
+        assertEquals(1000.0 / 50.5, stats.getOpsPerSecond(), 1e-9);
+    }
+
+    @Test
+    void testProviderSweep() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setDataSizes(new int[] { 32 });
+        config.setWarmupIterations(2);
+        config.setMeasurementIterations(5);
+        config.setKeyGenerationIterations(1);
+        config.setProviders(new String[] { "SunJCE", "SunEC", "BC" });
+
+        List<CryptoTestResult> results = comparisonService.runComparison(config);
+
+        // RSA, RSA+AES: SunJCE and BC; ECC, ECC+AES: SunEC and BC
+        assertEquals(8, results.size());
+        for (CryptoTestResult result : results) {
+            assertTrue(result.isSuccess(), result.getAlgorithm() + " on " + result.getProvider()
+                    + " should succeed: " + result.getErrorMessage());
+        }
+        assertTrue(results.stream().anyMatch(r -> "RSA".equals(r.getAlgorithm()) && "BC".equals(r.getProvider())));
+        assertTrue(results.stream().anyMatch(r -> "ECC".equals(r.getAlgorithm()) && "SunEC".equals(r.getProvider())));
+    }
 }
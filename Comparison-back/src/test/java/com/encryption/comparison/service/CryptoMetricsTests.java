@@ -0,0 +1,103 @@
+package com.encryption.comparison.service;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CryptoMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        Metrics.globalRegistry.add(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.globalRegistry.remove(registry);
+        registry.close();
+    }
+
+    @Test
+    void testOperationsAreTimedWithTags() throws Exception {
+        RsaCryptoService rsaService = new RsaCryptoService();
+        // 1024 bits: no key pair pool of another test's Spring context generates this size in the background
+        Object[] keyPair = rsaService.generateKeyPair(1024);
+        byte[] encrypted = rsaService.encrypt(new byte[100], keyPair[0]);
+        rsaService.decrypt(encrypted, keyPair[1]);
+        assertThrows(IllegalArgumentException.class, () -> rsaService.encrypt(new byte[300], keyPair[0]));
+
+        assertEquals(1, timer("RSA", "generateKeyPair", "1024", "none", "success").count());
+        assertEquals(1, timer("RSA", "encrypt", "1024", "65B-1KB", "success").count());
+        assertEquals(1, timer("RSA", "decrypt", "1024", "65B-1KB", "success").count());
+        assertEquals(1, timer("RSA", "encrypt", "1024", "65B-1KB", "error").count());
+    }
+
+    @Test
+    void testUnsupportedKeySizesShareOneTimer() throws Exception {
+        EccCryptoService eccService = new EccCryptoService();
+        // Unknown sizes fall back to the default curve, so any client-chosen value would otherwise get a timer
+        for (int keySize : new int[] { 1, 2, 3 }) {
+            eccService.generateKeyPair(keySize);
+        }
+
+        assertEquals(3, registry.find(CryptoMetrics.METRIC_NAME)
+                .tag("algorithm", "ECC")
+                .tag("operation", "generateKeyPair")
+                .tag("keySize", CryptoMetrics.INVALID_KEY_SIZE)
+                .timer().count());
+        assertNull(registry.find(CryptoMetrics.METRIC_NAME).tag("keySize", "1").timer());
+    }
+
+    @Test
+    void testBatchesAndStreamsAreTimedAsOneSample() throws Exception {
+        RsaAesHybridService service = new RsaAesHybridService();
+        Object[] keyPair = service.generateKeyPair(1024);
+        byte[][] items = new byte[10][2048];
+        service.encryptBatch(items, keyPair[0], new Exception[items.length]);
+
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        service.encrypt(new ByteArrayInputStream(new byte[100_000]), encrypted, keyPair[0]);
+
+        assertEquals(1, timer("RSA+AES Hybrid", "encrypt_batch", "1024", "16-256KB", "success").count());
+        assertEquals(1, timer("RSA+AES Hybrid", "encrypt_stream", "1024", "16-256KB", "success").count());
+        // The batch fast path does not also record each item as a single encrypt
+        long singleEncrypts = registry.find(CryptoMetrics.METRIC_NAME)
+                .tag("algorithm", "RSA+AES Hybrid")
+                .tag("operation", "encrypt")
+                .tag("keySize", "1024")
+                .timers().stream().mapToLong(Timer::count).sum();
+        assertEquals(0, singleEncrypts);
+    }
+
+    @Test
+    void testPayloadBuckets() {
+        assertEquals("0-64B", CryptoMetrics.payloadBucket(0));
+        assertEquals("0-64B", CryptoMetrics.payloadBucket(64));
+        assertEquals("65B-1KB", CryptoMetrics.payloadBucket(65));
+        assertEquals("1-16MB", CryptoMetrics.payloadBucket(16 * 1024 * 1024));
+        assertEquals(">16MB", CryptoMetrics.payloadBucket(16 * 1024 * 1024 + 1));
+    }
+
+    private Timer timer(String algorithm, String operation, String keySize, String payload, String outcome) {
+        Timer timer = registry.find(CryptoMetrics.METRIC_NAME)
+                .tag("algorithm", algorithm)
+                .tag("provider", "SunJCE")
+                .tag("operation", operation)
+                .tag("keySize", keySize)
+                .tag("payload", payload)
+                .tag("outcome", outcome)
+                .timer();
+        assertNotNull(timer, algorithm + " " + operation + " " + payload + " " + outcome);
+        return timer;
+    }
+}
@@ -1,14 +1,27 @@
 package com.encryption.comparison.service;
 
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
+import javax.crypto.ShortBufferException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
 import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @SpringJUnitConfig
 @SpringBootTest
@@ -16,12 +29,14 @@ class CryptoServiceTests {
 
     private RsaCryptoService rsaService;
     private EccCryptoService eccService;
+    private RsaAesHybridService rsaAesHybridService;
     private SecureRandom secureRandom;
 
     @BeforeEach
     void setUp() {
         rsaService = new RsaCryptoService();
         eccService = new EccCryptoService();
+        rsaAesHybridService = new RsaAesHybridService();
         secureRandom = new SecureRandom();
     }
 
@@ -83,6 +98,64 @@ class CryptoServiceTests {
         }
     }
 
+    @Test
+    void testEccPrecomputedEncryptionMatchesCipher() throws Exception {
+        EccCryptoService cipherOnly = new EccCryptoService("BC", false);
+
+        for (String provider : eccService.getSupportedProviders()) {
+            EccCryptoService precomputed = eccService.withProvider(provider);
+            for (int keySize : precomputed.getSupportedKeySizes()) {
+                Object[] keyPair = precomputed.generateKeyPair(keySize);
+                byte[] testData = new byte[300];
+                secureRandom.nextBytes(testData);
+
+                // Both paths write the same ECIES format, so each reads the other's ciphertext
+                byte[] encrypted = precomputed.encrypt(testData, keyPair[0]);
+                assertEquals(cipherOnly.encrypt(testData, keyPair[0]).length, encrypted.length);
+                assertArrayEquals(testData, cipherOnly.decrypt(encrypted, keyPair[1]),
+                        "Cipher could not decrypt precomputed ECIES for " + provider + " " + keySize);
+                assertArrayEquals(testData, precomputed.decrypt(cipherOnly.encrypt(testData, keyPair[0]), keyPair[1]));
+
+                encrypted[encrypted.length - 1] ^= 1;
+                assertThrows(Exception.class, () -> precomputed.decrypt(encrypted, keyPair[1]));
+            }
+        }
+    }
+
+    @Test
+    void testEcCurveCacheReusesRecipientTables() throws Exception {
+        Object[] keyPair = eccService.generateKeyPair(384);
+
+        assertSame(EcCurveCache.recipient((PublicKey) keyPair[0]),
+                EcCurveCache.recipient((PublicKey) keyPair[0]));
+        assertSame(EcCurveCache.domain("secp384r1"), EcCurveCache.domain("secp384r1"));
+
+        // A private instance, so counts and evictions do not depend on other tests
+        EcCurveCache.RecipientTables tables = new EcCurveCache.RecipientTables(2);
+        PublicKey a = (PublicKey) eccService.generateKeyPair(256)[0];
+        PublicKey b = (PublicKey) eccService.generateKeyPair(256)[0];
+        PublicKey c = (PublicKey) eccService.generateKeyPair(256)[0];
+        ECPublicKeyParameters tableA = tables.get(a);
+        assertSame(tableA, tables.get(a));
+        ECPublicKeyParameters tableB = tables.get(b);
+        assertSame(tableA, tables.get(a)); // A is now more recent than B
+        tables.get(c);
+        assertEquals(2, tables.size());
+        assertSame(tableA, tables.get(a));
+        assertNotSame(tableB, tables.get(b)); // B was evicted and is precomputed again
+        assertEquals(4, tables.misses());
+        assertEquals(3, tables.hits());
+
+        // Keys off the three cached curves fall back to the cipher
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", "BC");
+        generator.initialize(new ECGenParameterSpec("brainpoolP256r1"));
+        KeyPair brainpool = generator.generateKeyPair();
+        assertNull(EcCurveCache.recipient(brainpool.getPublic()));
+        byte[] testData = "brainpool".getBytes();
+        assertArrayEquals(testData, eccService.decrypt(eccService.encrypt(testData, brainpool.getPublic()),
+                brainpool.getPrivate()));
+    }
+
     @Test
     void testKeyGeneration() throws Exception {
         // Test RSA key generation
@@ -143,4 +216,349 @@ class CryptoServiceTests {
         assertArrayEquals(testData, eccService.decrypt(eccEncrypted1, eccKeyPair[1]));
         assertArrayEquals(testData, eccService.decrypt(eccEncrypted2, eccKeyPair[1]));
     }
+
+    @Test
+    void testRsaProfiledDecryptMatchesCipher() throws Exception {
+        for (RsaCryptoService service : List.of(rsaService, rsaService.withProvider("BC"))) {
+            Object[] keyPair = service.generateKeyPair(2048);
+            byte[] testData = new byte[RsaCryptoService.maxDataSize(keyPair[0])];
+            secureRandom.nextBytes(testData);
+            byte[] encrypted = service.encrypt(testData, keyPair[0]);
+
+            for (String form : RsaCryptoService.KEY_FORMS) {
+                Object privateKey = RsaCryptoService.toKeyForm(keyPair[1], form);
+                assertEquals(!form.equals("non-crt"), RsaCryptoService.isCrtKey(privateKey), form);
+
+                // Repeated calls exercise the squared blinding pair as well as its setup
+                long[] phaseNanos = new long[RsaCryptoService.DECRYPT_PHASES.length];
+                for (int i = 0; i < 3; i++) {
+                    assertArrayEquals(testData, service.decryptProfiled(encrypted, privateKey, phaseNanos), form);
+                }
+                assertTrue(Arrays.stream(phaseNanos).allMatch(nanos -> nanos >= 0));
+                assertArrayEquals(testData, service.decrypt(encrypted, privateKey), form);
+            }
+
+            byte[] tampered = encrypted.clone();
+            tampered[tampered.length / 2] ^= 1;
+            assertThrows(javax.crypto.BadPaddingException.class, () -> service.decryptProfiled(tampered, keyPair[1],
+                    new long[RsaCryptoService.DECRYPT_PHASES.length]));
+        }
+        assertThrows(IllegalArgumentException.class, () -> RsaCryptoService.toKeyForm(
+                rsaService.generateKeyPair(1024)[1], "jwk"));
+    }
+
+    @Test
+    void testRsaMultiBlockRoundTrip() throws Exception {
+        for (String provider : rsaService.getSupportedProviders()) {
+            RsaCryptoService service = rsaService.withProvider(provider);
+            Object[] keyPair = service.generateKeyPair(1024);
+            for (int size : new int[] { 0, 117, 118, 1000 }) {
+                byte[] data = new byte[size];
+                secureRandom.nextBytes(data);
+
+                byte[] encrypted = service.encryptBlocks(data, keyPair[0]);
+                assertEquals(Math.max(1, (size + 116) / 117) * 128, encrypted.length, provider + " " + size);
+                assertArrayEquals(data, service.decryptBlocks(encrypted, keyPair[1]), provider + " " + size);
+            }
+        }
+    }
+
+    @Test
+    void testRsaPayloadDispatcherPicksPathBySize() throws Exception {
+        RsaPayloadDispatcher dispatcher = new RsaPayloadDispatcher(rsaService, rsaAesHybridService, null);
+        Object[] keyPair = dispatcher.generateKeyPair(1024);
+        assertEquals(RsaPayloadDispatcher.Path.RAW, dispatcher.pathFor(117, keyPair[0]));
+        assertEquals(RsaPayloadDispatcher.Path.HYBRID, dispatcher.pathFor(118, keyPair[0]));
+
+        for (RsaPayloadDispatcher.Path forced : new RsaPayloadDispatcher.Path[] { null,
+                RsaPayloadDispatcher.Path.MULTI_BLOCK, RsaPayloadDispatcher.Path.HYBRID }) {
+            RsaPayloadDispatcher service = new RsaPayloadDispatcher(rsaService, rsaAesHybridService, forced);
+            for (int size : new int[] { 16, 5000 }) {
+                byte[] data = new byte[size];
+                secureRandom.nextBytes(data);
+                byte[] encrypted = service.encrypt(data, keyPair[0]);
+                RsaPayloadDispatcher.Path path = service.pathFor(size, keyPair[0]);
+                int bodyLength = switch (path) {
+                    case RAW -> 128;
+                    case MULTI_BLOCK -> (size + 116) / 117 * 128;
+                    case HYBRID -> RsaAesHybridService.encryptedSize(size, keyPair[0]);
+                };
+                assertEquals(path.ordinal(), encrypted[0]);
+                assertEquals(1 + bodyLength, encrypted.length, path + " " + size);
+                assertArrayEquals(data, service.decrypt(encrypted, keyPair[1]));
+            }
+        }
+
+        assertNull(RsaPayloadDispatcher.parsePath("auto"));
+        assertEquals(RsaPayloadDispatcher.Path.MULTI_BLOCK, RsaPayloadDispatcher.parsePath("multi-block"));
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.decrypt(new byte[] { 7, 1, 2 }, keyPair[1]));
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.decrypt(new byte[] { 2, 0, 0 }, keyPair[1]));
+    }
+
+    @Test
+    void testSignaturesWithEverySupportedProvider() throws Exception {
+        byte[] data = new byte[1024];
+        secureRandom.nextBytes(data);
+        SignatureService[] signers = {
+                new RsaPssSignatureService(), new EcdsaSignatureService(), new Ed25519SignatureService() };
+        for (SignatureService signer : signers) {
+            for (String provider : signer.getSupportedProviders()) {
+                SignatureService service = signer.withProvider(provider);
+                for (int keySize : service.getSupportedKeySizes()) {
+                    if (keySize > 2048) {
+                        continue; // Slow RSA key generation, no new code path
+                    }
+                    String label = service.getAlgorithmName() + "/" + provider + "/" + keySize;
+                    Object[] keyPair = service.generateKeyPair(keySize);
+                    byte[] signature = service.sign(data, keyPair[1]);
+                    assertTrue(service.verify(data, signature, keyPair[0]), label);
+
+                    byte[] tampered = data.clone();
+                    tampered[0] ^= 1;
+                    assertFalse(service.verify(tampered, signature, keyPair[0]), label);
+
+                    // Signatures verify across providers
+                    for (String other : service.getSupportedProviders()) {
+                        assertTrue(signer.withProvider(other).verify(data, signature, keyPair[0]), label + " -> " + other);
+                    }
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new EcdsaSignatureService().withProvider("SunJCE"));
+        assertThrows(IllegalArgumentException.class, () -> new Ed25519SignatureService().generateKeyPair(256));
+    }
+
+    @Test
+    void testRsaAesStreamingRoundTrip() throws Exception {
+        Object[] keyPair = rsaAesHybridService.generateKeyPair(2048);
+
+        // Sizes around the 64 KB chunk boundary and the AES block size
+        for (int dataSize : new int[] { 0, 15, 16, 65535, 65536, 65537, 300_001 }) {
+            byte[] testData = new byte[dataSize];
+            secureRandom.nextBytes(testData);
+
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            rsaAesHybridService.encrypt(new ByteArrayInputStream(testData), encrypted, keyPair[0]);
+
+            ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+            rsaAesHybridService.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, keyPair[1]);
+
+            assertArrayEquals(testData, decrypted.toByteArray(), "Streaming round trip failed for " + dataSize);
+        }
+    }
+
+    @Test
+    void testRsaAesStreamingIsCompatibleWithArrayEnvelope() throws Exception {
+        Object[] keyPair = rsaAesHybridService.generateKeyPair(2048);
+        byte[] testData = new byte[100_000];
+        secureRandom.nextBytes(testData);
+
+        // Streamed envelope decrypts with the array API
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        rsaAesHybridService.encrypt(new ByteArrayInputStream(testData), streamed, keyPair[0]);
+        assertArrayEquals(testData, rsaAesHybridService.decrypt(streamed.toByteArray(), keyPair[1]));
+
+        // Array envelope decrypts with the streaming API
+        byte[] envelope = rsaAesHybridService.encrypt(testData, keyPair[0]);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        rsaAesHybridService.decrypt(new ByteArrayInputStream(envelope), decrypted, keyPair[1]);
+        assertArrayEquals(testData, decrypted.toByteArray());
+    }
+
+    @Test
+    void testRsaAesBufferRoundTripWithHeapAndDirectBuffers() throws Exception {
+        Object[] keyPair = rsaAesHybridService.generateKeyPair(2048);
+
+        // Sizes around the AES block size and the 64 KB staging chunk used for direct buffers
+        for (int dataSize : new int[] { 0, 15, 16, 17, 65536, 65537, 300_001 }) {
+            byte[] testData = new byte[dataSize];
+            secureRandom.nextBytes(testData);
+            int encryptedSize = RsaAesHybridService.encryptedSize(dataSize, keyPair[0]);
+
+            for (boolean direct : new boolean[] { false, true }) {
+                ByteBuffer data = allocate(dataSize, direct).put(testData).flip();
+                ByteBuffer envelope = allocate(encryptedSize, direct);
+                assertEquals(encryptedSize, rsaAesHybridService.encrypt(data, envelope, keyPair[0]));
+                assertFalse(data.hasRemaining());
+                envelope.flip();
+
+                // Same envelope as the array API, both ways
+                byte[] envelopeBytes = new byte[envelope.remaining()];
+                envelope.duplicate().get(envelopeBytes);
+                assertArrayEquals(testData, rsaAesHybridService.decrypt(envelopeBytes, keyPair[1]));
+
+                ByteBuffer decrypted = allocate(encryptedSize, direct);
+                assertEquals(dataSize, rsaAesHybridService.decrypt(envelope, decrypted, keyPair[1]));
+                byte[] decryptedBytes = new byte[decrypted.flip().remaining()];
+                decrypted.get(decryptedBytes);
+                assertArrayEquals(testData, decryptedBytes, "Buffer round trip failed for " + dataSize);
+
+                ByteBuffer fromArray = allocate(encryptedSize, direct);
+                rsaAesHybridService.decrypt(ByteBuffer.wrap(rsaAesHybridService.encrypt(testData, keyPair[0])),
+                        fromArray, keyPair[1]);
+                assertEquals(dataSize, fromArray.position());
+            }
+        }
+    }
+
+    @Test
+    void testRsaAesBufferRejectsShortOutputAndRestoresPositions() throws Exception {
+        Object[] keyPair = rsaAesHybridService.generateKeyPair(2048);
+        ByteBuffer data = ByteBuffer.wrap(new byte[1000]);
+        ByteBuffer tooSmall = ByteBuffer.allocate(RsaAesHybridService.encryptedSize(1000, keyPair[0]) - 1);
+        assertThrows(ShortBufferException.class, () -> rsaAesHybridService.encrypt(data, tooSmall, keyPair[0]));
+        assertEquals(0, data.position());
+        assertEquals(0, tooSmall.position());
+
+        ByteBuffer envelope = ByteBuffer.wrap(rsaAesHybridService.encrypt(new byte[1000], keyPair[0]));
+        ByteBuffer plaintextSized = ByteBuffer.allocate(1000); // Needs room for the padded last block
+        assertThrows(ShortBufferException.class,
+                () -> rsaAesHybridService.decrypt(envelope, plaintextSized, keyPair[1]));
+        assertEquals(0, envelope.position());
+
+        envelope.put(envelope.limit() - 1, (byte) (envelope.get(envelope.limit() - 1) ^ 1)); // Breaks the padding
+        assertThrows(Exception.class,
+                () -> rsaAesHybridService.decrypt(envelope, ByteBuffer.allocate(2000), keyPair[1]));
+        assertEquals(0, envelope.position());
+    }
+
+    @Test
+    void testRsaAesAllocationDoesNotScaleWithPayloadForBuffers() throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        Object[] keyPair = rsaAesHybridService.generateKeyPair(2048);
+        int dataSize = 1024 * 1024;
+        byte[] testData = new byte[dataSize];
+        byte[] envelopeBytes = rsaAesHybridService.encrypt(testData, keyPair[0]);
+        ByteBuffer data = ByteBuffer.allocateDirect(dataSize).put(testData).flip();
+        ByteBuffer envelope = ByteBuffer.allocateDirect(envelopeBytes.length);
+        ByteBuffer decrypted = ByteBuffer.allocateDirect(envelopeBytes.length);
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            rsaAesHybridService.decrypt(envelopeBytes, keyPair[1]);
+            rsaAesHybridService.encrypt(data.rewind(), envelope.clear(), keyPair[0]);
+            rsaAesHybridService.decrypt(envelope.flip(), decrypted.clear(), keyPair[1]);
+        }
+
+        // Array API: the result array only (was ~3x the payload before)
+        long before = threads.getCurrentThreadAllocatedBytes();
+        rsaAesHybridService.decrypt(envelopeBytes, keyPair[1]);
+        long arrayBytes = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(arrayBytes < dataSize * 3L / 2, "Array decrypt allocated " + arrayBytes + " bytes");
+
+        // Direct buffers: RSA and cipher bookkeeping only
+        before = threads.getCurrentThreadAllocatedBytes();
+        rsaAesHybridService.encrypt(data.rewind(), envelope.clear(), keyPair[0]);
+        rsaAesHybridService.decrypt(envelope.flip(), decrypted.clear(), keyPair[1]);
+        long bufferBytes = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(bufferBytes < dataSize / 4, "Buffer round trip allocated " + bufferBytes + " bytes");
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    @Test
+    void testRsaAesGcmSegmentedRoundTrip() throws Exception {
+        // Small segments so that every size below spans several segments processed in parallel
+        RsaAesGcmHybridService gcmService = new RsaAesGcmHybridService(1024, new ForkJoinPool(4));
+        Object[] keyPair = gcmService.generateKeyPair(2048);
+
+        for (int dataSize : new int[] { 0, 1, 1023, 1024, 1025, 10_000, 100_000 }) {
+            byte[] testData = new byte[dataSize];
+            secureRandom.nextBytes(testData);
+
+            byte[] encrypted = gcmService.encrypt(testData, keyPair[0]);
+            assertArrayEquals(testData, gcmService.decrypt(encrypted, keyPair[1]),
+                    "RSA+AES-GCM round trip failed for data size " + dataSize);
+        }
+    }
+
+    @Test
+    void testRsaAesGcmDetectsTampering() throws Exception {
+        RsaAesGcmHybridService gcmService = new RsaAesGcmHybridService(1024, new ForkJoinPool(4));
+        Object[] keyPair = gcmService.generateKeyPair(2048);
+        byte[] testData = new byte[4096];
+        secureRandom.nextBytes(testData);
+        byte[] encrypted = gcmService.encrypt(testData, keyPair[0]);
+
+        // Flip a bit in the last segment
+        byte[] flipped = encrypted.clone();
+        flipped[flipped.length - 20] ^= 1;
+        assertThrows(javax.crypto.AEADBadTagException.class, () -> gcmService.decrypt(flipped, keyPair[1]));
+
+        // Swap the first two segments
+        int segmentOffset = encrypted.length - 4 * (1024 + 16);
+        byte[] swapped = encrypted.clone();
+        System.arraycopy(encrypted, segmentOffset + 1040, swapped, segmentOffset, 1040);
+        System.arraycopy(encrypted, segmentOffset, swapped, segmentOffset + 1040, 1040);
+        assertThrows(javax.crypto.AEADBadTagException.class, () -> gcmService.decrypt(swapped, keyPair[1]));
+
+        // Drop the last segment
+        byte[] truncated = Arrays.copyOf(encrypted, encrypted.length - 1040);
+        assertThrows(IllegalArgumentException.class, () -> gcmService.decrypt(truncated, keyPair[1]));
+    }
+
+    @Test
+    void testEccAesHybridEncryptionDecryption() throws Exception {
+        EccAesHybridService eccAesService = new EccAesHybridService();
+
+        for (int keySize : eccAesService.getSupportedKeySizes()) {
+            Object[] keyPair = eccAesService.generateKeyPair(keySize);
+
+            for (int dataSize : new int[] { 0, 16, 1024, 102400 }) {
+                byte[] testData = new byte[dataSize];
+                secureRandom.nextBytes(testData);
+
+                byte[] encrypted1 = eccAesService.encrypt(testData, keyPair[0]);
+                byte[] encrypted2 = eccAesService.encrypt(testData, keyPair[0]);
+                assertFalse(Arrays.equals(encrypted1, encrypted2),
+                        "Each message should use a fresh ephemeral key");
+
+                assertArrayEquals(testData, eccAesService.decrypt(encrypted1, keyPair[1]),
+                        "ECC+AES decryption failed for key size " + keySize + " and data size " + dataSize);
+            }
+        }
+    }
+
+    @Test
+    void testEccAesHybridRejectsTamperingAndWrongKey() throws Exception {
+        EccAesHybridService eccAesService = new EccAesHybridService();
+        Object[] keyPair = eccAesService.generateKeyPair(256);
+        Object[] otherKeyPair = eccAesService.generateKeyPair(256);
+        byte[] encrypted = eccAesService.encrypt(new byte[64], keyPair[0]);
+
+        byte[] tampered = encrypted.clone();
+        tampered[tampered.length - 1] ^= 1;
+        assertThrows(javax.crypto.AEADBadTagException.class, () -> eccAesService.decrypt(tampered, keyPair[1]));
+        assertThrows(javax.crypto.AEADBadTagException.class, () -> eccAesService.decrypt(encrypted, otherKeyPair[1]));
+    }
+
+    @Test
+    void testEveryServiceWorksWithEverySupportedProvider() throws Exception {
+        List<CryptoService> services = List.of(rsaService, eccService, rsaAesHybridService,
+                new RsaAesGcmHybridService(), new EccAesHybridService());
+        byte[] testData = new byte[64];
+        secureRandom.nextBytes(testData);
+
+        for (CryptoService service : services) {
+            for (String provider : service.getSupportedProviders()) {
+                CryptoService configured = service.withProvider(provider);
+                assertEquals(provider, configured.getProvider());
+
+                Object[] keyPair = configured.generateKeyPair(configured.getSupportedKeySizes()[1]);
+                byte[] encrypted = configured.encrypt(testData, keyPair[0]);
+                assertArrayEquals(testData, configured.decrypt(encrypted, keyPair[1]),
+                        service.getAlgorithmName() + " round trip failed with provider " + provider);
+            }
+        }
+    }
+
+    @Test
+    void testUnsupportedProviderIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> rsaService.withProvider("SunEC"));
+        assertEquals("SunJCE", rsaService.getProvider());
+        assertEquals("BC", eccService.getProvider());
+    }
 }
@@ -0,0 +1,111 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.KeyPoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyPairPoolTests {
+
+    private EccCryptoService eccService;
+    private KeyPairPool keyPairPool;
+
+    @BeforeEach
+    void setUp() {
+        eccService = new EccCryptoService();
+        keyPairPool = new KeyPairPool(List.of(eccService), 3, 1, List.of("ECC:256"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyPairPool.shutdown();
+    }
+
+    @Test
+    void testPrewarmedPoolServesHits() throws Exception {
+        waitForAvailable(3);
+
+        Object[] keyPair = keyPairPool.take(eccService, 256);
+        assertNotNull(keyPair[0]);
+        assertNotNull(keyPair[1]);
+
+        KeyPoolStats stats = keyPairPool.getStats().get(0);
+        assertEquals("ECC", stats.getAlgorithm());
+        assertEquals(256, stats.getKeySize());
+        assertEquals(3, stats.getTargetDepth());
+        assertEquals(1, stats.getHits());
+        assertEquals(0, stats.getMisses());
+
+        // The pool refills in the background back to its target depth
+        waitForAvailable(3);
+    }
+
+    @Test
+    void testPooledKeysAreUsableAndDistinct() throws Exception {
+        waitForAvailable(3);
+
+        Object[] first = keyPairPool.take(eccService, 256);
+        Object[] second = keyPairPool.take(eccService, 256);
+        assertNotEquals(first[0], second[0], "Each take should hand out a different key pair");
+
+        byte[] data = "pooled".getBytes();
+        assertArrayEquals(data, eccService.decrypt(eccService.encrypt(data, first[0]), first[1]));
+    }
+
+    @Test
+    void testOnlyConfiguredPoolsAreCreated() throws Exception {
+        waitForAvailable(3);
+
+        // Unsupported and unconfigured sizes are generated on the spot, without a pool of their own
+        assertNotNull(keyPairPool.take(eccService, 192)[0]);
+        assertNotNull(keyPairPool.take(eccService, 384)[0]);
+        // A different provider does not draw from the pool of the default one
+        EccCryptoService sunEc = eccService.withProvider("SunEC");
+        assertNotNull(keyPairPool.take(sunEc, 256)[0]);
+
+        List<KeyPoolStats> stats = keyPairPool.getStats();
+        assertEquals(1, stats.size());
+        assertEquals(256, stats.get(0).getKeySize());
+        assertEquals(eccService.getProvider(), stats.get(0).getProvider());
+        assertEquals(0, stats.get(0).getHits() + stats.get(0).getMisses());
+    }
+
+    @Test
+    void testRefillsWaitWhilePaused() throws Exception {
+        waitForAvailable(3);
+
+        try (KeyPairPool.Pause pause = keyPairPool.pauseRefills()) {
+            // Pooled pairs are still handed out, but not replaced
+            keyPairPool.take(eccService, 256);
+            Thread.sleep(200);
+            assertEquals(2, keyPairPool.getStats().get(0).getAvailable());
+            assertEquals(1, keyPairPool.getStats().get(0).getHits());
+        }
+        waitForAvailable(3);
+    }
+
+    @Test
+    void testUnknownPrewarmEntriesAreIgnored() {
+        KeyPairPool pool = new KeyPairPool(List.of(eccService), 1, 1, List.of("ECC:192", "DSA:1024", "ECC"));
+        try {
+            assertTrue(pool.getStats().isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void waitForAvailable(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (keyPairPool.getStats().get(0).getAvailable() >= expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Key pool did not reach " + expected + " available key pairs");
+    }
+}
@@ -0,0 +1,146 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.CryptoTestConfig;
+import com.encryption.comparison.model.LoadTestResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class LoadGenerationServiceTests {
+
+    private LoadGenerationService loadGenerationService;
+
+    @BeforeEach
+    void setUp() {
+        loadGenerationService = new LoadGenerationService(
+                List.of(new RsaCryptoService(), new EccCryptoService(), new RsaAesHybridService()), 10);
+    }
+
+    @Test
+    void testLoadTestReportsEachThreadCount() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setLoadAlgorithm("RSA");
+        config.setLoadOperation("encrypt");
+        config.setThreadCounts(new int[] { 1, 2 });
+        config.setLoadDurationSeconds(1);
+        config.setWarmupIterations(5);
+
+        List<LoadTestResult> results = loadGenerationService.runLoadTest(config);
+
+        assertEquals(2, results.size());
+        for (LoadTestResult result : results) {
+            assertTrue(result.isSuccess(), "Load test should succeed: " + result.getErrorMessage());
+            assertEquals("RSA", result.getAlgorithm());
+            assertTrue(result.getTotalOperations() > 0);
+            assertEquals(result.getTotalOperations(), result.getLatency().getSamples());
+            assertTrue(result.getThroughput() > 0);
+            assertTrue(result.getLatency().getP99() >= result.getLatency().getMedian());
+        }
+        assertEquals(1, results.get(0).getThreads());
+        assertEquals(2, results.get(1).getThreads());
+    }
+
+    @Test
+    void testTargetRateIsRespected() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setLoadAlgorithm("ECC");
+        config.setLoadOperation("decrypt");
+        config.setLoadKeySize(256);
+        config.setThreadCounts(new int[] { 2 });
+        config.setLoadDurationSeconds(1);
+        config.setTargetOpsPerSecond(50);
+
+        LoadTestResult result = loadGenerationService.runLoadTest(config).get(0);
+
+        assertTrue(result.isSuccess(), "Load test should succeed: " + result.getErrorMessage());
+        assertTrue(result.getTotalOperations() <= 60,
+                "Throttled run should not exceed the target rate, got " + result.getTotalOperations());
+    }
+
+    @Test
+    void testUnknownAlgorithmFails() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setLoadAlgorithm("DSA");
+        config.setThreadCounts(new int[] { 1 });
+
+        LoadTestResult result = loadGenerationService.runLoadTest(config).get(0);
+
+        assertFalse(result.isSuccess());
+        assertNotNull(result.getErrorMessage());
+    }
+
+    @Test
+    void testBlockingOperationsOverlapAcrossWorkers() {
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setLoadAlgorithm("RSA");
+        config.setLoadOperation("encrypt");
+        config.setThreadCounts(new int[] { 32 });
+        config.setLoadDurationSeconds(1);
+        config.setWarmupIterations(1);
+        config.setLoadBlockingMillis(10);
+        config.setVirtualThreads(WorkerThreads.virtualThreadsSupported());
+
+        LoadTestResult result = loadGenerationService.runLoadTest(config).get(0);
+
+        assertTrue(result.isSuccess(), "Load test should succeed: " + result.getErrorMessage());
+        assertEquals(10, result.getBlockingMillis());
+        assertTrue(result.getLatency().getMin() >= 10);
+        // One worker could do at most 100 ops/sec; 32 of them waiting in parallel must do far better
+        assertTrue(result.getThroughput() > 300, "Throughput was " + result.getThroughput());
+        assertTrue(result.getPeakPlatformThreads() > 0);
+        if (!config.isVirtualThreads()) {
+            // Sampled while the 32 workers are alive
+            assertTrue(result.getPeakPlatformThreads() >= 32, "Peak was " + result.getPeakPlatformThreads());
+        }
+    }
+
+    @Test
+    void testCipherLeasesOnPlatformAndVirtualThreads() throws Exception {
+        // A platform thread keeps its own instances, leased or not
+        Cipher outside = CipherPool.cipher("AES/GCM/NoPadding");
+        try (CipherPool.Lease lease = CipherPool.lease()) {
+            assertSame(outside, CipherPool.cipher("AES/GCM/NoPadding"));
+        }
+
+        assumeTrue(WorkerThreads.virtualThreadsSupported());
+        // Consecutive virtual threads get the instance set the previous one returned
+        ThreadFactory factory = WorkerThreads.factory("lease-test-", true);
+        Cipher[] seen = new Cipher[2];
+        for (int i = 0; i < seen.length; i++) {
+            int index = i;
+            Thread thread = factory.newThread(() -> {
+                try (CipherPool.Lease lease = CipherPool.lease()) {
+                    seen[index] = CipherPool.cipher("AES/GCM/NoPadding");
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        assertNotNull(seen[0]);
+        assertSame(seen[0], seen[1]);
+        assertNotSame(outside, seen[0]);
+    }
+
+    @Test
+    void testVirtualThreadsNeedJava21() {
+        assumeFalse(WorkerThreads.virtualThreadsSupported());
+        CryptoTestConfig config = new CryptoTestConfig();
+        config.setThreadCounts(new int[] { 1 });
+        config.setVirtualThreads(true);
+
+        LoadTestResult result = loadGenerationService.runLoadTest(config).get(0);
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getErrorMessage().contains("Java 21"));
+    }
+}
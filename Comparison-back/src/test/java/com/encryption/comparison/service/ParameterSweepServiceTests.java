@@ -0,0 +1,114 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.SweepConfig;
+import com.encryption.comparison.model.SweepResult;
+import com.encryption.comparison.model.SweepRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParameterSweepServiceTests {
+
+    private final List<CryptoService> services =
+            List.of(new RsaCryptoService(), new EccCryptoService(), new RsaAesHybridService());
+    private final ParameterSweepService sweepService = new ParameterSweepService(services,
+            new LoadGenerationService(services, 60), 20, 4096, 100, 2);
+
+    @Test
+    void testSweepCoversTheCrossProduct() {
+        SweepConfig config = quickConfig();
+        config.setAlgorithms(new String[] { "RSA", "RSA+AES Hybrid", "ECC" });
+        config.setKeySizes(new int[] { 1024, 256 }); // Each size only applies to the algorithms supporting it
+        config.setDataSizes(new int[] { 16, 200 });
+        config.setThreadCounts(new int[] { 1, 2 });
+        config.setParallelism(2);
+
+        assertEquals(12, sweepService.countCells(config));
+        SweepResult result = sweepService.runSweep(config);
+        assertEquals(12, result.getCellCount());
+        // 200 bytes exceed the 117-byte PKCS#1 capacity of raw RSA-1024
+        assertEquals(10, result.getSuccessCount());
+
+        List<SweepRow> rows = result.getRows();
+        assertRow(rows.get(0), "RSA", 1024, 16, 1);
+        assertRow(rows.get(1), "RSA", 1024, 16, 2);
+        assertRow(rows.get(2), "RSA", 1024, 200, 1);
+        assertRow(rows.get(4), "RSA+AES Hybrid", 1024, 16, 1);
+        assertRow(rows.get(11), "ECC", 256, 200, 2);
+
+        assertFalse(rows.get(2).isSuccess());
+        assertNotNull(rows.get(2).getErrorMessage());
+        for (SweepRow row : rows) {
+            assertTrue(row.getKeyGenerationTime() > 0);
+            if (row.isSuccess()) {
+                assertTrue(row.getEncryptionThroughput() > 0);
+                assertTrue(row.getDecryptionThroughput() > 0);
+                assertTrue(row.getDecryptionP99() >= row.getDecryptionP50());
+            }
+        }
+        // Rows of one algorithm/key size share a single key generation
+        assertEquals(rows.get(4).getKeyGenerationTime(), rows.get(7).getKeyGenerationTime());
+    }
+
+    @Test
+    void testCsvHasOneLinePerCell() {
+        SweepConfig config = quickConfig();
+        config.setAlgorithms(new String[] { "ECC" });
+        config.setKeySizes(new int[] { 256, 384 });
+
+        String[] lines = sweepService.toCsv(sweepService.runSweep(config)).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("algorithm,provider,keySize,dataSize,threads,"));
+        assertTrue(lines[2].startsWith("\"ECC\",\"BC\",384,16,1,"));
+    }
+
+    @Test
+    void testInvalidSweepsAreRejected() {
+        SweepConfig unknown = quickConfig();
+        unknown.setAlgorithms(new String[] { "DSA" });
+        assertThrows(IllegalArgumentException.class, () -> sweepService.runSweep(unknown));
+
+        SweepConfig noThreads = quickConfig();
+        noThreads.setThreadCounts(new int[] { 0 });
+        assertThrows(IllegalArgumentException.class, () -> sweepService.runSweep(noThreads));
+
+        // Every supported key size of three algorithms times three payload sizes exceeds the limit of 20
+        SweepConfig tooLarge = quickConfig();
+        tooLarge.setDataSizes(new int[] { 16, 32, 64 });
+        assertThrows(IllegalArgumentException.class, () -> sweepService.runSweep(tooLarge));
+
+        SweepConfig tooMuchData = quickConfig();
+        tooMuchData.setDataSizes(new int[] { 16, 4097 });
+        assertThrows(IllegalArgumentException.class, () -> sweepService.countCells(tooMuchData));
+
+        SweepConfig tooManyIterations = quickConfig();
+        tooManyIterations.setMeasurementIterations(101);
+        assertThrows(IllegalArgumentException.class, () -> sweepService.countCells(tooManyIterations));
+        tooManyIterations.setMeasurementIterations(3);
+        tooManyIterations.setWarmupIterations(101);
+        assertThrows(IllegalArgumentException.class, () -> sweepService.countCells(tooManyIterations));
+
+        SweepConfig tooParallel = quickConfig();
+        tooParallel.setParallelism(3);
+        assertThrows(IllegalArgumentException.class, () -> sweepService.countCells(tooParallel));
+        tooParallel.setParallelism(0);
+        assertThrows(IllegalArgumentException.class, () -> sweepService.countCells(tooParallel));
+    }
+
+    private static void assertRow(SweepRow row, String algorithm, int keySize, int dataSize, int threads) {
+        assertEquals(algorithm, row.getAlgorithm());
+        assertEquals(keySize, row.getKeySize());
+        assertEquals(dataSize, row.getDataSize());
+        assertEquals(threads, row.getThreads());
+    }
+
+    private static SweepConfig quickConfig() {
+        SweepConfig config = new SweepConfig();
+        config.setDataSizes(new int[] { 16 });
+        config.setWarmupIterations(1);
+        config.setMeasurementIterations(3);
+        return config;
+    }
+}
@@ -0,0 +1,133 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.BenchmarkRun;
+import com.encryption.comparison.model.CryptoTestConfig;
+import com.encryption.comparison.model.CryptoTestResult;
+import com.encryption.comparison.model.LatencyStats;
+import com.encryption.comparison.model.MetricComparison;
+import com.encryption.comparison.model.RegressionReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultHistoryServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final RegressionDetectionService regressionDetection = new RegressionDetectionService();
+
+    @Test
+    void testRunsAreAppendedWithEnvironment() throws Exception {
+        Path file = tempDir.resolve("history/runs.jsonl");
+        ResultHistoryService history = new ResultHistoryService(file.toString(), "abc123");
+
+        BenchmarkRun first = history.record("compare", new CryptoTestConfig(), List.of(result("RSA", 1.0, 0.1)));
+        BenchmarkRun second = history.record("job", new CryptoTestConfig(), List.of(result("RSA", 1.1, 0.1)));
+        // A line cut short by a crash must not hide the other runs
+        Files.write(file, "{\"runId\":\"trunc".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(3, Files.readAllLines(file).size());
+        List<BenchmarkRun> runs = history.list();
+        assertEquals(2, runs.size());
+        assertEquals(first.getRunId(), runs.get(0).getRunId());
+        assertNull(runs.get(0).getResults());
+        assertEquals(1, runs.get(0).getResultCount());
+
+        BenchmarkRun stored = history.get(first.getRunId());
+        assertEquals("compare", stored.getSource());
+        assertEquals("abc123", stored.getEnvironment().getCommit());
+        assertEquals(System.getProperty("java.version"), stored.getEnvironment().getJavaVersion());
+        assertTrue(stored.getEnvironment().getProviders().containsKey("SunJCE"));
+        assertEquals(1.0, stored.getResults().get(0).getEncryptionStats().getMean());
+
+        assertEquals(second.getRunId(), history.latest().getRunId());
+        assertNull(history.get("missing"));
+    }
+
+    @Test
+    void testDisabledHistoryStoresNothing() {
+        ResultHistoryService history = new ResultHistoryService("", "abc123");
+        BenchmarkRun run = history.record("compare", new CryptoTestConfig(), List.of(result("RSA", 1.0, 0.1)));
+
+        assertNotNull(run.getRunId());
+        assertFalse(history.isEnabled());
+        assertTrue(history.list().isEmpty());
+        assertNull(history.latest());
+    }
+
+    @Test
+    void testRegressionNeedsSignificanceAndSize() {
+        BenchmarkRun baseline = run("base", result("RSA", 1.00, 0.05), result("ECC", 2.00, 0.05),
+                result("RSA+AES Hybrid", 1.00, 0.50));
+        BenchmarkRun candidate = run("cand", result("RSA", 1.20, 0.05), result("ECC", 1.50, 0.05),
+                result("RSA+AES Hybrid", 1.10, 0.50), result("ECC+AES Hybrid", 1.00, 0.05));
+
+        RegressionReport report = regressionDetection.compare(baseline, candidate, 0.01, 0.05);
+
+        assertEquals(1, report.getRegressions());
+        assertEquals(1, report.getImprovements());
+        assertEquals(List.of("ECC+AES Hybrid / SunJCE / 1024B / 2048-bit"), report.getUnmatched());
+        assertEquals("REGRESSION", encryption(report, "RSA").getVerdict());
+        assertEquals(0.2, encryption(report, "RSA").getRelativeChange(), 1e-9);
+        assertEquals("IMPROVEMENT", encryption(report, "ECC").getVerdict());
+        // 10% slower but within the noise of 100 samples with a 0.5 ms spread
+        MetricComparison noisy = encryption(report, "RSA+AES Hybrid");
+        assertEquals("NO_CHANGE", noisy.getVerdict());
+        assertTrue(noisy.getPValue() > 0.01);
+    }
+
+    @Test
+    void testWelchTTestMatchesReferenceValues() {
+        // t = 2 with 10 degrees of freedom: two-sided p = 0.07339
+        assertEquals(0.073388, RegressionDetectionService.twoSidedPValue(2.0, 10), 1e-5);
+        // t = 1.96 with a large df approaches the normal distribution
+        assertEquals(0.05, RegressionDetectionService.twoSidedPValue(1.959964, 1e6), 1e-4);
+        assertEquals(1.0, RegressionDetectionService.twoSidedPValue(0, 5), 1e-12);
+
+        LatencyStats same = stats(1.0, 0.1, 50);
+        double[] test = RegressionDetectionService.welchTTest(same, same);
+        assertEquals(0, test[0], 1e-12);
+        assertEquals(1.0, test[1], 1e-12);
+    }
+
+    private static MetricComparison encryption(RegressionReport report, String algorithm) {
+        return report.getComparisons().stream()
+                .filter(c -> c.getAlgorithm().equals(algorithm) && c.getMetric().equals("encryption"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static BenchmarkRun run(String runId, CryptoTestResult... results) {
+        BenchmarkRun run = new BenchmarkRun();
+        run.setRunId(runId);
+        run.setResults(List.of(results));
+        return run;
+    }
+
+    private static CryptoTestResult result(String algorithm, double meanMillis, double stdDevMillis) {
+        CryptoTestResult result = new CryptoTestResult();
+        result.setAlgorithm(algorithm);
+        result.setProvider("SunJCE");
+        result.setDataSize(1024);
+        result.setKeySize(2048);
+        result.setSuccess(true);
+        result.setEncryptionStats(stats(meanMillis, stdDevMillis, 100));
+        return result;
+    }
+
+    private static LatencyStats stats(double meanMillis, double stdDevMillis, int samples) {
+        LatencyStats stats = new LatencyStats();
+        stats.setSamples(samples);
+        stats.setMean(meanMillis);
+        stats.setStdDev(stdDevMillis);
+        return stats;
+    }
+}
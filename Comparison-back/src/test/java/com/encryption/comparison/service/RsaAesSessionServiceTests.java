@@ -0,0 +1,139 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.HybridSessionStats;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.AEADBadTagException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RsaAesSessionServiceTests {
+
+    private static Object[] keyPair;
+    private static Object[] otherKeyPair;
+
+    private final AtomicLong now = new AtomicLong();
+    private RsaAesSessionService service;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        RsaAesHybridService hybrid = new RsaAesHybridService();
+        keyPair = hybrid.generateKeyPair(2048);
+        otherKeyPair = hybrid.generateKeyPair(2048);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // 60s rotation, 100 messages per key, 3 keys per cache
+        service = new RsaAesSessionService(60, 100, 3, now::get);
+    }
+
+    @Test
+    void testDataKeyIsWrappedOnceAndReferencedAfterwards() throws Exception {
+        byte[][] envelopes = new byte[10][];
+        for (int i = 0; i < envelopes.length; i++) {
+            envelopes[i] = service.encrypt("s1", ("message " + i).getBytes(), keyPair[0]);
+        }
+
+        assertTrue(RsaAesSessionService.carriesKey(envelopes[0]));
+        String keyId = RsaAesSessionService.keyId(envelopes[0]);
+        for (int i = 1; i < envelopes.length; i++) {
+            assertFalse(RsaAesSessionService.carriesKey(envelopes[i]));
+            assertEquals(keyId, RsaAesSessionService.keyId(envelopes[i]));
+            // type, key id, nonce, 9-byte message, tag: no wrapped key
+            assertEquals(1 + 16 + 12 + 9 + 16, envelopes[i].length);
+        }
+        for (int i = 0; i < envelopes.length; i++) {
+            assertArrayEquals(("message " + i).getBytes(), service.decrypt(envelopes[i], keyPair[1]));
+        }
+
+        HybridSessionStats stats = service.getStats();
+        assertEquals(1, stats.getKeysWrapped());
+        assertEquals(1, stats.getKeysUnwrapped());
+        assertEquals(10, stats.getMessagesEncrypted());
+        assertEquals(10, stats.getMessagesDecrypted());
+        assertEquals(1, stats.getSessions());
+    }
+
+    @Test
+    void testNoncesNeverRepeatUnderOneKey() throws Exception {
+        Set<String> nonces = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            byte[] envelope = service.encrypt("s1", new byte[16], keyPair[0]);
+            int nonceOffset = envelope.length - 16 - 16 - 12;
+            assertTrue(nonces.add(Arrays.toString(Arrays.copyOfRange(envelope, nonceOffset, nonceOffset + 12))));
+        }
+        assertEquals(1, service.getStats().getKeysWrapped());
+    }
+
+    @Test
+    void testKeyRotatesByAgeMessageCountAndRecipient() throws Exception {
+        byte[] first = service.encrypt("s1", "a".getBytes(), keyPair[0]);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        byte[] afterInterval = service.encrypt("s1", "b".getBytes(), keyPair[0]);
+        assertTrue(RsaAesSessionService.carriesKey(afterInterval));
+        assertNotEquals(RsaAesSessionService.keyId(first), RsaAesSessionService.keyId(afterInterval));
+
+        for (int i = 1; i < 100; i++) {
+            service.encrypt("s1", "c".getBytes(), keyPair[0]);
+        }
+        byte[] afterCount = service.encrypt("s1", "d".getBytes(), keyPair[0]);
+        assertTrue(RsaAesSessionService.carriesKey(afterCount));
+
+        assertTrue(RsaAesSessionService.carriesKey(service.encrypt("s1", "e".getBytes(), otherKeyPair[0])));
+        assertTrue(RsaAesSessionService.carriesKey(service.encrypt("s2", "f".getBytes(), keyPair[0])));
+        assertEquals(5, service.getStats().getKeysWrapped());
+
+        service.endSession("s2");
+        assertTrue(RsaAesSessionService.carriesKey(service.encrypt("s2", "g".getBytes(), keyPair[0])));
+    }
+
+    @Test
+    void testReferenceNeedsTheKeyCarryingMessageFirst() throws Exception {
+        byte[] carrying = service.encrypt("s1", "first".getBytes(), keyPair[0]);
+        byte[] reference = service.encrypt("s1", "second".getBytes(), keyPair[0]);
+
+        assertThrows(IllegalStateException.class, () -> service.decrypt(reference, keyPair[1]));
+        assertArrayEquals("first".getBytes(), service.decrypt(carrying, keyPair[1]));
+        assertArrayEquals("second".getBytes(), service.decrypt(reference, keyPair[1]));
+
+        // A cached key is bound to the private key that unwrapped it
+        assertThrows(IllegalStateException.class, () -> service.decrypt(reference, otherKeyPair[1]));
+
+        // Unwrapped keys expire after twice the rotation interval
+        now.addAndGet(TimeUnit.SECONDS.toNanos(121));
+        assertThrows(IllegalStateException.class, () -> service.decrypt(reference, keyPair[1]));
+    }
+
+    @Test
+    void testTamperingIsDetected() throws Exception {
+        byte[] carrying = service.encrypt("s1", "first".getBytes(), keyPair[0]);
+        byte[] reference = service.encrypt("s1", "second".getBytes(), keyPair[0]);
+        service.decrypt(carrying, keyPair[1]);
+
+        byte[] flippedCiphertext = reference.clone();
+        flippedCiphertext[flippedCiphertext.length - 20] ^= 1;
+        assertThrows(AEADBadTagException.class, () -> service.decrypt(flippedCiphertext, keyPair[1]));
+
+        byte[] flippedNonce = reference.clone();
+        flippedNonce[1 + 16] ^= 1;
+        assertThrows(AEADBadTagException.class, () -> service.decrypt(flippedNonce, keyPair[1]));
+
+        // A different wrapped key under a cached id: the cached key is used and fails the tag
+        byte[] forged = service.encrypt("s2", "forged".getBytes(), keyPair[0]);
+        System.arraycopy(carrying, 1, forged, 1, 16);
+        assertThrows(AEADBadTagException.class, () -> service.decrypt(forged, keyPair[1]));
+
+        byte[] unknownType = reference.clone();
+        unknownType[0] = 9;
+        assertThrows(IllegalArgumentException.class, () -> service.decrypt(unknownType, keyPair[1]));
+        assertThrows(IllegalArgumentException.class, () -> service.decrypt(new byte[10], keyPair[1]));
+    }
+}
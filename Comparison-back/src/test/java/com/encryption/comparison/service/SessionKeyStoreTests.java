@@ -0,0 +1,116 @@
+package com.encryption.comparison.service;
+
+import com.encryption.comparison.model.SessionKeyStoreStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionKeyStoreTests {
+
+    private final AtomicLong now = new AtomicLong();
+    private SessionKeyStore store;
+
+    @BeforeEach
+    void setUp() {
+        // max 3 entries, 60s TTL, 20s idle
+        store = new SessionKeyStore(3, 60, 20, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void testHitsAndMisses() {
+        Object[] keyPair = { "public", "private" };
+        store.put("rsa-1", keyPair);
+
+        assertSame(keyPair, store.get("rsa-1"));
+        assertNull(store.get("rsa-2"));
+
+        SessionKeyStoreStats stats = store.getStats();
+        assertEquals(1, stats.getSize());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvictedWhenFull() {
+        store.put("a", new Object[2]);
+        advanceSeconds(1);
+        store.put("b", new Object[2]);
+        advanceSeconds(1);
+        store.put("c", new Object[2]);
+        advanceSeconds(1);
+        store.get("a"); // "b" is now the least recently used
+        store.put("d", new Object[2]);
+
+        assertNull(store.get("b"));
+        assertNotNull(store.get("a"));
+        assertNotNull(store.get("c"));
+        assertNotNull(store.get("d"));
+        assertEquals(3, store.getStats().getSize());
+        assertEquals(1, store.getStats().getEvictions());
+    }
+
+    @Test
+    void testExpiredEldestEntryIsNotCountedAsEviction() {
+        store.put("a", new Object[2]);
+        advanceSeconds(25);
+        store.put("b", new Object[2]);
+        store.put("c", new Object[2]);
+        store.put("d", new Object[2]); // "a" is the eldest and idle for 25s
+
+        assertEquals(3, store.getStats().getSize());
+        assertEquals(0, store.getStats().getEvictions());
+        assertEquals(1, store.getStats().getExpirations());
+        assertNotNull(store.get("b"));
+    }
+
+    @Test
+    void testIdleEntriesExpire() {
+        store.put("a", new Object[2]);
+        advanceSeconds(15);
+        assertNotNull(store.get("a"), "Access within the idle time should keep the entry alive");
+        advanceSeconds(15);
+        assertNotNull(store.get("a"));
+        advanceSeconds(21);
+
+        assertNull(store.get("a"));
+        assertEquals(1, store.getStats().getExpirations());
+    }
+
+    @Test
+    void testTtlExpiresEntriesEvenWhenActive() {
+        store.put("a", new Object[2]);
+        for (int i = 0; i < 6; i++) {
+            advanceSeconds(10);
+            store.get("a");
+        }
+
+        assertNull(store.get("a"), "Entry should expire 60s after creation regardless of access");
+    }
+
+    @Test
+    void testSweepRemovesExpiredEntries() {
+        store.put("a", new Object[2]);
+        store.put("b", new Object[2]);
+        advanceSeconds(30);
+
+        store.removeExpired();
+
+        assertEquals(0, store.getStats().getSize());
+        assertEquals(2, store.getStats().getExpirations());
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
@@ -1,6 +1,6 @@
 import React from 'react';
-import { BarChart3, Trophy, Clock } from 'lucide-react';
-import { formatTime } from '../utils/crypto-utils';
+import { BarChart3, Trophy, Clock, MemoryStick } from 'lucide-react';
+import { formatTime, formatBytes } from '../utils/crypto-utils';
 
 const ComparisonChart = ({ results }) => {
   if (!results || results.length === 0) {
@@ -33,6 +33,10 @@ const ComparisonChart = ({ results }) => {
 
   const getBarWidth = (time) => (time / maxTime) * 100;
 
+  // Allocation per operation and GC, present when the results carry a server-side profile
+  const profiledResults = successfulResults.filter(r => r.allocation);
+  const maxAllocated = Math.max(1, ...profiledResults.flatMap(r => [r.allocation.encryptionBytes, r.allocation.decryptionBytes]));
+
   return (
     <div className="border rounded-lg p-6" style={{ backgroundColor: '#121212', borderColor: '#2a2a2a' }}>
       <div className="flex items-center gap-2 mb-6">
@@ -93,6 +97,48 @@ const ComparisonChart = ({ results }) => {
         </div>
       </div>
 
+      {/* Allocation & GC */}
+      {profiledResults.length > 0 && (
+        <div className="p-4 rounded-lg mb-6" style={{ backgroundColor: '#1a1a1a' }}>
+          <div className="flex items-center gap-2 mb-3">
+            <MemoryStick className="w-4 h-4 text-purple-400" />
+            <h4 className="font-medium" style={{ color: '#e0e0e0' }}>Memory per Operation</h4>
+          </div>
+          <p className="text-xs mb-3" style={{ color: '#808080' }}>
+            From a separate server-side run of the same payload, not the browser-timed runs above.
+          </p>
+          {profiledResults.map((result) => (
+            <div key={result.algorithm} className="space-y-1 mb-3">
+              <div className="flex justify-between text-sm">
+                <span style={{ color: '#e0e0e0' }}>
+                  {result.algorithm}
+                  {result.allocationRun && (
+                    <span className="text-xs ml-2" style={{ color: '#808080' }}>
+                      server run · {result.allocationRun.keySize}-bit · {result.allocationRun.iterations} iterations
+                    </span>
+                  )}
+                </span>
+                <span style={{ color: '#b0b0b0' }}>
+                  GC: {result.allocation.gcCount} ({formatTime(result.allocation.gcTime)}) · Peak heap: +{formatBytes(result.allocation.peakHeapDelta)}
+                </span>
+              </div>
+              {[['Encrypt', 'encryptionBytes'], ['Decrypt', 'decryptionBytes']].map(([label, field]) => (
+                <div key={field} className="flex items-center gap-2 text-xs" style={{ color: '#b0b0b0' }}>
+                  <span className="w-16">{label}</span>
+                  <div className="flex-1 rounded-full h-2" style={{ backgroundColor: '#2a2a2a' }}>
+                    <div
+                      className="h-2 rounded-full bg-purple-500"
+                      style={{ width: `${(result.allocation[field] / maxAllocated) * 100}%` }}
+                    ></div>
+                  </div>
+                  <span className="w-20 text-right">{formatBytes(result.allocation[field])}</span>
+                </div>
+              ))}
+            </div>
+          ))}
+        </div>
+      )}
+
       {/* Winners */}
       {successfulResults.length > 1 && (
         <div className="border rounded-lg p-4" style={{ backgroundColor: '#1f1c00', borderColor: '#4a4400' }}>
@@ -1,6 +1,6 @@
 import React, { useState, useRef } from 'react';
 import { Play, RotateCcw, Settings, FileText, Zap, AlertTriangle, X, BarChart3, Square } from 'lucide-react';
-import { rsaAPI, eccAPI, rsaAesAPI, textAPI } from '../services/api';
+import { rsaAPI, eccAPI, rsaAesAPI, textAPI, comparisonAPI } from '../services/api';
 import { generateTestDataSizes, getMaxDataSize, shouldUseHybridEncryption } from '../utils/crypto-utils';
 import TestResult from '../components/TestResult';
 import ComparisonChart from '../components/ComparisonChart';
@@ -53,6 +53,33 @@ const CryptoComparison = () => {
     setTestData('');
   };
 
+  // Allocation and GC are only measurable inside the JVM, so they come from a server-side run of the same cases
+  const SERVER_ALGORITHMS = { 'RSA': 'RSA', 'RSA+AES': 'RSA+AES Hybrid', 'ECC': 'ECC' };
+
+  // Allocation comes from a separate server-side run of the same cases (the browser cannot see the JVM heap).
+  // It is not recorded in the result history, so UI clicks do not become regression baselines.
+  const attachAllocationProfiles = async (testResults, data) => {
+    const keySizeOf = (prefix, fallback) =>
+      testResults.find(r => r.algorithm.startsWith(prefix))?.keySize ?? fallback;
+    try {
+      const serverResults = await comparisonAPI.compare({
+        dataSizes: [new Blob([data]).size],
+        rsaKeySize: keySizeOf('RSA', 2048),
+        eccKeySize: keySizeOf('ECC', 256),
+        measurementIterations: 10
+      }, { record: false });
+      testResults.forEach(result => {
+        const match = serverResults.find(r => r.success && r.algorithm === SERVER_ALGORITHMS[result.algorithm]);
+        if (match?.allocation) {
+          result.allocation = match.allocation;
+          result.allocationRun = { keySize: match.keySize, iterations: match.measurementIterations };
+        }
+      });
+    } catch (error) {
+      console.warn('Allocation profile unavailable:', error.message);
+    }
+  };
+
   const runSingleTest = async (algorithm, apiMethods, data, keySize) => {
     const startTime = performance.now();
     let keyGenTime = 0;
@@ -221,6 +248,9 @@ const CryptoComparison = () => {
       newResults.push(eccResult);
       setResults([...newResults]);
 
+      await attachAllocationProfiles(newResults, testData);
+      setResults([...newResults]);
+
       // Add to history
       const testSession = {
         timestamp: new Date(),
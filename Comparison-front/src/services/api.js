@@ -141,4 +141,14 @@ export const rsaAesAPI = {
   }
 };
 
+// Server-side comparison runs (timed, allocation and GC counted inside the JVM)
+export const comparisonAPI = {
+  // Run the cases of a CryptoTestConfig, one CryptoTestResult per case; record: false keeps the run out of
+  // the result history
+  compare: async (config, { record = true } = {}) => {
+    const response = await api.post('/crypto/compare', config, { params: { record } });
+    return response.data;
+  }
+};
+
 export default api;
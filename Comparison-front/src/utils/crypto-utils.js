@@ -55,6 +55,16 @@ export const formatTime = (milliseconds) => {
   }
 };
 
+export const formatBytes = (bytes) => {
+  if (bytes < 1024) {
+    return `${bytes} B`;
+  } else if (bytes < 1024 * 1024) {
+    return `${(bytes / 1024).toFixed(1)} KB`;
+  } else {
+    return `${(bytes / (1024 * 1024)).toFixed(2)} MB`;
+  }
+};
+
 export const calculatePerformanceMetrics = (timings) => {
   const total = timings.reduce((sum, time) => sum + time, 0);
   const average = total / timings.length;